@@ -0,0 +1,81 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end catalog build over an in-memory manifest of distinct generated schemas: manifest
+ * parsing, schema parsing, flattening and column construction, serially on the calling thread.
+ * <p>
+ * {@code coldBuild} starts from an empty derived schema cache every time; {@code warmBuild} reuses
+ * one service, so unchanged content is served from the cache as in background refreshes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogBuildBenchmark {
+
+    private static final String BASE_URL = "http://registry.invalid/";
+
+    @Param({"50", "500"})
+    public int schemas;
+
+    @Param({"p20-d2-a0-r0", "p20-d4-a1-r4"})
+    public String shape;
+
+    @Param({"true", "false"})
+    public boolean lightweight;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private InMemorySchemaSource source;
+    private ActionCodeService warmService;
+
+    @Setup
+    public void setUp() {
+        SyntheticSchemaGenerator.Shape parsed = SyntheticSchemaGenerator.Shape.parse(shape);
+        source = new InMemorySchemaSource();
+        StringBuilder manifest = new StringBuilder("{ \"components\": { \"Synthetic\": { \"apiSchemas\": {");
+        for (int i = 0; i < schemas; i++) {
+            String actionCode = "create-synthetic" + i;
+            manifest.append(i == 0 ? "" : ",").append('"').append(actionCode).append("\": \"docs/").append(actionCode).append(".json\"");
+            source.put(URI.create(BASE_URL + "docs/" + actionCode + ".json"), SyntheticSchemaGenerator.document(parsed, actionCode));
+        }
+        source.put(URI.create(BASE_URL + "apiList.json"), manifest.append("} } } }").toString());
+        warmService = newService();
+        warmService.buildCatalogEntries(Map.of());
+    }
+
+    @Benchmark
+    public List<CatalogEntry> coldBuild() {
+        return newService().buildCatalogEntries(Map.of()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<CatalogEntry> warmBuild() {
+        return warmService.buildCatalogEntries(Map.of()).orElseThrow();
+    }
+
+    private ActionCodeService newService() {
+        return new ActionCodeService(objectMapper, source, BASE_URL, "apiList.json", false, 1, 2, false, lightweight,
+                Duration.ofSeconds(10), Duration.ofMinutes(10), Duration.ZERO);
+    }
+}
@@ -0,0 +1,47 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves generated documents from memory, so catalog build benchmarks measure ingestion rather than I/O.
+ */
+final class InMemorySchemaSource implements SchemaSource {
+
+    private final Map<URI, RegistryDocument> documents = new ConcurrentHashMap<>();
+
+    void put(URI uri, String body) {
+        documents.put(uri, new RegistryDocument(uri, body, null, null, ContentHashes.sha256(body), false));
+    }
+
+    @Override
+    public RegistryDocument fetch(URI uri) {
+        RegistryDocument document = documents.get(uri);
+        if (document == null) {
+            throw new ResourceAccessException("No document at " + uri);
+        }
+        return document;
+    }
+
+    @Override
+    public RegistryDocument fetchUnconditionally(URI uri) {
+        return fetch(uri);
+    }
+
+    @Override
+    public List<RegistryDocument> getValidators() {
+        return List.of();
+    }
+
+    @Override
+    public void restoreValidators(List<RegistryDocument> documents) {
+    }
+
+    @Override
+    public void clear() {
+    }
+}
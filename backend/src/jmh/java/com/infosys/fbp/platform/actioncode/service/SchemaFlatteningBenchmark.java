@@ -0,0 +1,63 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of flattening an already parsed document: resolving the record schema by reference and
+ * flattening it for the request and the response body, sharing one flattener as ingestion does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaFlatteningBenchmark {
+
+    private static final String RECORD_REF = SchemaFlattener.COMPONENT_SCHEMA_PREFIX + "Record";
+
+    @Param({"p20-d2-a0-r0", "p200-d2-a0-r0", "p20-d8-a0-r0", "p20-d4-a3-r0", "p20-d2-a0-r16"})
+    public String shape;
+
+    private OpenAPI openAPI;
+
+    @Setup
+    public void setUp() {
+        String document = SyntheticSchemaGenerator.document(SyntheticSchemaGenerator.Shape.parse(shape), "create-synthetic");
+        openAPI = new LightweightOpenApiReader(new ObjectMapper()).read(document);
+    }
+
+    @Benchmark
+    public Schema<?> findSchemaByRef() {
+        return new SchemaFlattener(openAPI, 2).findSchemaByRef(RECORD_REF);
+    }
+
+    @Benchmark
+    public List<SchemaFlattener.FlatColumn> flattenRequest() {
+        SchemaFlattener flattener = new SchemaFlattener(openAPI, 2);
+        return flattener.flatten(flattener.findSchemaByRef(RECORD_REF));
+    }
+
+    @Benchmark
+    public int flattenRequestAndResponse() {
+        SchemaFlattener flattener = new SchemaFlattener(openAPI, 2);
+        Schema<?> record = flattener.findSchemaByRef(RECORD_REF);
+        return flattener.flatten(record).size() + flattener.flatten(record).size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a schema document into a swagger model: the full {@code OpenAPIV3Parser}
+ * (with reference resolution, as used for unsupported documents) against the lightweight reader.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaParsingBenchmark {
+
+    @Param({"p20-d2-a0-r0", "p200-d2-a0-r0", "p20-d8-a0-r0", "p20-d4-a3-r0", "p20-d2-a0-r16"})
+    public String shape;
+
+    private String document;
+    private LightweightOpenApiReader lightweightReader;
+
+    @Setup
+    public void setUp() {
+        document = SyntheticSchemaGenerator.document(SyntheticSchemaGenerator.Shape.parse(shape), "create-synthetic");
+        lightweightReader = new LightweightOpenApiReader(new ObjectMapper());
+    }
+
+    @Benchmark
+    public OpenAPI fullParser() {
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true);
+        return new OpenAPIV3Parser().readContents(document, null, parseOptions).getOpenAPI();
+    }
+
+    @Benchmark
+    public OpenAPI lightweightReader() {
+        return lightweightReader.read(document);
+    }
+}
@@ -0,0 +1,123 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates single-path OpenAPI 3.0 documents shaped like the registry's {@code create-demandCode.json}:
+ * a POST with path/query parameters, a {@code {"request": [...]}} wrapped request body and a
+ * response body, both built from the same record schema.
+ * <p>
+ * The record schema scales along four axes, see {@link Shape}.
+ */
+final class SyntheticSchemaGenerator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Size of a generated document.
+     *
+     * @param properties   leaf properties per object level.
+     * @param depth        levels of nested objects below the record root.
+     * @param arrayNesting how many arrays each nested object is wrapped in (0 = plain object).
+     * @param refFanOut    {@code $ref} properties per level, each to a distinct shared component schema.
+     */
+    record Shape(int properties, int depth, int arrayNesting, int refFanOut) {
+
+        /**
+         * Parses the benchmark parameter form {@code p<properties>-d<depth>-a<arrayNesting>-r<refFanOut>},
+         * e.g. {@code p20-d3-a1-r4}.
+         */
+        static Shape parse(String value) {
+            String[] parts = value.split("-");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Expected p<n>-d<n>-a<n>-r<n> but got " + value);
+            }
+            return new Shape(number(parts[0], 'p'), number(parts[1], 'd'), number(parts[2], 'a'), number(parts[3], 'r'));
+        }
+
+        private static int number(String part, char prefix) {
+            if (part.isEmpty() || part.charAt(0) != prefix) {
+                throw new IllegalArgumentException("Expected '" + prefix + "<n>' but got " + part);
+            }
+            return Integer.parseInt(part.substring(1));
+        }
+    }
+
+    private SyntheticSchemaGenerator() {
+    }
+
+    /**
+     * Generates a document for the given shape.
+     *
+     * @param operationId the operation id and path segment, so generated catalogs have distinct endpoints.
+     */
+    static String document(Shape shape, String operationId) {
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put("openapi", "3.0.2");
+        root.putObject("info").put("title", "synthetic " + operationId).put("version", "1.0.0");
+
+        ObjectNode post = root.putObject("paths").putObject("/api/" + operationId + "/{code}").putObject("post");
+        post.putArray("tags").add("Synthetic");
+        post.put("operationId", operationId);
+        ArrayNode parameters = post.putArray("parameters");
+        parameters.addObject().put("name", "code").put("in", "path").put("description", "Code").put("required", true)
+                .putObject("schema").put("type", "string");
+        parameters.addObject().put("name", "targetSystemCode").put("in", "query").put("description", "Target system")
+                .putObject("schema").put("type", "string");
+        post.putObject("requestBody").put("required", true).putObject("content").putObject("application/json")
+                .putObject("schema").put("$ref", "#/components/schemas/ApiSingleRequest");
+        post.putObject("responses").putObject("200").put("description", "OK").putObject("content")
+                .putObject("application/json").putObject("schema").put("$ref", "#/components/schemas/Record");
+
+        ObjectNode schemas = root.putObject("components").putObject("schemas");
+        ObjectNode wrapper = schemas.putObject("ApiSingleRequest").put("type", "object");
+        wrapper.putObject("properties").putObject("request").put("type", "array")
+                .putObject("items").put("$ref", "#/components/schemas/Record");
+        schemas.set("Record", objectSchema(shape, 0));
+        for (int r = 0; r < shape.refFanOut(); r++) {
+            schemas.set("Shared" + r, leafObject(shape.properties(), "shared" + r));
+        }
+
+        try {
+            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // One object level: leaves, $ref fan-out and (unless at the deepest level) a nested child
+    private static ObjectNode objectSchema(Shape shape, int level) {
+        ObjectNode schema = leafObject(shape.properties(), "field" + level);
+        ObjectNode properties = (ObjectNode) schema.get("properties");
+        for (int r = 0; r < shape.refFanOut(); r++) {
+            properties.putObject("shared" + r + "Ref").put("$ref", "#/components/schemas/Shared" + r);
+        }
+        if (level < shape.depth()) {
+            ObjectNode child = objectSchema(shape, level + 1);
+            for (int a = 0; a < shape.arrayNesting(); a++) {
+                ObjectNode array = OBJECT_MAPPER.createObjectNode().put("type", "array");
+                array.set("items", child);
+                child = array;
+            }
+            properties.set("level" + (level + 1), child);
+        }
+        return schema;
+    }
+
+    private static ObjectNode leafObject(int count, String prefix) {
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode().put("type", "object");
+        ArrayNode required = schema.putArray("required");
+        ObjectNode properties = schema.putObject("properties");
+        for (int p = 0; p < count; p++) {
+            String name = prefix + "Property" + p;
+            properties.putObject(name).put("type", p % 3 == 0 ? "integer" : "string").put("description", "Synthetic " + name);
+            if (p % 2 == 0) {
+                required.add(name);
+            }
+        }
+        return schema;
+    }
+}
@@ -29,6 +29,7 @@ public class App {
                         .allowedOrigins(allowedOrigins) // Use configured origins
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allowed methods
                         .allowedHeaders("*") // Allow all headers
+                        .exposedHeaders("ETag", "X-Next-Cursor") // Readable by the frontend for caching and paging
                         .allowCredentials(true); // Allow credentials (cookies, auth headers)
             }
         };
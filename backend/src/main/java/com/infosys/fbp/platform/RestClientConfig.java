@@ -1,20 +1,126 @@
 package com.infosys.fbp.platform;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder; // Add import
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration; // Add import for Duration
 
+/**
+ * HTTP client for the spec registry.
+ * <p>
+ * By default ({@code rest-client.pool.enabled=true}) requests go through a pooled keep-alive Apache
+ * HttpClient, so schema fetches reuse connections instead of paying TCP/TLS setup each time. Pool
+ * utilisation ({@code httpcomponents.httpclient.pool.*}) and connect time
+ * ({@value TimedConnectionSocketFactory#CONNECT_TIMER}) are published when a MeterRegistry is available;
+ * request latency is recorded by Spring Boot's {@code http.client.requests} instrumentation.
+ * With pooling disabled, the plain JDK client is used as before.
+ */
 @Configuration
+@Slf4j
 public class RestClientConfig {
 
+    private static final String POOL_ENABLED = "rest-client.pool.enabled";
+    private static final String POOL_NAME = "registry"; // Tag of the pool metrics
+
+    @Value("${rest-client.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${rest-client.read-timeout:30s}")
+    private Duration readTimeout;
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, ObjectProvider<CloseableHttpClient> pooledHttpClient) {
+        CloseableHttpClient httpClient = pooledHttpClient.getIfAvailable();
+        if (httpClient != null) {
+            // Timeouts are configured on the pooled client itself
+            return builder
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                    .build();
+        }
         return builder
-                .setConnectTimeout(Duration.ofSeconds(5)) // Set connection timeout to 5 seconds
-                .setReadTimeout(Duration.ofSeconds(30))   // Set read timeout to 30 seconds
+                .requestFactory(SimpleClientHttpRequestFactory.class) // Plain JDK connections, as before pooling
+                .setConnectTimeout(connectTimeout) // Connection timeout, 5 seconds by default
+                .setReadTimeout(readTimeout)   // Read timeout, 30 seconds by default
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = POOL_ENABLED, havingValue = "true", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager registryConnectionManager(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${rest-client.pool.max-total:50}") int maxTotal,
+            @Value("${rest-client.pool.max-per-route:16}") int maxPerRoute,
+            @Value("${rest-client.pool.time-to-live:5m}") Duration timeToLive,
+            @Value("${rest-client.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        ConnectionSocketFactory plain = PlainConnectionSocketFactory.getSocketFactory();
+        ConnectionSocketFactory tls = SSLConnectionSocketFactory.getSocketFactory();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            plain = new TimedConnectionSocketFactory(plain, registry, "http");
+            tls = new TimedConnectionSocketFactory(tls, registry, "https");
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create().register("http", plain).register("https", tls).build(),
+                PoolConcurrencyPolicy.STRICT,
+                PoolReusePolicy.LIFO, // Reuse the most recent connection so idle ones can expire
+                TimeValue.of(timeToLive));
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute); // The registry is a single route
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                .build());
+        log.info("Registry HTTP client pool: max {} connections, {} per route, time to live {}", maxTotal, maxPerRoute, timeToLive);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = POOL_ENABLED, havingValue = "true", matchIfMissing = true)
+    public CloseableHttpClient registryHttpClient(
+            PoolingHttpClientConnectionManager registryConnectionManager,
+            @Value("${rest-client.pool.idle-eviction:30s}") Duration idleEviction,
+            @Value("${rest-client.pool.connection-request-timeout:5s}") Duration connectionRequestTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(registryConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout)) // Waiting for a free pooled connection
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
                 .build();
     }
+
+    // Bound to the MeterRegistry by Spring Boot's metrics auto-configuration
+    @Bean
+    @ConditionalOnProperty(name = POOL_ENABLED, havingValue = "true", matchIfMissing = true)
+    public MeterBinder registryConnectionPoolMetrics(PoolingHttpClientConnectionManager registryConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(registryConnectionManager, POOL_NAME);
+    }
 }
@@ -0,0 +1,93 @@
+package com.infosys.fbp.platform;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.LayeredConnectionSocketFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Records how long establishing new connections takes (TCP connect plus TLS handshake for https)
+ * as the {@value #CONNECT_TIMER} timer, tagged with scheme and outcome. Pooled connections that are
+ * reused never pass through here, so a low count relative to request count means keep-alive works.
+ */
+class TimedConnectionSocketFactory implements LayeredConnectionSocketFactory {
+
+    static final String CONNECT_TIMER = "registry.client.connect";
+
+    private final ConnectionSocketFactory delegate;
+    private final MeterRegistry meterRegistry;
+    private final String scheme;
+
+    TimedConnectionSocketFactory(ConnectionSocketFactory delegate, MeterRegistry meterRegistry, String scheme) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.scheme = scheme;
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return delegate.createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(TimeValue connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Socket connected = delegate.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            outcome = "success";
+            return connected;
+        } finally {
+            sample.stop(timer(outcome));
+        }
+    }
+
+    // The variant the connection operator calls; TLS factories override it to apply the TLS config
+    @Override
+    public Socket connectSocket(Socket socket, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                Timeout connectTimeout, Object attachment, HttpContext context) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Socket connected = delegate.connectSocket(socket, host, remoteAddress, localAddress, connectTimeout, attachment, context);
+            outcome = "success";
+            return connected;
+        } finally {
+            sample.stop(timer(outcome));
+        }
+    }
+
+    // Only reached when tunnelling through a proxy; plain factories cannot layer
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        if (delegate instanceof LayeredConnectionSocketFactory layered) {
+            return layered.createLayeredSocket(socket, target, port, context);
+        }
+        throw new UnsupportedOperationException("Socket factory for " + scheme + " does not support layering");
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, Object attachment, HttpContext context) throws IOException {
+        if (delegate instanceof LayeredConnectionSocketFactory layered) {
+            return layered.createLayeredSocket(socket, target, port, attachment, context);
+        }
+        throw new UnsupportedOperationException("Socket factory for " + scheme + " does not support layering");
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder(CONNECT_TIMER)
+                .description("Time to establish a new connection to the spec registry")
+                .tag("scheme", scheme)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
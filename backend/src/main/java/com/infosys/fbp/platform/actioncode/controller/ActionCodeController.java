@@ -1,33 +1,168 @@
 package com.infosys.fbp.platform.actioncode.controller;
 
 import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
-import com.infosys.fbp.platform.actioncode.service.ActionCodeService;
+import com.infosys.fbp.platform.actioncode.dto.ActionSummaryInfo;
+import com.infosys.fbp.platform.actioncode.service.ActionCatalogPayload;
+import com.infosys.fbp.platform.actioncode.service.ActionCatalogService;
+import com.infosys.fbp.platform.actioncode.service.ActionPage;
+import com.infosys.fbp.platform.actioncode.service.ActionQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api") // Base path for this controller
 @RequiredArgsConstructor // Lombok annotation for constructor injection
 public class ActionCodeController {
 
-    private final ActionCodeService actionCodeService;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
+    private static final int MAX_LIMIT = 1000;
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ActionCatalogService actionCatalogService;
 
     /**
      * Retrieves the list of available actions (action codes) for the frontend Scenario Workbench.
      * This provides the same data as `/api/action-codes` but serves as the primary endpoint
      * for the frontend application based on requirements.
+     * <p>
+     * Without parameters the full list is served from the cached catalog, pre-serialized once per
+     * catalog version; see {@link ActionCatalogService}. Clients accepting gzip get the pre-compressed
+     * bytes, and a matching {@code If-None-Match} yields 304 Not Modified.
+     * <p>
+     * The list can be filtered by component, group and type, projected to {@link ActionSummaryInfo}
+     * with {@code view=summary}, and paged with {@code limit}; the cursor for the next page is
+     * returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param component      only actions of this component.
+     * @param group          only actions of this action code group.
+     * @param type           only actions of this type, e.g. "PostAndVerify".
+     * @param view           "full" (default) or "summary" (no column lists).
+     * @param limit          maximum number of actions per page.
+     * @param cursor         cursor from the previous page's {@value #NEXT_CURSOR_HEADER} header.
+     * @param acceptEncoding the request's Accept-Encoding header, if any.
+     * @return ResponseEntity containing the JSON list of ActionCodeInfo or ActionSummaryInfo objects.
+     */
+    @GetMapping(value = "/actions", produces = MediaType.APPLICATION_JSON_VALUE) // New endpoint for the frontend
+    public ResponseEntity<?> getActionsForFrontend(
+            @RequestParam(required = false) String component,
+            @RequestParam(required = false) String group,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!VIEW_FULL.equals(view) && !VIEW_SUMMARY.equals(view)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "view must be 'full' or 'summary'"));
+        }
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        if (component == null && group == null && type == null && limit == null && cursor == null && VIEW_FULL.equals(view)) {
+            return fullCatalog(acceptEncoding);
+        }
+
+        ActionPage page;
+        try {
+            page = actionCatalogService.findActions(new ActionQuery(component, group, type, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        if (VIEW_SUMMARY.equals(view)) {
+            return response.body(page.actions().stream().map(ActionSummaryInfo::from).toList());
+        }
+        return response.body(page.actions());
+    }
+
+    /**
+     * Retrieves a single action including its request and response column lists.
+     *
+     * @param actionCode the action code.
+     * @param component  the component, if the action code is not unique across components.
+     * @return ResponseEntity containing the ActionCodeInfo, or 404 Not Found.
+     */
+    @GetMapping("/actions/{actionCode}")
+    public ResponseEntity<ActionCodeInfo> getAction(@PathVariable String actionCode,
+                                                    @RequestParam(required = false) String component) {
+        return actionCatalogService.findAction(actionCode, component)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Action not found: " + actionCode));
+    }
+
+    /**
+     * Discards the cached action catalog so the next request rebuilds it from the registry.
+     *
+     * @return 204 No Content.
+     */
+    @PostMapping("/actions/cache/invalidate")
+    public ResponseEntity<Void> invalidateActionCatalog() {
+        actionCatalogService.invalidate();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Rebuilds the action catalog in the background while the current one keeps being served.
      *
-     * @return ResponseEntity containing the list of ActionCodeInfo objects.
+     * @return 202 Accepted.
      */
-    @GetMapping("/actions") // New endpoint for the frontend
-    public ResponseEntity<List<ActionCodeInfo>> getActionsForFrontend() {
-        List<ActionCodeInfo> actionCodes = actionCodeService.generateActionCodeList();
-        // Consider adding error handling or checking if the list is empty
-        return ResponseEntity.ok(actionCodes);
+    @PostMapping("/actions/cache/refresh")
+    public ResponseEntity<Void> refreshActionCatalog() {
+        actionCatalogService.refreshAsync();
+        return ResponseEntity.accepted().build();
+    }
+
+    // The whole catalog as cached bytes; a matching If-None-Match is answered with 304 by Spring based on the ETag of the coding sent
+    private ResponseEntity<byte[]> fullCatalog(String acceptEncoding) {
+        Optional<ActionCatalogPayload> payload = actionCatalogService.getPayload();
+        if (payload.isEmpty()) {
+            // No catalog could be built; keep returning an empty list as before
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(EMPTY_LIST);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(payload.get().gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(payload.get().gzip());
+        }
+        return response.eTag(payload.get().etag()).body(payload.get().json());
+    }
+
+    // True if the Accept-Encoding header lists gzip without refusing it (q=0)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,47 @@
+package com.infosys.fbp.platform.actioncode.controller;
+
+import com.infosys.fbp.platform.actioncode.service.CatalogBuildDiagnostics;
+import com.infosys.fbp.platform.actioncode.service.CatalogBuildTrace;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+public class CatalogDiagnosticsController {
+
+    private final CatalogBuildDiagnostics catalogBuildDiagnostics;
+
+    /**
+     * Lists the traces of the most recent catalog builds, newest first. Each build lists its manifest
+     * entries most expensive first (fetch plus parse plus flatten time), with fetch size, column
+     * counts and the reason for skipped or failed schemas.
+     *
+     * @param limit maximum number of builds to return; all retained builds by default.
+     * @param top   maximum number of entries to list per build; all by default. Counts always cover every entry.
+     * @return ResponseEntity containing the list of CatalogBuildTrace objects.
+     */
+    @GetMapping(value = "/catalog-builds", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getCatalogBuilds(@RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) Integer top) {
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be at least 1"));
+        }
+        if (top != null && top < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "top must not be negative"));
+        }
+        List<CatalogBuildTrace> builds = catalogBuildDiagnostics.recentBuilds().stream()
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .map(build -> top != null ? build.withTopActions(top) : build)
+                .toList();
+        return ResponseEntity.ok(builds);
+    }
+}
@@ -21,4 +21,22 @@ public class ActionCodeInfo {
     private PathPropertyListMap pathPropertyListMap = new PathPropertyListMap();
     private List<RequestBodyColumnInfo> requestBodyColumnList = new ArrayList<>(); // Renamed to camelCase
     private List<ResponseBodyColumnInfo> responseBodyColumnList = new ArrayList<>(); // Added for response processing
+
+    /**
+     * Request columns at or below a path such as ":request:details", compared on interned path nodes.
+     */
+    public List<RequestBodyColumnInfo> requestColumnsUnder(String path) {
+        return PathNode.find(path)
+                .map(prefix -> requestBodyColumnList.stream().filter(column -> column.getParentPath().startsWith(prefix)).toList())
+                .orElse(List.of()); // No column was ever stored under an unknown path
+    }
+
+    /**
+     * Response columns at or below a path such as ":response:data", compared on interned path nodes.
+     */
+    public List<ResponseBodyColumnInfo> responseColumnsUnder(String path) {
+        return PathNode.find(path)
+                .map(prefix -> responseBodyColumnList.stream().filter(column -> column.getParentPath().startsWith(prefix)).toList())
+                .orElse(List.of()); // No column was ever stored under an unknown path
+    }
 }
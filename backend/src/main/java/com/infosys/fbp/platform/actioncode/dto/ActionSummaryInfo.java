@@ -0,0 +1,31 @@
+package com.infosys.fbp.platform.actioncode.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight projection of {@link ActionCodeInfo} for listing actions, without the column lists.
+ * The full action is available from {@code /api/actions/{actionCode}}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ActionSummaryInfo {
+    private String componentName;
+    private String actionCodeGroupName;
+    private String actionCode;
+    private String endPoint;
+    private String type; // e.g., "PostAndVerify", "FetchAndVerify"
+    private int requestColumnCount;
+    private int responseColumnCount;
+
+    public static ActionSummaryInfo from(ActionCodeInfo info) {
+        return new ActionSummaryInfo(info.getComponentName(), info.getActionCodeGroupName(), info.getActionCode(),
+                info.getEndPoint(), info.getType(),
+                info.getRequestBodyColumnList() != null ? info.getRequestBodyColumnList().size() : 0,
+                info.getResponseBodyColumnList() != null ? info.getResponseBodyColumnList().size() : 0);
+    }
+}
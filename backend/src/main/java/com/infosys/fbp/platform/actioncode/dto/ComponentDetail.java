@@ -11,4 +11,8 @@ public class ComponentDetail {
 
     // Map of actionCode -> schemaPath (e.g., "create-demandCode": "create-demandCode.json")
     private Map<String, String> apiSchemas = Collections.emptyMap(); // Initialize to avoid nulls
+
+    // Map of specName -> full service spec path (e.g., "billing-service": "specs/billing.json");
+    // every GET/POST/PUT/PATCH/DELETE operation of the spec becomes its own action code
+    private Map<String, String> serviceSpecs = Collections.emptyMap();
 }
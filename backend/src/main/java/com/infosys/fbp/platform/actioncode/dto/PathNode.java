@@ -0,0 +1,149 @@
+package com.infosys.fbp.platform.actioncode.dto;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A node of the shared, interned trie of column paths such as {@code :request:demandCode:details}.
+ * <p>
+ * Every distinct path exists exactly once, so flattened columns only hold a reference to their
+ * parent path and the path strings are built on demand (typically once, when the catalog is
+ * serialized). Nodes are canonical: two columns share a path if and only if they reference the
+ * same node, and prefix checks walk parent links instead of comparing strings.
+ * <p>
+ * The trie only grows, so its size is bounded by the distinct column paths of all schemas ingested
+ * (or read from catalog snapshots) since startup. Those are capped per schema by the flattener's
+ * {@code manifest.flatten.max-ref-depth}, and paths of schemas removed from the registry stay until
+ * restart. Lookups on behalf of clients must use {@link #find(String)}, which never adds nodes, so
+ * request input cannot grow the trie. Nodes are immutable and safe to share between threads;
+ * identity equality is path equality.
+ */
+public final class PathNode {
+
+    public static final String SEPARATOR = ":";
+
+    private static final PathNode ROOT = new PathNode(null, "");
+
+    private final PathNode parent;
+    private final String segment;
+    private final int depth;
+    private final Map<String, PathNode> children = new ConcurrentHashMap<>();
+
+    private PathNode(PathNode parent, String segment) {
+        this.parent = parent;
+        this.segment = segment;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+    }
+
+    /**
+     * The empty path.
+     */
+    public static PathNode root() {
+        return ROOT;
+    }
+
+    /**
+     * Returns the canonical node for a path like {@code :response:data}, creating it if needed.
+     * {@code null} and the empty string denote the root.
+     */
+    public static PathNode of(String path) {
+        return ROOT.resolve(path);
+    }
+
+    /**
+     * Returns the canonical node for a path if any column was ever stored under it, without creating it.
+     */
+    public static Optional<PathNode> find(String path) {
+        PathNode node = ROOT;
+        for (String segment : segments(path)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(node);
+    }
+
+    /**
+     * Returns the canonical child node for one path segment.
+     */
+    public PathNode child(String segment) {
+        PathNode child = children.get(segment);
+        return child != null ? child : children.computeIfAbsent(segment, name -> new PathNode(this, name));
+    }
+
+    /**
+     * Returns the canonical node for a path relative to this one, e.g. {@code :details:address}.
+     */
+    public PathNode resolve(String relativePath) {
+        PathNode node = this;
+        for (String segment : segments(relativePath)) {
+            node = node.child(segment);
+        }
+        return node;
+    }
+
+    /**
+     * Whether this node is {@code prefix} or lies below it.
+     */
+    public boolean startsWith(PathNode prefix) {
+        PathNode node = this;
+        while (node != null && node.depth >= prefix.depth) {
+            if (node == prefix) {
+                return true;
+            }
+            node = node.parent;
+        }
+        return false;
+    }
+
+    public PathNode getParent() {
+        return parent;
+    }
+
+    public String getSegment() {
+        return segment;
+    }
+
+    /**
+     * Builds the path string, e.g. {@code :request:demandCode}; the root is the empty string.
+     */
+    public String path() {
+        if (parent == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        appendTo(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Builds the path string of a column named {@code name} directly under this node.
+     */
+    public String path(String name) {
+        StringBuilder builder = new StringBuilder();
+        appendTo(builder);
+        return builder.append(SEPARATOR).append(name).toString();
+    }
+
+    private void appendTo(StringBuilder builder) {
+        if (parent != null) {
+            parent.appendTo(builder);
+            builder.append(SEPARATOR).append(segment);
+        }
+    }
+
+    private static String[] segments(String path) {
+        if (path == null || path.isEmpty()) {
+            return new String[0];
+        }
+        String trimmed = path.startsWith(SEPARATOR) ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(SEPARATOR, -1);
+    }
+
+    @Override
+    public String toString() {
+        return path();
+    }
+}
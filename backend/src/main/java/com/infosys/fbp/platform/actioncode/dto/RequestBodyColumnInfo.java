@@ -1,18 +1,85 @@
 package com.infosys.fbp.platform.actioncode.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty; // Import JsonProperty
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.Setter;
 
+/**
+ * A flattened column of an API request body schema.
+ * <p>
+ * The column references its parent path in the shared {@link PathNode} trie instead of holding
+ * path strings; {@code derivedDataType}, {@code attributePath} and {@code attributeGridPath} are
+ * built when read. Columns created by the flattener, or read from JSON, only store attribute paths
+ * that differ from {@code derivedDataType + ":" + technicalColumnName}; stored paths are kept when
+ * the derived data type changes, the others follow it.
+ */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
+@JsonPropertyOrder({"technicalColumnName", "isMandatory", "derivedDataType", "attributePath", "attributeGridPath"})
 public class RequestBodyColumnInfo {
     private String technicalColumnName;
     @JsonProperty("isMandatory") // Explicitly map JSON property name
     private boolean isMandatory;
-    private String derivedDataType; // Path from root data schema as per plan
-    private String attributePath; // New field: derivedDataType + ":" + technicalColumnName (for grid field ID)
-    private String attributeGridPath; // New field: derivedDataType + ":" + technicalColumnName (for grid header)
+    @JsonIgnore
+    private PathNode parentPath = PathNode.root(); // Path from root data schema as per plan
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private String attributePath; // Null while derivedDataType + ":" + technicalColumnName (for grid field ID)
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private String attributeGridPath; // Null while derivedDataType + ":" + technicalColumnName (for grid header)
+
+    public RequestBodyColumnInfo(String technicalColumnName, boolean isMandatory, PathNode parentPath) {
+        this.technicalColumnName = technicalColumnName;
+        this.isMandatory = isMandatory;
+        this.parentPath = parentPath;
+    }
+
+    /**
+     * Reads a column with all its properties at once, so attribute paths equal to the derived ones
+     * are dropped however the JSON properties are ordered.
+     */
+    @JsonCreator
+    public RequestBodyColumnInfo(@JsonProperty("technicalColumnName") String technicalColumnName,
+                                 @JsonProperty("isMandatory") boolean isMandatory,
+                                 @JsonProperty("derivedDataType") String derivedDataType,
+                                 @JsonProperty("attributePath") String attributePath,
+                                 @JsonProperty("attributeGridPath") String attributeGridPath) {
+        this(technicalColumnName, isMandatory, PathNode.of(derivedDataType));
+        this.attributePath = isDerivedPath(attributePath) ? null : attributePath;
+        this.attributeGridPath = isDerivedPath(attributeGridPath) ? null : attributeGridPath;
+    }
+
+    public String getDerivedDataType() {
+        return parentPath.path();
+    }
+
+    public void setDerivedDataType(String derivedDataType) {
+        this.parentPath = PathNode.of(derivedDataType);
+    }
+
+    public String getAttributePath() {
+        return attributePath != null ? attributePath : parentPath.path(technicalColumnName);
+    }
+
+    // Kept as given: whether it equals the derived path depends on properties that may still change
+    public void setAttributePath(String attributePath) {
+        this.attributePath = attributePath;
+    }
+
+    public String getAttributeGridPath() {
+        return attributeGridPath != null ? attributeGridPath : parentPath.path(technicalColumnName);
+    }
+
+    public void setAttributeGridPath(String attributeGridPath) {
+        this.attributeGridPath = attributeGridPath;
+    }
+
+    private boolean isDerivedPath(String path) {
+        return path != null && path.equals(parentPath.path(technicalColumnName));
+    }
 }
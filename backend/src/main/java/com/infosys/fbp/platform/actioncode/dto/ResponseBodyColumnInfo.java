@@ -1,16 +1,24 @@
 package com.infosys.fbp.platform.actioncode.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty; // Import JsonProperty
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.Setter;
 
 /**
  * Represents a flattened column/field derived from an API response body schema.
+ * <p>
+ * Paths are stored as a reference into the shared {@link PathNode} trie and built when read,
+ * like {@link RequestBodyColumnInfo}.
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
+@JsonPropertyOrder({"technicalColumnName", "isMandatory", "derivedDataType", "attributePath", "attributeGridPath"})
 public class ResponseBodyColumnInfo {
     /**
      * The technical name of the field (e.g., "userId", "orderDate").
@@ -26,10 +34,63 @@ public class ResponseBodyColumnInfo {
     private boolean isMandatory; // Renamed from 'mandatory'
 
     /**
-     * A derived path indicating the field's location in the original nested structure,
-     * prefixed with ":response". Example: ":response:data:id", ":response:errors:code".
+     * The field's parent location in the original nested structure; its path, prefixed with
+     * ":response", is exposed as {@code derivedDataType}. Example: ":response:data", ":response:errors".
      */
-    private String derivedDataType;
-    private String attributePath; // New field: derivedDataType + ":" + technicalColumnName (for grid field ID)
-    private String attributeGridPath; // New field: derivedDataType + ":" + technicalColumnName (for grid header)
+    @JsonIgnore
+    private PathNode parentPath = PathNode.root();
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private String attributePath; // Null while derivedDataType + ":" + technicalColumnName (for grid field ID)
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private String attributeGridPath; // Null while derivedDataType + ":" + technicalColumnName (for grid header)
+
+    public ResponseBodyColumnInfo(String technicalColumnName, boolean isMandatory, PathNode parentPath) {
+        this.technicalColumnName = technicalColumnName;
+        this.isMandatory = isMandatory;
+        this.parentPath = parentPath;
+    }
+
+    /**
+     * Reads a column with all its properties at once, so attribute paths equal to the derived ones
+     * are dropped however the JSON properties are ordered.
+     */
+    @JsonCreator
+    public ResponseBodyColumnInfo(@JsonProperty("technicalColumnName") String technicalColumnName,
+                                  @JsonProperty("isMandatory") boolean isMandatory,
+                                  @JsonProperty("derivedDataType") String derivedDataType,
+                                  @JsonProperty("attributePath") String attributePath,
+                                  @JsonProperty("attributeGridPath") String attributeGridPath) {
+        this(technicalColumnName, isMandatory, PathNode.of(derivedDataType));
+        this.attributePath = isDerivedPath(attributePath) ? null : attributePath;
+        this.attributeGridPath = isDerivedPath(attributeGridPath) ? null : attributeGridPath;
+    }
+
+    public String getDerivedDataType() {
+        return parentPath.path();
+    }
+
+    public void setDerivedDataType(String derivedDataType) {
+        this.parentPath = PathNode.of(derivedDataType);
+    }
+
+    public String getAttributePath() {
+        return attributePath != null ? attributePath : parentPath.path(technicalColumnName);
+    }
+
+    // Kept as given: whether it equals the derived path depends on properties that may still change
+    public void setAttributePath(String attributePath) {
+        this.attributePath = attributePath;
+    }
+
+    public String getAttributeGridPath() {
+        return attributeGridPath != null ? attributeGridPath : parentPath.path(technicalColumnName);
+    }
+
+    public void setAttributeGridPath(String attributeGridPath) {
+        this.attributeGridPath = attributeGridPath;
+    }
+
+    private boolean isDerivedPath(String path) {
+        return path != null && path.equals(parentPath.path(technicalColumnName));
+    }
 }
@@ -0,0 +1,183 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable, versioned snapshot of the action code catalog as served to the frontend.
+ */
+@Getter
+public class ActionCatalog {
+
+    /**
+     * Monotonically increasing version, bumped on every successful build.
+     */
+    private final long version;
+
+    /**
+     * When this catalog was built.
+     */
+    private final Instant builtAt;
+
+    /**
+     * When the last full (non-incremental) build this catalog descends from ran.
+     */
+    private final Instant fullBuildAt;
+
+    /**
+     * Every manifest entry in manifest order, including skipped or failed ones.
+     */
+    private final List<CatalogEntry> entries;
+
+    /**
+     * The ingested action codes in manifest order (component, then action code).
+     */
+    private final List<ActionCodeInfo> actions;
+
+    /**
+     * Request and response body columns across all ingested actions.
+     */
+    private final long columnCount;
+
+    public ActionCatalog(long version, Instant builtAt, Instant fullBuildAt, List<CatalogEntry> entries) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.fullBuildAt = fullBuildAt;
+        this.entries = Collections.unmodifiableList(entries);
+        this.actions = Collections.unmodifiableList(ActionCodeService.ingestedActions(entries));
+        this.columnCount = countColumns(actions);
+    }
+
+    private static long countColumns(List<ActionCodeInfo> actions) {
+        long columns = 0;
+        for (ActionCodeInfo info : actions) {
+            columns += info.getRequestBodyColumnList() == null ? 0 : info.getRequestBodyColumnList().size();
+            columns += info.getResponseBodyColumnList() == null ? 0 : info.getResponseBodyColumnList().size();
+        }
+        return columns;
+    }
+
+    /**
+     * Entries keyed by {@link CatalogEntry#key()}, used to diff the next build against this one.
+     */
+    public Map<String, CatalogEntry> entriesByKey() {
+        Map<String, CatalogEntry> byKey = new LinkedHashMap<>();
+        entries.forEach(entry -> byKey.put(entry.key(), entry));
+        return byKey;
+    }
+
+    /**
+     * Lists the ingested actions matching the query, in manifest order, one page at a time.
+     * <p>
+     * Cursors name the last returned entry and its position, so paging stays consistent across
+     * catalog rebuilds: the next page resumes after that entry, or at the same position if the
+     * entry has since been removed from the manifest.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public ActionPage find(ActionQuery query) {
+        int start = query.cursor() != null ? resumePosition(query.cursor()) : 0;
+        int limit = query.limit() != null ? Math.max(1, query.limit()) : Integer.MAX_VALUE;
+
+        List<ActionCodeInfo> page = new ArrayList<>();
+        int lastReturned = -1;
+        for (int i = start; i < entries.size(); i++) {
+            CatalogEntry entry = entries.get(i);
+            if (!entry.isIngested() || !matches(entry.info(), query)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                // More matches exist; the cursor points at the last entry returned
+                return new ActionPage(page, encodeCursor(lastReturned, entries.get(lastReturned)));
+            }
+            page.add(entry.info());
+            lastReturned = i;
+        }
+        return new ActionPage(page, null);
+    }
+
+    /**
+     * Finds a single ingested action by action code, optionally restricted to one component.
+     * Without a component the first match in manifest order is returned.
+     */
+    public Optional<ActionCodeInfo> findAction(String actionCode, String componentName) {
+        return findEntry(actionCode, componentName).map(CatalogEntry::info);
+    }
+
+    /**
+     * Finds the entry of a single ingested (or stubbed) action, like {@link #findAction(String, String)}.
+     */
+    public Optional<CatalogEntry> findEntry(String actionCode, String componentName) {
+        return entries.stream()
+                .filter(CatalogEntry::isIngested)
+                .filter(entry -> actionCode.equals(entry.actionCode()))
+                .filter(entry -> componentName == null || componentName.equals(entry.componentName()))
+                .findFirst();
+    }
+
+    /**
+     * Returns a copy of this catalog with a lazy stub replaced by its resolved entry, keeping the
+     * build times. Returns this catalog if the stub is no longer part of it.
+     */
+    public ActionCatalog withResolved(long newVersion, CatalogEntry resolved) {
+        List<CatalogEntry> updated = new ArrayList<>(entries);
+        for (int i = 0; i < updated.size(); i++) {
+            CatalogEntry entry = updated.get(i);
+            if (entry.isStub() && entry.key().equals(resolved.key()) && entry.schemaPath().equals(resolved.schemaPath())) {
+                updated.set(i, resolved);
+                return new ActionCatalog(newVersion, builtAt, fullBuildAt, updated);
+            }
+        }
+        return this;
+    }
+
+    private static boolean matches(ActionCodeInfo info, ActionQuery query) {
+        return (query.componentName() == null || query.componentName().equals(info.getComponentName()))
+                && (query.actionCodeGroupName() == null || query.actionCodeGroupName().equals(info.getActionCodeGroupName()))
+                && (query.type() == null || query.type().equals(info.getType()));
+    }
+
+    private static String encodeCursor(int position, CatalogEntry last) {
+        String raw = position + ":" + last.key();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int resumePosition(String cursor) {
+        String raw;
+        int position;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            position = Integer.parseInt(raw.substring(0, raw.indexOf(':')));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        String key = raw.substring(raw.indexOf(':') + 1);
+        if (position < entries.size() && entries.get(position).key().equals(key)) {
+            return position + 1;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).key().equals(key)) {
+                return i + 1; // The entry moved since the cursor was issued
+            }
+        }
+        return Math.min(Math.max(position, 0), entries.size()); // The entry was removed; resume where it was
+    }
+
+    /**
+     * Whether this catalog is older than the given time-to-live.
+     */
+    public boolean isExpired(Duration ttl, Instant now) {
+        return builtAt.plus(ttl).isBefore(now);
+    }
+}
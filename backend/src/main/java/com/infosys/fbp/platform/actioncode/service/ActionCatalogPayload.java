@@ -0,0 +1,35 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The action list of one catalog version, serialized once and kept as ready-to-send bytes.
+ *
+ * @param catalogVersion the catalog version the payload was serialized from.
+ * @param json           the JSON bytes, sent to clients that do not accept gzip.
+ * @param gzip           the gzip-compressed JSON bytes.
+ * @param etag           strong ETag of the JSON bytes (quoted).
+ * @param gzipEtag       strong ETag of the gzip bytes (quoted); a strong ETag identifies one exact
+ *                       representation, so each content coding needs its own.
+ */
+public record ActionCatalogPayload(long catalogVersion, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+    /**
+     * Builds the payload for already serialized JSON.
+     */
+    public static ActionCatalogPayload of(long catalogVersion, byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(compressed)) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not gzip action catalog payload", e); // In-memory streams do not fail
+        }
+        // The ETags depend on content only, so a rebuild producing identical data keeps client caches valid
+        String hash = ContentHashes.sha256(json);
+        return new ActionCatalogPayload(catalogVersion, json, compressed.toByteArray(),
+                "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+    }
+}
@@ -0,0 +1,394 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches the action code catalog in front of {@link ActionCodeService}.
+ * <p>
+ * Reads are served from memory. Once the catalog is older than the configured TTL,
+ * the last good catalog keeps being served while a single background refresh rebuilds it
+ * (stale-while-revalidate). A failed rebuild never replaces the last good catalog.
+ * <p>
+ * Builds are single-flight: concurrent readers of a cold (or invalidated) cache all wait for one
+ * build, and a refresh requested while one is running joins it, so registry traffic does not grow
+ * with the number of concurrent users.
+ * <p>
+ * Background refreshes are incremental when enabled: only manifest entries that were added,
+ * repointed or previously failed are re-ingested. A full rebuild still runs periodically so that
+ * content changes behind unchanged schema paths are picked up.
+ * <p>
+ * When snapshots are enabled, every successful build is persisted as the last known good catalog.
+ * On startup that snapshot is served immediately and reconciled with the registry in the background,
+ * so a slow or unavailable registry never leaves the workbench without actions.
+ * <p>
+ * In lazy mode ({@code catalog.lazy.enabled}) builds only produce stubs from the manifest, and an
+ * action's schema is ingested the first time its detail is looked up via {@link #findAction(String, String)}.
+ * <p>
+ * A watching {@link SchemaSource} reports edited files through {@link SchemaSourceChangedEvent}; the
+ * entries pointing at them are re-ingested right away, without waiting for the TTL or a full rebuild.
+ */
+@Service
+@Slf4j
+public class ActionCatalogService {
+
+    private final ActionCodeService actionCodeService;
+    private final ActionCatalogSnapshotStore snapshotStore;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean incrementalRefresh;
+    private final Duration fullRebuildInterval;
+    private final ExecutorService refreshExecutor;
+
+    private final AtomicReference<ActionCatalog> current = new AtomicReference<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong(); // Bumped by invalidate(), so builds started before it are not published
+    // The running cold build or refresh, which every caller needing a build joins; guarded by this
+    private CompletableFuture<Optional<ActionCatalog>> buildInFlight;
+    private volatile ActionCatalogPayload payload; // Serialized form of the latest catalog served
+    private final Map<String, CompletableFuture<CatalogEntry>> resolving = new ConcurrentHashMap<>(); // Lazy stubs being ingested, by entry key
+    private CatalogMetrics metrics = CatalogMetrics.NOOP; // Build timings and the size of the catalog served
+
+    @Autowired
+    public ActionCatalogService(ActionCodeService actionCodeService,
+                                ActionCatalogSnapshotStore snapshotStore,
+                                ObjectMapper objectMapper,
+                                @Value("${catalog.cache.ttl:PT5M}") Duration ttl,
+                                @Value("${catalog.refresh.incremental:true}") boolean incrementalRefresh,
+                                @Value("${catalog.refresh.full-rebuild-interval:PT1H}") Duration fullRebuildInterval) {
+        this.actionCodeService = actionCodeService;
+        this.snapshotStore = snapshotStore;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.incrementalRefresh = incrementalRefresh;
+        this.fullRebuildInterval = fullRebuildInterval;
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records build timings and publishes gauges for the size of the catalog currently served.
+     */
+    @Autowired(required = false)
+    public void setMetrics(CatalogMetrics metrics) {
+        this.metrics = metrics;
+        metrics.bindCatalog(current::get);
+    }
+
+    /**
+     * Serves the persisted snapshot (if any) as soon as the application is ready and reconciles
+     * it with the registry in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        if (!snapshotStore.isEnabled()) {
+            return;
+        }
+        snapshotStore.load().ifPresent(snapshot -> {
+            actionCodeService.importRegistryState(snapshot);
+            ActionCatalog restored = new ActionCatalog(versionCounter.incrementAndGet(), snapshot.getBuiltAt(),
+                    snapshot.getFullBuildAt(), snapshot.getEntries());
+            if (current.compareAndSet(null, restored)) {
+                log.info("Serving action catalog snapshot with {} action codes until the registry is reconciled.", restored.getActions().size());
+            }
+        });
+        refreshAsync();
+    }
+
+    /**
+     * Returns the cached action code list, building it on first use.
+     *
+     * @return the action code list; empty if no catalog could be built yet.
+     */
+    public List<ActionCodeInfo> getActions() {
+        return getCatalog().map(ActionCatalog::getActions).orElse(List.of());
+    }
+
+    /**
+     * Lists the cached actions matching the query, one page at a time.
+     *
+     * @throws IllegalArgumentException if the query's cursor is malformed.
+     */
+    public ActionPage findActions(ActionQuery query) {
+        return getCatalog().map(catalog -> catalog.find(query)).orElse(new ActionPage(List.of(), null));
+    }
+
+    /**
+     * Looks up a single cached action, optionally within one component. In lazy mode the action's
+     * schema is ingested on first lookup; concurrent lookups of the same action share one ingestion.
+     *
+     * @return the action, or empty if it is unknown or its schema could not be ingested.
+     */
+    public Optional<ActionCodeInfo> findAction(String actionCode, String componentName) {
+        return getCatalog()
+                .flatMap(catalog -> catalog.findEntry(actionCode, componentName))
+                .map(entry -> entry.isStub() ? resolve(entry) : entry)
+                .map(CatalogEntry::info);
+    }
+
+    // Ingests a lazy stub once, even under concurrent requests, and publishes it into the current catalog
+    private CatalogEntry resolve(CatalogEntry stub) {
+        CompletableFuture<CatalogEntry> resolution = new CompletableFuture<>();
+        CompletableFuture<CatalogEntry> existing = resolving.putIfAbsent(stub.key(), resolution);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            CatalogEntry resolved = actionCodeService.resolveEntry(stub);
+            if (resolved.isIngested()) {
+                // Publish before completing so later lookups find the resolved entry in the catalog
+                current.updateAndGet(catalog -> catalog == null ? null : catalog.withResolved(versionCounter.incrementAndGet(), resolved));
+            }
+            // A failed ingestion keeps the stub, so the next lookup retries
+            resolution.complete(resolved);
+        } catch (RuntimeException e) {
+            resolution.completeExceptionally(e);
+        } finally {
+            resolving.remove(stub.key(), resolution);
+        }
+        return resolution.join();
+    }
+
+    /**
+     * Returns the current catalog. A cold cache is built synchronously, once for all concurrent
+     * callers; an expired one is returned as-is while a background refresh is triggered.
+     *
+     * @return the current catalog, or empty if none could be built.
+     */
+    public Optional<ActionCatalog> getCatalog() {
+        ActionCatalog catalog = current.get();
+        if (catalog == null) {
+            return awaitColdBuild();
+        }
+        if (catalog.isExpired(ttl, Instant.now())) {
+            refreshAsync();
+        }
+        return Optional.of(catalog);
+    }
+
+    /**
+     * Returns the current action list as pre-serialized JSON and gzip bytes with a strong ETag.
+     * Each catalog version is serialized once, on first request.
+     *
+     * @return the payload, or empty if no catalog could be built.
+     */
+    public Optional<ActionCatalogPayload> getPayload() {
+        return getCatalog().map(catalog -> {
+            ActionCatalogPayload cached = payload;
+            if (cached != null && cached.catalogVersion() == catalog.getVersion()) {
+                return cached;
+            }
+            try {
+                ActionCatalogPayload serialized = ActionCatalogPayload.of(catalog.getVersion(), objectMapper.writeValueAsBytes(catalog.getActions()));
+                payload = serialized;
+                return serialized;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize action catalog version " + catalog.getVersion(), e);
+            }
+        });
+    }
+
+    // The first caller builds on its own thread; callers arriving meanwhile, or while a refresh runs, wait for the same result
+    private Optional<ActionCatalog> awaitColdBuild() {
+        CompletableFuture<Optional<ActionCatalog>> build;
+        boolean owner;
+        synchronized (this) {
+            ActionCatalog catalog = current.get();
+            if (catalog != null) {
+                return Optional.of(catalog); // Built while this caller was waiting for the lock
+            }
+            owner = buildInFlight == null || buildInFlight.isDone();
+            if (owner) {
+                buildInFlight = new CompletableFuture<>();
+            }
+            build = buildInFlight;
+        }
+        if (!owner) {
+            log.debug("Catalog build already in progress; waiting for its result.");
+            return build.join(); // Outside the lock, which the building thread needs to finish
+        }
+        try {
+            build.complete(rebuild(null, Set.of()));
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+        }
+        return build.join();
+    }
+
+    /**
+     * Triggers a background rebuild unless one is already running, including a cold build.
+     * The last good catalog keeps being served until the rebuild completes.
+     *
+     * @return a future that completes once the rebuild triggered (or already running) has finished.
+     */
+    public synchronized CompletableFuture<Void> refreshAsync() {
+        if (buildInFlight != null && !buildInFlight.isDone()) {
+            log.debug("Catalog build already in progress; serving the current catalog.");
+            return buildInFlight.thenAccept(catalog -> { });
+        }
+        return startRefresh(Set.of());
+    }
+
+    /**
+     * Re-ingests the entries whose schema documents changed, as reported by a watching schema source.
+     * Unlike {@link #refreshAsync()} this never joins a running build, which may have read the old
+     * content; it runs once that build has finished, whether it is a refresh or a cold build, and
+     * becomes the build later callers join.
+     */
+    @EventListener
+    public synchronized CompletableFuture<Void> onSchemaSourceChanged(SchemaSourceChangedEvent event) {
+        if (buildInFlight == null || buildInFlight.isDone()) {
+            return startRefresh(event.changedUris());
+        }
+        // Chained rather than queued on the refresh thread, since a cold build runs on its caller's thread
+        return track(buildInFlight.handle((catalog, error) -> null)
+                .thenApplyAsync(ignored -> rebuild(current.get(), event.changedUris()), refreshExecutor));
+    }
+
+    // Called with the lock held: queues a rebuild on the refresh thread and makes it the build in flight
+    private CompletableFuture<Void> startRefresh(Set<URI> changedUris) {
+        return track(CompletableFuture.supplyAsync(() -> rebuild(current.get(), changedUris), refreshExecutor));
+    }
+
+    // Called with the lock held: makes a background build the build in flight
+    private CompletableFuture<Void> track(CompletableFuture<Optional<ActionCatalog>> build) {
+        build.whenComplete((catalog, error) -> {
+            if (error != null) {
+                // Nobody may be waiting for a background refresh, so its failure is logged here
+                log.warn("Background catalog refresh failed; keeping the last good catalog.", error);
+            }
+        });
+        buildInFlight = build;
+        return build.thenAccept(catalog -> { });
+    }
+
+    /**
+     * Discards the cached catalog so the next read rebuilds it from the registry. A build already
+     * running is not published; it is redone as a full build, which callers waiting for it receive.
+     */
+    public synchronized void invalidate() {
+        log.info("Action catalog invalidated.");
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    // Rebuilds the catalog, incrementally on top of 'previous' when allowed, and swaps it in atomically.
+    // Entries whose schema is among 'changedUris' are never carried over.
+    private Optional<ActionCatalog> rebuild(ActionCatalog previous, Set<URI> changedUris) {
+        long startGeneration = generation.get();
+        Instant now = Instant.now();
+        boolean incremental = incrementalRefresh && previous != null
+                && !previous.getFullBuildAt().plus(fullRebuildInterval).isBefore(now);
+
+        Timer.Sample buildSample = metrics.start();
+        String buildType = incremental ? "incremental" : "full";
+        Map<String, CatalogEntry> previousEntries = incremental ? previous.entriesByKey() : Map.of();
+        if (incremental && !changedUris.isEmpty()) {
+            previousEntries.values().removeIf(entry -> changedUris.contains(actionCodeService.resolveDocumentUri(entry.schemaPath())));
+        }
+        Optional<List<CatalogEntry>> entries = actionCodeService.buildCatalogEntries(previousEntries);
+        if (entries.isEmpty()) {
+            // Keep serving the last good catalog (if any) when the manifest is unavailable
+            metrics.catalogBuilt(buildSample, buildType, "manifest_unavailable");
+            log.warn("Catalog rebuild failed; keeping the last good catalog.");
+            return Optional.ofNullable(current.get());
+        }
+        Instant fullBuildAt = incremental ? previous.getFullBuildAt() : now;
+        ActionCatalog catalog = null;
+        boolean invalidated;
+        synchronized (this) {
+            invalidated = generation.get() != startGeneration;
+            if (!invalidated) {
+                ActionCatalog latest;
+                do {
+                    latest = current.get();
+                    catalog = new ActionCatalog(versionCounter.incrementAndGet(), now, fullBuildAt,
+                            withResolutionsSince(previous, latest, entries.get(), changedUris));
+                } while (!current.compareAndSet(latest, catalog)); // resolve() publishes without holding this lock
+            }
+        }
+        if (invalidated) {
+            // Built before (or on top of) a catalog invalidated meanwhile; publishing it would undo the invalidation
+            metrics.catalogBuilt(buildSample, buildType, "invalidated");
+            log.info("Action catalog invalidated during a {} build; rebuilding from scratch.", buildType);
+            return rebuild(null, Set.of());
+        }
+        metrics.catalogBuilt(buildSample, buildType, "success");
+        log.info("Action catalog version {} built ({}) with {} action codes.", catalog.getVersion(),
+                buildType, catalog.getActions().size());
+        if (snapshotStore.isEnabled()) {
+            ActionCatalog published = catalog;
+            refreshExecutor.execute(() -> saveSnapshot(published)); // Keep disk I/O off the request path
+        }
+        return Optional.of(catalog);
+    }
+
+    // Carries over the lazy stubs resolved into 'latest' while the build on top of 'previous' ran, so
+    // publishing the build does not drop them. Stubs whose schema is among 'changedUris' stay stubs.
+    private List<CatalogEntry> withResolutionsSince(ActionCatalog previous, ActionCatalog latest,
+                                                    List<CatalogEntry> built, Set<URI> changedUris) {
+        if (latest == null || latest == previous) {
+            return built;
+        }
+        Map<String, CatalogEntry> before = previous != null ? previous.entriesByKey() : Map.of();
+        Map<String, CatalogEntry> after = latest.entriesByKey();
+        List<CatalogEntry> merged = new ArrayList<>(built.size());
+        for (CatalogEntry entry : built) {
+            CatalogEntry resolved = after.get(entry.key());
+            CatalogEntry earlier = before.get(entry.key());
+            boolean resolvedMeanwhile = entry.isStub() && resolved != null && resolved.isIngested() && !resolved.isStub()
+                    && resolved.schemaPath().equals(entry.schemaPath())
+                    && (earlier == null || earlier.isStub())
+                    && (changedUris.isEmpty() || !changedUris.contains(actionCodeService.resolveDocumentUri(entry.schemaPath())));
+            merged.add(resolvedMeanwhile ? resolved : entry);
+        }
+        return merged;
+    }
+
+    private void saveSnapshot(ActionCatalog catalog) {
+        if (current.get() != catalog) {
+            return; // A newer catalog was built meanwhile and will be saved instead
+        }
+        ActionCatalogSnapshot snapshot = new ActionCatalogSnapshot();
+        snapshot.setBuiltAt(catalog.getBuiltAt());
+        snapshot.setFullBuildAt(catalog.getFullBuildAt());
+        snapshot.setEntries(catalog.getEntries());
+        actionCodeService.exportRegistryState(snapshot);
+        snapshotStore.save(snapshot);
+    }
+
+    /**
+     * Stops the background refresh thread when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.infosys.fbp.platform.actioncode.dto.ApiListManifest;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persisted form of the last known good action catalog, used for warm starts and registry outages.
+ * Besides the catalog itself it carries the registry validators (ETags, Last-Modified) and content
+ * hashes it was built from, so the first reconcile after a restart can revalidate instead of refetching.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ActionCatalogSnapshot {
+
+    /**
+     * Snapshot layout version; snapshots with a different version are ignored.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private int formatVersion = FORMAT_VERSION;
+
+    /**
+     * When the persisted catalog was built.
+     */
+    private Instant builtAt;
+
+    /**
+     * When the last full build the persisted catalog descends from ran.
+     */
+    private Instant fullBuildAt;
+
+    /**
+     * Content hash of the manifest the catalog was built from.
+     */
+    private String manifestHash;
+
+    /**
+     * The parsed manifest the catalog was built from.
+     */
+    private ApiListManifest manifest;
+
+    /**
+     * Catalog entries in manifest order, including their schema content hashes.
+     */
+    private List<CatalogEntry> entries = new ArrayList<>();
+
+    /**
+     * Registry validators for every fetched document; bodies are not persisted.
+     */
+    private List<RegistryDocument> documents = new ArrayList<>();
+}
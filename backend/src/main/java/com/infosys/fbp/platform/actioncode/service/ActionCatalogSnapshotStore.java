@@ -0,0 +1,91 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the last known good {@link ActionCatalogSnapshot} as gzip-compressed JSON on local disk.
+ * Writes go to a temporary file that is atomically moved into place, so a crash never leaves a torn snapshot.
+ */
+@Component
+@Slf4j
+public class ActionCatalogSnapshotStore {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path snapshotPath;
+
+    @Autowired
+    public ActionCatalogSnapshotStore(ObjectMapper objectMapper,
+                                      @Value("${catalog.snapshot.enabled:false}") boolean enabled,
+                                      @Value("${catalog.snapshot.path:data/action-catalog.json.gz}") String snapshotPath) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.snapshotPath = Path.of(snapshotPath);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the persisted snapshot.
+     *
+     * @return the snapshot, or empty if disabled, missing, unreadable or of another format version.
+     */
+    public Optional<ActionCatalogSnapshot> load() {
+        if (!enabled || !Files.isRegularFile(snapshotPath)) {
+            return Optional.empty();
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshotPath))) {
+            ActionCatalogSnapshot snapshot = objectMapper.readValue(in, ActionCatalogSnapshot.class);
+            if (snapshot.getFormatVersion() != ActionCatalogSnapshot.FORMAT_VERSION) {
+                log.warn("Ignoring action catalog snapshot {} with format version {}", snapshotPath, snapshot.getFormatVersion());
+                return Optional.empty();
+            }
+            log.info("Loaded action catalog snapshot from {} ({} entries, built {})", snapshotPath, snapshot.getEntries().size(), snapshot.getBuiltAt());
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            log.warn("Could not read action catalog snapshot from {}; starting cold.", snapshotPath, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persists the snapshot, replacing any previous one. Failures are logged, never thrown.
+     */
+    public void save(ActionCatalogSnapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                    objectMapper.writeValue(out, snapshot);
+                }
+                Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile); // Only left behind if the write or move failed
+            }
+            log.debug("Saved action catalog snapshot to {}", snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not save action catalog snapshot to {}", snapshotPath, e);
+        }
+    }
+}
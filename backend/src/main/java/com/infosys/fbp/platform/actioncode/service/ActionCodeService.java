@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.infosys.fbp.platform.actioncode.dto.*; // Keep existing DTO imports
 import com.infosys.fbp.platform.actioncode.dto.ApiListManifest; // Add import for new DTO
 import com.infosys.fbp.platform.actioncode.dto.ComponentDetail; // Add import for new DTO
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -14,176 +15,793 @@ import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.ParseOptions;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired; // Add import
 import org.springframework.beans.factory.annotation.Value; // Add import
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException; // Add import
-import org.springframework.web.client.RestTemplate;
 // import org.springframework.util.ResourceUtils; // Already removed
 
 // import java.io.File; // No longer needed for schema parsing
 import java.io.IOException;
 import java.net.URI; // Add import
 import java.net.URISyntaxException; // Add import
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections; // Added import
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j // Lombok annotation for logging
 public class ActionCodeService {
 
     // private static final String DOCS_BASE_PATH = "classpath:docs/"; // Remove constant
+    private static final PathNode REQUEST_PATH = PathNode.of(":request"); // Root of all request column paths
+    private static final PathNode RESPONSE_PATH = PathNode.of(":response"); // Root of all response column paths
+    private static final String SERVICE_SPEC_KEY_PREFIX = "spec:"; // Service specs derive differently from the same content
 
     private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate;
+    private final SchemaSource documentFetcher; // Registry (conditional HTTP) or local directory, see manifest.source
     private final String baseUrl; // Renamed from apiListUrl
     private final String apiListContextPath; // New field
+    private final ExecutorService ingestionExecutor; // Null when parallel ingestion is disabled
+    private final int maxRefDepth; // How deep flattening may follow a cycle of component references before cutting it
+    private final boolean lazy; // Build stubs from the manifest only; schemas are ingested on first detail request
+    private final LightweightOpenApiReader lightweightReader; // Null when every schema goes through the full parser
+    private final Duration schemaTimeout; // Per-schema deadline for fetch and parse on the ingestion pool
+    private final Duration buildTimeout; // Overall deadline after which a partial catalog is returned
+    private final Duration hedgeDelay; // A second fetch is sent for schemas still pending after this; zero disables
+
+    // Derived ActionCodeInfo templates keyed by schema content hash, prefixed for service specs (empty = schema skipped)
+    private final Map<String, CompletableFuture<List<ActionCodeInfo>>> derivedSchemaCache = new ConcurrentHashMap<>();
+    private volatile ParsedManifest lastManifest; // Last parsed manifest, reused while its content is unchanged
+    private CatalogMetrics metrics = CatalogMetrics.NOOP; // Fetch, parse and flatten timings; failure counts
+    private CatalogBuildDiagnostics diagnostics = CatalogBuildDiagnostics.DISABLED; // Per-action traces of recent builds
 
     // Constructor Injection
     @Autowired
-    public ActionCodeService(ObjectMapper objectMapper, RestTemplate restTemplate,
+    public ActionCodeService(ObjectMapper objectMapper, SchemaSource documentFetcher,
                              @Value("${manifest.base.url}") String baseUrl, // Inject base URL
-                             @Value("${manifest.api-list.context-path}") String apiListContextPath) { // Inject context path
+                             @Value("${manifest.api-list.context-path}") String apiListContextPath, // Inject context path
+                             @Value("${manifest.ingestion.parallel:true}") boolean parallelIngestion,
+                             @Value("${manifest.ingestion.max-concurrency:8}") int maxConcurrency,
+                             @Value("${manifest.flatten.max-ref-depth:2}") int maxRefDepth,
+                             @Value("${catalog.lazy.enabled:false}") boolean lazy,
+                             @Value("${manifest.parser.lightweight:true}") boolean lightweightParsing,
+                             @Value("${manifest.ingestion.schema-timeout:10s}") Duration schemaTimeout,
+                             @Value("${manifest.ingestion.build-timeout:60s}") Duration buildTimeout,
+                             @Value("${manifest.ingestion.hedge-delay:2s}") Duration hedgeDelay) {
         this.objectMapper = objectMapper;
-        this.restTemplate = restTemplate;
+        this.documentFetcher = documentFetcher;
         this.baseUrl = baseUrl; // Assign base URL
         this.apiListContextPath = apiListContextPath; // Assign context path
+        this.maxRefDepth = maxRefDepth;
+        this.lazy = lazy;
+        this.lightweightReader = lightweightParsing ? new LightweightOpenApiReader(objectMapper) : null;
+        this.schemaTimeout = schemaTimeout;
+        this.buildTimeout = buildTimeout;
+        this.hedgeDelay = hedgeDelay;
+        this.ingestionExecutor = parallelIngestion && maxConcurrency > 1
+                ? Executors.newFixedThreadPool(maxConcurrency, ingestionThreadFactory())
+                : null;
+    }
+
+    /**
+     * Records the pipeline's timers and counters in the application's meter registry.
+     */
+    @Autowired(required = false)
+    public void setMetrics(CatalogMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Records a per-action trace of every build into the shared diagnostics ring buffer.
+     */
+    @Autowired(required = false)
+    public void setDiagnostics(CatalogBuildDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    private static ThreadFactory ingestionThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "schema-ingest-" + counter.incrementAndGet());
+            thread.setDaemon(true); // Never block JVM shutdown on a slow registry
+            return thread;
+        };
     }
 
 
     public List<ActionCodeInfo> generateActionCodeList() {
-        List<ActionCodeInfo> actionCodeInfos = new ArrayList<>();
-        ApiListManifest apiListManifest; // Use the new DTO
-        String fullApiListUrl = null; // Variable for the full URL
+        return buildActionCodeList().orElse(Collections.emptyList());
+    }
+
+    /**
+     * Builds the action code list, distinguishing an unavailable manifest from an empty one.
+     *
+     * @return the action code list, or an empty Optional if the manifest could not be fetched or parsed.
+     */
+    public Optional<List<ActionCodeInfo>> buildActionCodeList() {
+        return buildCatalogEntries(Collections.emptyMap()).map(ActionCodeService::ingestedActions);
+    }
+
+    /**
+     * Builds the catalog entries for the current manifest.
+     * <p>
+     * Entries whose component, action code and schema path are unchanged from {@code previousEntries}
+     * and were ingested successfully are carried over without fetching; added, repointed and
+     * previously failed entries are ingested, and entries no longer in the manifest are dropped.
+     * Pass an empty map for a full rebuild.
+     * <p>
+     * A service spec ({@code serviceSpecs} in the manifest) is fetched and parsed once and yields an
+     * entry per operation; its entries are carried over or re-ingested together.
+     * <p>
+     * In lazy mode, entries that would be ingested become stubs built from the manifest alone
+     * (see {@link CatalogEntry#isStub()}); use {@link #resolveEntry(CatalogEntry)} to ingest one on demand.
+     * Service specs are still ingested eagerly, since their operations are unknown until the spec is read.
+     * <p>
+     * Schemas are ingested asynchronously on the ingestion pool, each within the per-schema deadline
+     * ({@code manifest.ingestion.schema-timeout}), with a hedged second request for stragglers. Once the
+     * build deadline ({@code manifest.ingestion.build-timeout}) passes, the build returns with every
+     * schema still pending marked as failed, so it is retried by the next (incremental) build.
+     * <p>
+     * Each build records fetch size and time, parse and flatten time, column counts and the skip or
+     * failure reason of every manifest entry into {@link CatalogBuildDiagnostics}, when configured.
+     *
+     * @param previousEntries entries of the previous build keyed by {@link CatalogEntry#key()}.
+     * @return the entries in manifest order, or an empty Optional if the manifest could not be fetched or parsed.
+     */
+    public Optional<List<CatalogEntry>> buildCatalogEntries(Map<String, CatalogEntry> previousEntries) {
+        long buildStart = System.nanoTime();
+        Instant startedAt = Instant.now();
+        String buildType = previousEntries.isEmpty() ? "full" : "incremental";
+
+        // 1. Fetch the manifest file (apiList.json) from the configured URL
+        ApiListManifest apiListManifest = fetchManifest();
+        long manifestNanos = System.nanoTime() - buildStart;
+        if (apiListManifest == null) {
+            recordBuild(startedAt, buildType, "manifest_unavailable", buildStart, manifestNanos, List.of(), List.of(), null, null);
+            return Optional.empty(); // Errors already logged in fetchManifest
+        }
+
+        // 2. Flatten the manifest into an ordered task list (component, then action code, then service spec)
+        List<SchemaTask> tasks = new ArrayList<>();
+        apiListManifest.getComponents().forEach((componentName, componentDetail) -> {
+            componentDetail.getApiSchemas().forEach((actionCode, schemaPath) ->
+                    tasks.add(new SchemaTask(componentName, actionCode, schemaPath, false)));
+            componentDetail.getServiceSpecs().forEach((specName, schemaPath) ->
+                    tasks.add(new SchemaTask(componentName, specName, schemaPath, true)));
+        });
+
+        // 3. Diff against the previous build: unchanged entries are reused, the rest are (re-)ingested
+        Map<String, List<CatalogEntry>> previousBySource = previousEntries.values().stream()
+                .collect(Collectors.groupingBy(CatalogEntry::sourceKey, LinkedHashMap::new, Collectors.toList()));
+        List<List<CatalogEntry>> results = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+        SchemaTrace[] traces = new SchemaTrace[tasks.size()]; // Null for entries carried over or left as stubs
+        boolean[] carriedOver = new boolean[tasks.size()];
+        List<Integer> toIngest = new ArrayList<>();
+        Set<String> referencedHashes = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < tasks.size(); i++) {
+            SchemaTask task = tasks.get(i);
+            List<CatalogEntry> previous = previousBySource.get(task.key());
+            if (previous != null && previous.stream().allMatch(entry -> entry.isIngested()
+                    && entry.schemaPath().equals(task.schemaPath()) && task.isServiceSpec() == (entry.specName() != null))) {
+                results.set(i, previous);
+                carriedOver[i] = true;
+                previous.stream().filter(entry -> !entry.isStub()) // Stubs derived nothing, so have no hash
+                        .forEach(entry -> referencedHashes.add(derivedCacheKey(entry)));
+            } else {
+                toIngest.add(i);
+            }
+        }
+        if (!previousEntries.isEmpty()) {
+            Set<String> currentKeys = tasks.stream().map(SchemaTask::key).collect(Collectors.toSet());
+            long removed = previousBySource.keySet().stream().filter(key -> !currentKeys.contains(key)).count();
+            log.info("Incremental catalog build: {} unchanged, {} to ingest, {} removed.", tasks.size() - toIngest.size(), toIngest.size(), removed);
+        }
+
+        // 4. Ingest the remaining schemas, either serially or on the bounded ingestion pool, within the build deadline
+        long deadline = System.nanoTime() + buildTimeout.toNanos();
+        boolean interrupted = false;
+        List<Integer> toFetch = toIngest;
+        if (lazy) {
+            // Details are resolved on first request; service specs must be read to know their operations
+            toFetch = new ArrayList<>();
+            for (int i : toIngest) {
+                if (tasks.get(i).isServiceSpec()) {
+                    toFetch.add(i);
+                } else {
+                    results.set(i, List.of(tasks.get(i).stub()));
+                }
+            }
+        }
+        if (ingestionExecutor == null) {
+            for (int i : toFetch) {
+                // Serial ingestion cannot abandon a running fetch; the deadline stops starting new ones
+                Ingestion ingestion = System.nanoTime() < deadline
+                        ? attempt(tasks.get(i), referencedHashes, false)
+                        : pastBuildDeadline(tasks.get(i));
+                results.set(i, ingestion.entries());
+                traces[i] = ingestion.trace();
+            }
+        } else if (!toFetch.isEmpty()) {
+            List<CompletableFuture<Ingestion>> futures = new ArrayList<>(toFetch.size());
+            toFetch.forEach(i -> futures.add(ingestAsync(tasks.get(i), referencedHashes)));
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                log.warn("Interrupted while waiting for schema ingestion; returning a partial catalog");
+            } catch (TimeoutException e) {
+                log.warn("Catalog build deadline of {} exceeded; returning a partial catalog", buildTimeout);
+            } catch (ExecutionException e) {
+                // ingestAsync never completes exceptionally, so this only happens on unexpected errors
+                log.error("Unexpected error ingesting schemas", e.getCause());
+            }
+
+            // Collect in manifest order; unfinished schemas count as failed and are retried by the next build
+            for (int f = 0; f < futures.size(); f++) {
+                Ingestion ingestion = futures.get(f).getNow(null);
+                if (ingestion == null) {
+                    ingestion = pastBuildDeadline(tasks.get(toFetch.get(f)));
+                }
+                results.set(toFetch.get(f), ingestion.entries());
+                traces[toFetch.get(f)] = ingestion.trace();
+            }
+        }
+
+        if (!interrupted) {
+            pruneDerivedSchemaCache(referencedHashes); // A partial build would drop still valid templates
+        }
+        List<CatalogEntry> entries = new ArrayList<>(tasks.size());
+        results.forEach(entries::addAll);
+        recordBuild(startedAt, buildType, "success", buildStart, manifestNanos, tasks, results, traces, carriedOver);
+        return Optional.of(List.copyOf(entries));
+    }
+
+    private Ingestion pastBuildDeadline(SchemaTask task) {
+        metrics.schemaFailed("build_deadline");
+        return new Ingestion(task.failed(), SchemaTrace.failed("build_deadline"));
+    }
+
+    // Summarizes the build into the diagnostics ring buffer; nothing is computed when diagnostics are disabled
+    private void recordBuild(Instant startedAt, String buildType, String outcome, long buildStart, long manifestNanos,
+                             List<SchemaTask> tasks, List<List<CatalogEntry>> results, SchemaTrace[] traces, boolean[] carriedOver) {
+        if (!diagnostics.isEnabled()) {
+            return;
+        }
+        List<ActionTrace> actions = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            SchemaTask task = tasks.get(i);
+            actions.add(ActionTrace.of(task.componentName(), task.actionCode(), task.schemaPath(), results.get(i), traces[i], carriedOver[i]));
+        }
+        diagnostics.record(CatalogBuildTrace.of(diagnostics.nextSequence(), startedAt, buildType, outcome,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - buildStart), TimeUnit.NANOSECONDS.toMicros(manifestNanos), actions));
+    }
+
+    /**
+     * Ingests one schema on the ingestion pool with a per-schema deadline. If it is still pending
+     * after the hedge delay, a second identical attempt is started and the first ingested result wins.
+     * Both the deadline and the hedge delay count from when a pool thread starts the schema, not from
+     * when it was queued, so large manifests are not failed or hedged just for waiting their turn.
+     * The returned future always completes normally, with a failed entry on timeout or error.
+     */
+    private CompletableFuture<Ingestion> ingestAsync(SchemaTask task, Set<String> referencedHashes) {
+        CompletableFuture<Ingestion> result = new CompletableFuture<>();
+        AtomicInteger pendingAttempts = new AtomicInteger(1);
+        BiConsumer<Ingestion, Throwable> settle = (ingestion, error) -> {
+            boolean lastAttempt = pendingAttempts.decrementAndGet() == 0;
+            if (error == null && ingestion.entries().get(0).isIngested()) {
+                result.complete(ingestion); // First successful attempt wins
+            } else if (lastAttempt) {
+                result.complete(error == null ? ingestion : new Ingestion(task.failed(), SchemaTrace.failed("processing_error")));
+            }
+        };
+        // Settled on any Throwable, Errors included, so a failed attempt never waits out the deadline
+        CompletableFuture.supplyAsync(() -> {
+            result.orTimeout(schemaTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (!hedgeDelay.isZero() && !hedgeDelay.isNegative()) {
+                scheduleHedge(task, referencedHashes, result, pendingAttempts, settle);
+            }
+            return attempt(task, referencedHashes, false);
+        }, ingestionExecutor).whenComplete(settle);
+
+        return result.exceptionally(error -> {
+            // The attempt keeps running in the background; its result is discarded
+            log.warn("Schema '{}' not ingested within {}; skipping it for this build", task.actionCode(), schemaTimeout);
+            metrics.schemaFailed("timeout");
+            return new Ingestion(task.failed(), SchemaTrace.failed("timeout"));
+        });
+    }
+
+    private void scheduleHedge(SchemaTask task, Set<String> referencedHashes, CompletableFuture<Ingestion> result,
+                               AtomicInteger pendingAttempts, BiConsumer<Ingestion, Throwable> settle) {
+        CompletableFuture.delayedExecutor(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS, ingestionExecutor).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            pendingAttempts.incrementAndGet();
+            log.info("Schema '{}' still pending after {}; sending a hedged request", task.actionCode(), hedgeDelay);
+            metrics.schemaHedged();
+            // Unconditional, so the fetcher sends a second request instead of joining the pending one
+            CompletableFuture.supplyAsync(() -> attempt(task, referencedHashes, true), ingestionExecutor).whenComplete(settle);
+        });
+    }
 
-        // 1. Construct and fetch the manifest file (apiList.json) from the configured URL
+    /**
+     * Ingests the schema behind a single catalog entry, typically a lazy stub whose detail was requested.
+     * Derived schemas are shared with full builds through the content hash cache.
+     *
+     * @return the ingested entry; its info is {@code null} if the schema was skipped or failed.
+     */
+    public CatalogEntry resolveEntry(CatalogEntry entry) {
+        log.debug("Resolving action '{}' of component '{}' on demand", entry.actionCode(), entry.componentName());
+        return ingestSchema(new SchemaTask(entry.componentName(), entry.actionCode(), entry.schemaPath(), false),
+                ConcurrentHashMap.newKeySet(), false, new SchemaTrace(false)).get(0);
+    }
+
+    /**
+     * Resolves a manifest schema path against the base URL, the same way ingestion does.
+     *
+     * @throws IllegalArgumentException if the base URL or path is not a valid URI.
+     */
+    public URI resolveDocumentUri(String schemaPath) {
+        return URI.create(baseUrl).resolve(schemaPath);
+    }
+
+    /**
+     * Extracts the successfully ingested actions from catalog entries, preserving order.
+     */
+    public static List<ActionCodeInfo> ingestedActions(List<CatalogEntry> entries) {
+        List<ActionCodeInfo> actionCodeInfos = new ArrayList<>(entries.size());
+        entries.stream().filter(CatalogEntry::isIngested).forEach(entry -> actionCodeInfos.add(entry.info()));
+        return actionCodeInfos;
+    }
+
+    // Drops derived templates for content no longer referenced by the manifest
+    private void pruneDerivedSchemaCache(Set<String> referencedHashes) {
+        derivedSchemaCache.keySet().retainAll(referencedHashes);
+    }
+
+    /**
+     * Fetches and parses the API list manifest.
+     * An unchanged manifest (304 or same content hash) is not parsed again.
+     *
+     * @return the parsed manifest, or {@code null} if it could not be fetched or parsed.
+     */
+    private ApiListManifest fetchManifest() {
+        URI fullApiListUri = null; // Variable for the full URL
         try {
             // Construct the full URL for the API list
             URI baseUriForManifest = new URI(baseUrl);
-            fullApiListUrl = baseUriForManifest.resolve(apiListContextPath).toString();
-
-            log.info("Fetching API list manifest from URL: {}", fullApiListUrl);
-            String jsonResponse = restTemplate.getForObject(fullApiListUrl, String.class);
-            if (jsonResponse == null) {
-                 log.error("Received null response when fetching API list from URL: {}", fullApiListUrl);
-                 return Collections.emptyList(); // Or throw exception
+            fullApiListUri = baseUriForManifest.resolve(apiListContextPath);
+
+            log.info("Fetching API list manifest from URL: {}", fullApiListUri);
+            Timer.Sample fetchSample = metrics.start();
+            RegistryDocument document = null; // Stays null if the fetch throws, which records an error
+            ParsedManifest parsed = lastManifest;
+            try {
+                document = documentFetcher.fetch(fullApiListUri);
+                if (document != null && document.body() == null
+                        && (parsed == null || !parsed.contentHash().equals(document.contentHash()))) {
+                    // Revalidated against snapshot validators, but the matching manifest is not in memory
+                    document = documentFetcher.fetchUnconditionally(fullApiListUri);
+                }
+            } finally {
+                metrics.manifestFetched(fetchSample, fetchOutcome(document));
+            }
+            if (document == null) {
+                 log.error("Received null response when fetching API list from URL: {}", fullApiListUri);
+                 return null;
+            }
+            if (parsed == null || !parsed.contentHash().equals(document.contentHash())) {
+                parsed = new ParsedManifest(document.contentHash(), objectMapper.readValue(document.body(), ApiListManifest.class));
+                lastManifest = parsed;
             }
-            apiListManifest = objectMapper.readValue(jsonResponse, ApiListManifest.class);
+            return parsed.manifest();
         } catch (URISyntaxException e) {
              log.error("Invalid URI syntax for base URL '{}' or context path '{}'", baseUrl, apiListContextPath, e);
-             return Collections.emptyList();
         } catch (RestClientException e) {
-            log.error("Failed to fetch API list manifest from URL: {}", fullApiListUrl, e);
-            return Collections.emptyList(); // Return empty list on HTTP error
+            log.error("Failed to fetch API list manifest from URL: {}", fullApiListUri, e);
         } catch (IOException e) {
-            log.error("Failed to parse API list manifest JSON fetched from URL: {}", fullApiListUrl, e);
-            return Collections.emptyList(); // Return empty list on parsing error
+            log.error("Failed to parse API list manifest JSON fetched from URL: {}", fullApiListUri, e);
         }
+        return null;
+    }
 
-        // 2. Iterate through components using the DTO getters
-        apiListManifest.getComponents().forEach((componentName, componentDetail) -> {
+    /**
+     * Fetches a single schema and turns it into the catalog entries for the given manifest entry:
+     * one for a single-path schema, one per operation for a service spec.
+     * Schemas are parsed and flattened at most once per distinct content hash.
+     * Failures are logged and isolated to this schema.
+     *
+     * Fetch, parse and flatten measurements and any skip or failure reason are recorded into {@code trace}.
+     *
+     * @return the catalog entries; a single entry with {@code null} info if the schema was skipped or failed.
+     */
+    private List<CatalogEntry> ingestSchema(SchemaTask task, Set<String> referencedHashes, boolean hedged, SchemaTrace trace) {
+        String actionCode = task.actionCode();
+        String schemaPath = task.schemaPath();
+        URI schemaUri = null;
+        try {
+            // 3. Construct the full URL for the schema file using the base URL
+            URI baseUriForSchema = new URI(baseUrl);
+            // Resolve the schemaPath relative to the base URL
+            schemaUri = baseUriForSchema.resolve(schemaPath); // Resolve relative to base URL
+
+            log.info("Fetching schema '{}' from URL: {}", actionCode, schemaUri);
+            Timer.Sample fetchSample = metrics.start();
+            long fetchStart = System.nanoTime();
+            RegistryDocument document = null;
+            try {
+                document = hedged ? documentFetcher.fetchUnconditionally(schemaUri) : documentFetcher.fetch(schemaUri);
+                if (document != null && document.body() == null
+                        && !derivedSchemaCache.containsKey(derivedCacheKey(document.contentHash(), task.isServiceSpec()))) {
+                    // Revalidated against snapshot validators, but nothing was derived from this content yet
+                    document = documentFetcher.fetchUnconditionally(schemaUri);
+                }
+            } finally {
+                trace.fetchNanos = System.nanoTime() - fetchStart;
+                metrics.schemaFetched(fetchSample, fetchOutcome(document), hedged);
+            }
 
-            // Iterate over the apiSchemas map from the ComponentDetail DTO
-            componentDetail.getApiSchemas().forEach((actionCode, schemaPath) -> {
-                URI schemaUri = null;
-                String schemaJsonContent = null;
-                OpenAPI openAPI = null;
-                try {
-                    // 3. Construct the full URL for the schema file using the base URL
-                    URI baseUriForSchema = new URI(baseUrl);
-                    // Resolve the schemaPath relative to the base URL
-                    schemaUri = baseUriForSchema.resolve(schemaPath); // Resolve relative to base URL
-
-                    log.info("Fetching schema '{}' from URL: {}", actionCode, schemaUri);
-                    schemaJsonContent = restTemplate.getForObject(schemaUri, String.class);
-
-                    if (schemaJsonContent == null) {
-                        log.error("Received null response when fetching schema '{}' from URL: {}", actionCode, schemaUri);
-                        return; // Skip this schema
-                    }
+            if (document == null) {
+                log.error("Received null response when fetching schema '{}' from URL: {}", actionCode, schemaUri);
+                fail(trace, "empty_response");
+                return task.failed(); // Skip this schema
+            }
+            trace.notModified = document.notModified();
+            trace.fetchBytes = document.notModified() ? 0 : utf8Length(document.body());
+
+            // 4. Parse and flatten once per distinct content, then stamp the manifest entry onto a copy
+            String cacheKey = derivedCacheKey(document.contentHash(), task.isServiceSpec());
+            referencedHashes.add(cacheKey);
+            List<ActionCodeInfo> templates = deriveCached(document, cacheKey, schemaPath, task.isServiceSpec(), trace);
+            if (!task.isServiceSpec()) {
+                ActionCodeInfo info = templates.isEmpty() ? null : copyForAction(templates.get(0), task.componentName(), actionCode);
+                return List.of(new CatalogEntry(task.componentName(), actionCode, schemaPath, document.contentHash(), info));
+            }
+            String contentHash = document.contentHash();
+            if (templates.isEmpty()) {
+                return List.of(new CatalogEntry(task.componentName(), actionCode, schemaPath, contentHash, null, actionCode));
+            }
+            return templates.stream()
+                    .map(template -> new CatalogEntry(task.componentName(), template.getActionCode(), schemaPath, contentHash,
+                            copyForAction(template, task.componentName(), template.getActionCode()), actionCode))
+                    .toList();
+
+        } catch (URISyntaxException e) {
+            log.error("Invalid URI syntax for base URL '{}' or schema path '{}'", baseUrl, schemaPath, e); // Use baseUrl in log
+            fail(trace, "invalid_uri");
+        } catch (RestClientException e) {
+            log.error("Failed to fetch schema '{}' from URL: {}", actionCode, schemaUri, e);
+            fail(trace, "fetch_error");
+        } catch (Exception e) { // Catch broader exceptions during processing
+            log.error("Error processing schema '{}' fetched from URL {}: {}", actionCode, schemaUri, e.getMessage(), e);
+            fail(trace, "processing_error");
+        }
+        return task.failed();
+    }
 
-                    // 4. Parse the schema content directly from the string with dereferencing enabled
-                    ParseOptions parseOptions = new ParseOptions();
-                    parseOptions.setResolve(true); // Enable resolution of $refs
-                    // The readContents method returns a ParseResult object
-                    openAPI = new OpenAPIV3Parser().readContents(schemaJsonContent, null, parseOptions).getOpenAPI();
+    // One ingestion attempt with its own trace; hedged attempts bypass the fetcher's request coalescing
+    private Ingestion attempt(SchemaTask task, Set<String> referencedHashes, boolean hedged) {
+        SchemaTrace trace = new SchemaTrace(hedged);
+        return new Ingestion(ingestSchema(task, referencedHashes, hedged, trace), trace);
+    }
 
-                    if (openAPI == null) {
-                         log.warn("Could not parse OpenAPI schema content fetched from {}", schemaUri);
-                         return; // Skip this schema if parsing failed
-                    }
-                    if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
-                        log.warn("No paths found in OpenAPI schema fetched from {}", schemaUri);
-                        return; // Skip this schema if no paths defined
-                    }
+    // Outcome tag of a fetch timer
+    private static String fetchOutcome(RegistryDocument document) {
+        if (document == null) {
+            return "error";
+        }
+        return document.notModified() ? "not_modified" : "success";
+    }
 
-                    // Validate that exactly one path exists, as per assumption
-                    if (openAPI.getPaths().size() != 1) {
-                        log.warn("Expected exactly one path in OpenAPI schema fetched from {}, but found {}. Skipping this schema.", schemaUri, openAPI.getPaths().size());
-                        return; // Skip this schema
-                    }
+    private void fail(SchemaTrace trace, String reason) {
+        metrics.schemaFailed(reason);
+        trace.failReason = reason;
+    }
 
-                    // Assuming only one path per file as per caveat - Now validated above
-                    Map.Entry<String, PathItem> pathEntry = openAPI.getPaths().entrySet().iterator().next();
-                    String endpointPath = pathEntry.getKey();
-                    PathItem pathItem = pathEntry.getValue();
-
-                    // Determine operation type (POST or GET) and get the Operation object
-                    Operation operation = null;
-                    String httpMethod = null;
-                    if (pathItem.getPost() != null) {
-                        operation = pathItem.getPost();
-                        httpMethod = "POST";
-                    } else if (pathItem.getGet() != null) {
-                        operation = pathItem.getGet();
-                        httpMethod = "GET";
-                    } else {
-                        log.warn("No POST or GET operation found in path {} for schema {}", endpointPath, schemaPath);
-                        return; // Skip if no supported operation
-                    }
+    private void skip(SchemaTrace trace, String reason) {
+        metrics.schemaSkipped(reason);
+        trace.skipReason = reason;
+    }
 
-                    ActionCodeInfo info = new ActionCodeInfo();
-                    info.setComponentName(componentName);
-                    info.setActionCode(actionCode);
+    // Encoded size without materializing the bytes
+    private static long utf8Length(String text) {
+        if (text == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4; // One code point outside the BMP
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
 
-                    // 4. Extract Fields
-                    info.setEndPoint(endpointPath);
-                    info.setType(determineType(httpMethod));
-                    info.setActionCodeGroupName(extractGroupName(operation));
+    /**
+     * Returns the derived ActionCodeInfo templates for a schema document, parsing it only if this
+     * content has not been seen before. Concurrent callers for the same content share one parse.
+     * Skipped schemas are cached as empty so an unchanged broken schema is not re-parsed either.
+     */
+    private List<ActionCodeInfo> deriveCached(RegistryDocument document, String cacheKey, String schemaPath, boolean serviceSpec,
+                                              SchemaTrace trace) {
+        CompletableFuture<List<ActionCodeInfo>> derivation = new CompletableFuture<>();
+        CompletableFuture<List<ActionCodeInfo>> existing = derivedSchemaCache.putIfAbsent(cacheKey, derivation);
+        if (existing != null) {
+            log.debug("Reusing derived schema for {} (content hash {})", document.uri(), document.contentHash());
+            trace.reusedDerivation = true;
+            return existing.join();
+        }
+        try {
+            derivation.complete(deriveActionCodeTemplates(document.body(), document.uri(), schemaPath, serviceSpec, trace));
+        } catch (RuntimeException e) {
+            // Do not cache unexpected failures; the next build retries the parse
+            derivation.completeExceptionally(e);
+            derivedSchemaCache.remove(cacheKey, derivation);
+        }
+        return derivation.join();
+    }
 
-                    // 5. Process Path and Query Parameters
-                    processParameters(operation.getParameters(), info.getPathPropertyListMap());
+    // Derived cache key: service specs derive one template per operation, single-path schemas at most one
+    private static String derivedCacheKey(String contentHash, boolean serviceSpec) {
+        return serviceSpec ? SERVICE_SPEC_KEY_PREFIX + contentHash : contentHash;
+    }
 
-                    // 7. Process Request Body
-                    if (operation.getRequestBody() != null) {
-                        List<RequestBodyColumnInfo> requestBodyColumns = processRequestBody(operation.getRequestBody(), openAPI);
-                        info.setRequestBodyColumnList(requestBodyColumns);
-                    }
+    private static String derivedCacheKey(CatalogEntry entry) {
+        return derivedCacheKey(entry.contentHash(), entry.specName() != null);
+    }
 
-                    // 8. Process Response Body (New Step)
-                    if (operation.getResponses() != null) {
-                        List<ResponseBodyColumnInfo> responseBodyColumns = processResponseBody(operation, openAPI);
-                        info.setResponseBodyColumnList(responseBodyColumns);
-                    }
+    /**
+     * Parses a schema document and flattens it into ActionCodeInfo templates without component name.
+     * A single-path schema yields at most one template without action code; a service spec yields one
+     * template per operation, carrying its derived action code.
+     *
+     * @return the templates, empty if the schema is not usable (reason is logged).
+     */
+    private List<ActionCodeInfo> deriveActionCodeTemplates(String schemaJsonContent, URI schemaUri, String schemaPath, boolean serviceSpec,
+                                                           SchemaTrace trace) {
+        // Fast path: read only what is consumed below; unsupported documents fall back to the full parser
+        Timer.Sample parseSample = metrics.start();
+        long parseStart = System.nanoTime();
+        OpenAPI openAPI = lightweightReader != null ? lightweightReader.read(schemaJsonContent) : null;
+        String parser = "lightweight";
+        if (openAPI == null) {
+            openAPI = parseFully(schemaJsonContent);
+            parser = "full";
+        }
+        trace.parseNanos = System.nanoTime() - parseStart;
+        trace.parser = parser;
+        metrics.schemaParsed(parseSample, parser);
+
+        if (openAPI == null) {
+             log.warn("Could not parse OpenAPI schema content fetched from {}", schemaUri);
+             skip(trace, "unparseable");
+             return List.of(); // Skip this schema if parsing failed
+        }
+        if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
+            log.warn("No paths found in OpenAPI schema fetched from {}", schemaUri);
+            skip(trace, "no_paths");
+            return List.of(); // Skip this schema if no paths defined
+        }
 
+        Timer.Sample flattenSample = metrics.start();
+        long flattenStart = System.nanoTime();
+        try {
+            return flattenTemplates(openAPI, schemaUri, schemaPath, serviceSpec, trace);
+        } finally {
+            trace.flattenNanos = System.nanoTime() - flattenStart;
+            metrics.schemaFlattened(flattenSample);
+        }
+    }
 
-                    actionCodeInfos.add(info);
+    private List<ActionCodeInfo> flattenTemplates(OpenAPI openAPI, URI schemaUri, String schemaPath, boolean serviceSpec, SchemaTrace trace) {
 
-                } catch (URISyntaxException e) {
-                    log.error("Invalid URI syntax for base URL '{}' or schema path '{}'", baseUrl, schemaPath, e); // Use baseUrl in log
-                } catch (RestClientException e) {
-                    log.error("Failed to fetch schema '{}' from URL: {}", actionCode, schemaUri, e);
-                } catch (Exception e) { // Catch broader exceptions during processing
-                    log.error("Error processing schema '{}' fetched from URL {}: {}", actionCode, schemaUri, e.getMessage(), e);
-                }
-            });
-        });
+        // One flattener per document, so shared component schemas are flattened once for all bodies
+        SchemaFlattener flattener = new SchemaFlattener(openAPI, maxRefDepth);
+        if (serviceSpec) {
+            return deriveServiceSpecTemplates(openAPI, flattener, schemaUri, trace);
+        }
 
-        return actionCodeInfos;
+        // Validate that exactly one path exists, as per assumption
+        if (openAPI.getPaths().size() != 1) {
+            log.warn("Expected exactly one path in OpenAPI schema fetched from {}, but found {}. Skipping this schema.", schemaUri, openAPI.getPaths().size());
+            skip(trace, "multiple_paths");
+            return List.of(); // Skip this schema
+        }
+
+        // Assuming only one path per file as per caveat - Now validated above
+        Map.Entry<String, PathItem> pathEntry = openAPI.getPaths().entrySet().iterator().next();
+        String endpointPath = pathEntry.getKey();
+        PathItem pathItem = pathEntry.getValue();
+
+        // Determine operation type (POST or GET) and get the Operation object
+        Operation operation = null;
+        String httpMethod = null;
+        if (pathItem.getPost() != null) {
+            operation = pathItem.getPost();
+            httpMethod = "POST";
+        } else if (pathItem.getGet() != null) {
+            operation = pathItem.getGet();
+            httpMethod = "GET";
+        } else {
+            log.warn("No POST or GET operation found in path {} for schema {}", endpointPath, schemaPath);
+            skip(trace, "no_operation");
+            return List.of(); // Skip if no supported operation
+        }
+
+        return List.of(deriveOperationTemplate(endpointPath, httpMethod, operation, flattener));
+    }
+
+    /**
+     * Derives one template per GET/POST/PUT/PATCH/DELETE operation of a service spec. The action code
+     * is the operation id, or the method and path (e.g. {@code post-api-orders-id}) when it has none;
+     * duplicates get a numeric suffix.
+     */
+    private List<ActionCodeInfo> deriveServiceSpecTemplates(OpenAPI openAPI, SchemaFlattener flattener, URI schemaUri, SchemaTrace trace) {
+        List<ActionCodeInfo> templates = new ArrayList<>();
+        Set<String> actionCodes = new HashSet<>();
+        openAPI.getPaths().forEach((endpointPath, pathItem) -> operationsOf(pathItem).forEach((httpMethod, operation) -> {
+            ActionCodeInfo info = deriveOperationTemplate(endpointPath, httpMethod, operation, flattener);
+            String baseActionCode = deriveActionCode(endpointPath, httpMethod, operation);
+            String actionCode = baseActionCode;
+            for (int suffix = 2; !actionCodes.add(actionCode); suffix++) {
+                actionCode = baseActionCode + "-" + suffix;
+            }
+            info.setActionCode(actionCode);
+            templates.add(info);
+        }));
+        if (templates.isEmpty()) {
+            log.warn("No supported operation found in service spec fetched from {}", schemaUri);
+            skip(trace, "no_operation");
+        } else {
+            log.info("Derived {} action codes from service spec fetched from {}", templates.size(), schemaUri);
+        }
+        return templates;
+    }
+
+    // Supported operations of a path in a stable order
+    private static Map<String, Operation> operationsOf(PathItem pathItem) {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        if (pathItem.getGet() != null) operations.put("GET", pathItem.getGet());
+        if (pathItem.getPost() != null) operations.put("POST", pathItem.getPost());
+        if (pathItem.getPut() != null) operations.put("PUT", pathItem.getPut());
+        if (pathItem.getPatch() != null) operations.put("PATCH", pathItem.getPatch());
+        if (pathItem.getDelete() != null) operations.put("DELETE", pathItem.getDelete());
+        return operations;
+    }
+
+    private static String deriveActionCode(String endpointPath, String httpMethod, Operation operation) {
+        if (operation.getOperationId() != null && !operation.getOperationId().isBlank()) {
+            return operation.getOperationId();
+        }
+        String pathPart = endpointPath.replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "");
+        return pathPart.isEmpty() ? httpMethod.toLowerCase(Locale.ROOT) : httpMethod.toLowerCase(Locale.ROOT) + "-" + pathPart;
+    }
+
+    // Flattens one operation into a template without component name or action code
+    private ActionCodeInfo deriveOperationTemplate(String endpointPath, String httpMethod, Operation operation, SchemaFlattener flattener) {
+        ActionCodeInfo info = new ActionCodeInfo();
+
+        // Extract Fields
+        info.setEndPoint(endpointPath);
+        info.setType(determineType(httpMethod));
+        info.setActionCodeGroupName(extractGroupName(operation));
+
+        // Process Path and Query Parameters
+        processParameters(operation.getParameters(), info.getPathPropertyListMap());
+
+        // Process Request Body
+        if (operation.getRequestBody() != null) {
+            List<RequestBodyColumnInfo> requestBodyColumns = processRequestBody(operation.getRequestBody(), flattener);
+            info.setRequestBodyColumnList(requestBodyColumns);
+        }
+
+        // Process Response Body
+        if (operation.getResponses() != null) {
+            List<ResponseBodyColumnInfo> responseBodyColumns = processResponseBody(operation, flattener);
+            info.setResponseBodyColumnList(responseBodyColumns);
+        }
+
+        return info;
+    }
+
+    private OpenAPI parseFully(String schemaJsonContent) {
+        // Parse the schema content directly from the string with dereferencing enabled
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true); // Enable resolution of $refs
+        // The readContents method returns a ParseResult object
+        return new OpenAPIV3Parser().readContents(schemaJsonContent, null, parseOptions).getOpenAPI();
+    }
+
+    // Copies a derived template for one manifest entry. Column lists are shared between
+    // action codes pointing at the same content and must be treated as read-only.
+    private ActionCodeInfo copyForAction(ActionCodeInfo template, String componentName, String actionCode) {
+        return new ActionCodeInfo(componentName, template.getActionCodeGroupName(), actionCode,
+                template.getEndPoint(), template.getType(), template.getPathPropertyListMap(),
+                template.getRequestBodyColumnList(), template.getResponseBodyColumnList());
+    }
+
+    /**
+     * Copies the registry state behind the current catalog (manifest, validators) into a snapshot.
+     */
+    public void exportRegistryState(ActionCatalogSnapshot snapshot) {
+        ParsedManifest parsed = lastManifest;
+        if (parsed != null) {
+            snapshot.setManifestHash(parsed.contentHash());
+            snapshot.setManifest(parsed.manifest());
+        }
+        snapshot.setDocuments(new ArrayList<>(documentFetcher.getValidators()));
+    }
+
+    /**
+     * Restores the registry state persisted in a snapshot, so the next build can revalidate
+     * documents and reuse derived schemas instead of refetching and re-parsing them.
+     */
+    public void importRegistryState(ActionCatalogSnapshot snapshot) {
+        if (lastManifest == null && snapshot.getManifest() != null && snapshot.getManifestHash() != null) {
+            lastManifest = new ParsedManifest(snapshot.getManifestHash(), snapshot.getManifest());
+        }
+        // Group entries by derived content; a service spec's operations are seeded from one spec entry only
+        Map<String, List<ActionCodeInfo>> templates = new LinkedHashMap<>();
+        Map<String, String> seededFrom = new HashMap<>();
+        snapshot.getEntries().stream()
+                .filter(entry -> entry.contentHash() != null)
+                .forEach(entry -> {
+                    String cacheKey = derivedCacheKey(entry);
+                    if (!seededFrom.computeIfAbsent(cacheKey, key -> entry.sourceKey()).equals(entry.sourceKey())) {
+                        return;
+                    }
+                    List<ActionCodeInfo> infos = templates.computeIfAbsent(cacheKey, key -> new ArrayList<>());
+                    if (entry.info() != null) {
+                        infos.add(entry.info());
+                    }
+                });
+        templates.forEach((cacheKey, infos) ->
+                derivedSchemaCache.putIfAbsent(cacheKey, CompletableFuture.completedFuture(List.copyOf(infos))));
+        documentFetcher.restoreValidators(snapshot.getDocuments());
+    }
+
+    /**
+     * Shuts down the ingestion pool when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ingestionExecutor != null) {
+            ingestionExecutor.shutdownNow();
+        }
     }
 
     private String determineType(String httpMethod) {
@@ -191,6 +809,12 @@ public class ActionCodeService {
             return "PostAndVerify";
         } else if ("GET".equalsIgnoreCase(httpMethod)) {
             return "FetchAndVerify";
+        } else if ("PUT".equalsIgnoreCase(httpMethod)) {
+            return "PutAndVerify";
+        } else if ("PATCH".equalsIgnoreCase(httpMethod)) {
+            return "PatchAndVerify";
+        } else if ("DELETE".equalsIgnoreCase(httpMethod)) {
+            return "DeleteAndVerify";
         }
         return "Unknown";
     }
@@ -219,7 +843,7 @@ public class ActionCodeService {
         });
     }
 
-    private List<RequestBodyColumnInfo> processRequestBody(RequestBody requestBody, OpenAPI openAPI) {
+    private List<RequestBodyColumnInfo> processRequestBody(RequestBody requestBody, SchemaFlattener flattener) {
         List<RequestBodyColumnInfo> columns = new ArrayList<>();
         if (requestBody.getContent() == null || !requestBody.getContent().containsKey("application/json")) {
             return columns; // No JSON request body defined
@@ -229,32 +853,36 @@ public class ActionCodeService {
 
         // Resolve top-level $ref if present
         if (requestSchema.get$ref() != null) {
-            requestSchema = findSchemaByRef(requestSchema.get$ref(), openAPI);
+            requestSchema = flattener.findSchemaByRef(requestSchema.get$ref());
             if (requestSchema == null) return columns; // Could not resolve ref
         }
 
         // Find the actual root data schema (handling wrapper like ApiSingleRequestDemandCode)
-        Schema<?> rootDataSchema = findActualDataSchema(requestSchema, openAPI);
+        Schema<?> rootDataSchema = findActualDataSchema(requestSchema, flattener);
         if (rootDataSchema == null) {
              log.warn("Could not determine root data schema for request body.");
              return columns;
         }
 
-        // Start flattening from the root data schema using the generic method
-        flattenSchemaGeneric(rootDataSchema, openAPI, "", columns, Optional.ofNullable(rootDataSchema.getRequired()), ":request"); // Use generic method
+        // Flatten from the root data schema and build request columns under the ':request' prefix
+        for (SchemaFlattener.FlatColumn column : flattener.flatten(rootDataSchema)) {
+            // Attribute paths are derivedDataType + ":" + name and built from the shared path node when read
+            PathNode derivedDataType = calculateDerivedDataType(column.parentPath(), REQUEST_PATH);
+            columns.add(new RequestBodyColumnInfo(column.name(), column.mandatory(), derivedDataType));
+        }
 
         return columns;
     }
 
     // Helper to find the actual data schema, potentially unwrapping an array/object wrapper
-    private Schema<?> findActualDataSchema(Schema<?> initialSchema, OpenAPI openAPI) {
+    private Schema<?> findActualDataSchema(Schema<?> initialSchema, SchemaFlattener flattener) {
          if (initialSchema == null) return null;
 
          // If it's an array, look at items
          if (initialSchema instanceof ArraySchema) {
              Schema<?> itemsSchema = ((ArraySchema) initialSchema).getItems();
              if (itemsSchema.get$ref() != null) {
-                 return findSchemaByRef(itemsSchema.get$ref(), openAPI);
+                 return flattener.findSchemaByRef(itemsSchema.get$ref());
              }
              return itemsSchema; // Assuming direct schema definition in items
          }
@@ -266,11 +894,11 @@ public class ActionCodeService {
              if (potentialDataSchema instanceof ArraySchema) {
                  Schema<?> itemsSchema = ((ArraySchema) potentialDataSchema).getItems();
                  if (itemsSchema.get$ref() != null) {
-                     return findSchemaByRef(itemsSchema.get$ref(), openAPI);
+                     return flattener.findSchemaByRef(itemsSchema.get$ref());
                  }
                  return itemsSchema;
              } else if (potentialDataSchema.get$ref() != null) {
-                 return findSchemaByRef(potentialDataSchema.get$ref(), openAPI);
+                 return flattener.findSchemaByRef(potentialDataSchema.get$ref());
              }
              return potentialDataSchema; // Return the schema of the single property
          }
@@ -280,7 +908,7 @@ public class ActionCodeService {
     }
 
     // --- New Method to Process Response Body ---
-    private List<ResponseBodyColumnInfo> processResponseBody(Operation operation, OpenAPI openAPI) {
+    private List<ResponseBodyColumnInfo> processResponseBody(Operation operation, SchemaFlattener flattener) {
         List<ResponseBodyColumnInfo> columns = new ArrayList<>();
         if (operation.getResponses() == null) {
             return columns;
@@ -305,140 +933,63 @@ public class ActionCodeService {
 
         // Resolve top-level $ref if present
         if (responseSchema.get$ref() != null) {
-            responseSchema = findSchemaByRef(responseSchema.get$ref(), openAPI);
+            responseSchema = flattener.findSchemaByRef(responseSchema.get$ref());
             if (responseSchema == null) return columns; // Could not resolve ref
         }
 
         // Find the actual root data schema (reuse existing helper)
-        Schema<?> rootDataSchema = findActualDataSchema(responseSchema, openAPI);
+        Schema<?> rootDataSchema = findActualDataSchema(responseSchema, flattener);
         if (rootDataSchema == null) {
              log.warn("Could not determine root data schema for response body.");
              return columns;
         }
 
-        // Start flattening from the root data schema using the generic flatten method
-        flattenSchemaGeneric(rootDataSchema, openAPI, "", columns, Optional.ofNullable(rootDataSchema.getRequired()), ":response");
+        // Flatten from the root data schema and build response columns under the ':response' prefix
+        for (SchemaFlattener.FlatColumn column : flattener.flatten(rootDataSchema)) {
+            PathNode derivedDataType = calculateDerivedDataType(column.parentPath(), RESPONSE_PATH);
+            // Note: 'mandatory' for response might mean 'defined' or 'always present';
+            // it is derived from the parent schema's required list.
+            columns.add(new ResponseBodyColumnInfo(column.name(), column.mandatory(), derivedDataType));
+        }
 
         return columns;
     }
     // --- End New Method ---
 
-
-    // Recursive function to flatten the schema - Made Generic
-    // Accepts List<?> and creates specific DTO type based on pathPrefix
-    private void flattenSchemaGeneric(Schema<?> schema, OpenAPI openAPI, String currentPath, List columns, Optional<List<String>> parentRequired, String pathPrefix) {
-        if (schema == null) return;
-
-        // Resolve $ref if necessary
-        if (schema.get$ref() != null) {
-            Schema<?> resolvedSchema = findSchemaByRef(schema.get$ref(), openAPI);
-            if (resolvedSchema != null) {
-                // Use the resolved schema's required list if it exists
-                flattenSchemaGeneric(resolvedSchema, openAPI, currentPath, columns, Optional.ofNullable(resolvedSchema.getRequired()), pathPrefix); // Pass prefix
-            } else {
-                log.warn("Could not resolve schema reference: {}", schema.get$ref());
-            }
-            return; // Stop processing the $ref schema itself
-        }
-
-        if (schema.getProperties() != null) {
-            schema.getProperties().forEach((propertyName, propertySchema) -> {
-                String newPath = currentPath + ":" + propertyName;
-                boolean isMandatory = parentRequired.orElse(Collections.emptyList()).contains(propertyName); // Use emptyList for default
-
-                // Resolve property schema ref if needed
-                 Schema<?> actualPropertySchema = propertySchema;
-                 if (propertySchema.get$ref() != null) {
-                     actualPropertySchema = findSchemaByRef(propertySchema.get$ref(), openAPI);
-                     if (actualPropertySchema == null) {
-                         log.warn("Could not resolve property schema reference: {}", propertySchema.get$ref());
-                         return; // Skip this property if ref cannot be resolved
-                     }
-                 }
-
-
-                if (actualPropertySchema instanceof ArraySchema) {
-                    // If it's an array, recurse on its items schema
-                    Schema<?> itemsSchema = ((ArraySchema) actualPropertySchema).getItems();
-                     // Pass the 'required' list of the *array's items schema* if it exists
-                    flattenSchemaGeneric(itemsSchema, openAPI, newPath , columns, Optional.ofNullable(itemsSchema.getRequired()), pathPrefix); // Pass prefix
-                } else if (actualPropertySchema.getProperties() != null || actualPropertySchema.get$ref() != null) {
-                    // If it's an object (or a ref that resolves to one), recurse
-                     // Pass the 'required' list of the *object schema itself*
-                    flattenSchemaGeneric(actualPropertySchema, openAPI, newPath, columns, Optional.ofNullable(actualPropertySchema.getRequired()), pathPrefix); // Pass prefix
-                 } else {
-                     // Basic type, add to list - Create appropriate DTO type
-                     // Use currentPath (parent path) for derivedDataType as per test expectation
-                     String derivedDataType = calculateDerivedDataType(currentPath, pathPrefix); // Use currentPath
-
-                     if (":request".equals(pathPrefix)) {
-                          // Calculate the new path fields
-                          String attributePathValue = derivedDataType + ":" + propertyName;
-                          String attributeGridPathValue = derivedDataType + ":" + propertyName; // Same for now
-
-                          RequestBodyColumnInfo columnInfo = new RequestBodyColumnInfo();
-                          columnInfo.setTechnicalColumnName(propertyName);
-                          columnInfo.setMandatory(isMandatory);
-                          columnInfo.setDerivedDataType(derivedDataType); // Set using parent path
-                          columnInfo.setAttributePath(attributePathValue); // Set new field
-                          columnInfo.setAttributeGridPath(attributeGridPathValue); // Set new field
-                          columns.add(columnInfo);
-                      } else if (":response".equals(pathPrefix)) {
-                          // Calculate the new path fields
-                          String attributePathValue = derivedDataType + ":" + propertyName;
-                          String attributeGridPathValue = derivedDataType + ":" + propertyName; // Same for now
-
-                          ResponseBodyColumnInfo columnInfo = new ResponseBodyColumnInfo();
-                          columnInfo.setTechnicalColumnName(propertyName);
-                          // Note: 'mandatory' for response might mean 'defined' or 'always present'
-                          // Use the 'isMandatory' flag derived from the parent schema's required list.
-                          columnInfo.setMandatory(isMandatory); // Use the calculated mandatory status
-                          columnInfo.setDerivedDataType(derivedDataType); // Set using parent path
-                          columnInfo.setAttributePath(attributePathValue); // Set new field
-                          columnInfo.setAttributeGridPath(attributeGridPathValue); // Set new field
-                          columns.add(columnInfo);
-                      } else {
-                          log.warn("Unknown path prefix '{}' during schema flattening.", pathPrefix);
-                    }
-                }
-            });
-        }
-         // Handle cases where the schema itself is an array (e.g., request body is List<String>)
-         else if (schema instanceof ArraySchema) {
-             Schema<?> itemsSchema = ((ArraySchema) schema).getItems();
-             // Recurse on items, path remains the same conceptually for the items within the root array
-             flattenSchemaGeneric(itemsSchema, openAPI, currentPath, columns, Optional.ofNullable(itemsSchema.getRequired()), pathPrefix); // Pass prefix
-         }
-         // Potentially handle other schema types if necessary
-    }
-
      // Helper to calculate derivedDataType consistently
-     // Returns the path of the parent object, prefixed by ':request:' or ':response:'
-     private String calculateDerivedDataType(String parentPath, String prefix) {
+     // Returns the interned path node of the parent object, below ':request' or ':response'
+     private PathNode calculateDerivedDataType(String parentPath, PathNode prefix) {
          // If parentPath is empty (root level), just return the prefix.
          // Otherwise, combine prefix and parentPath.
          // parentPath might be "" or ":object" or ":object:nested"
          // prefix is ":request" or ":response"
          // Example: :request + "" -> :request, :request + :props -> :request:props
-         return prefix + parentPath;
+         return prefix.resolve(parentPath);
      }
 
+    // One manifest entry to ingest: component name, action code (or spec name) and the schema path it points at
+    private record SchemaTask(String componentName, String actionCode, String schemaPath, boolean isServiceSpec) {
+
+        String key() {
+            return CatalogEntry.key(componentName, actionCode);
+        }
 
-    // Helper to find a schema by its $ref (#/components/schemas/SchemaName)
-    private Schema<?> findSchemaByRef(String ref, OpenAPI openAPI) {
-        if (ref == null || !ref.startsWith("#/components/schemas/")) {
-            log.warn("Invalid or unsupported schema reference format: {}", ref);
-            return null;
+        List<CatalogEntry> failed() {
+            return List.of(new CatalogEntry(componentName, actionCode, schemaPath, null, null, isServiceSpec ? actionCode : null));
         }
-        String schemaName = ref.substring("#/components/schemas/".length());
-        if (openAPI.getComponents() == null || openAPI.getComponents().getSchemas() == null) {
-             log.warn("No components/schemas found in the OpenAPI document to resolve ref: {}", ref);
-            return null;
+
+        // Placeholder carrying only what the manifest knows; no content hash until the schema is fetched
+        CatalogEntry stub() {
+            ActionCodeInfo info = new ActionCodeInfo();
+            info.setComponentName(componentName);
+            info.setActionCode(actionCode);
+            return new CatalogEntry(componentName, actionCode, schemaPath, null, info);
         }
-        Schema<?> resolved = openAPI.getComponents().getSchemas().get(schemaName);
-         if (resolved == null) {
-             log.warn("Schema not found for reference: {}", ref);
-         }
-         return resolved;
     }
+
+    // The catalog entries of one ingestion attempt together with what it measured
+    private record Ingestion(List<CatalogEntry> entries, SchemaTrace trace) {}
+
+    // A parsed manifest together with the content hash it was parsed from
+    private record ParsedManifest(String contentHash, ApiListManifest manifest) {}
 }
@@ -0,0 +1,13 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+
+import java.util.List;
+
+/**
+ * One page of a filtered action catalog listing.
+ *
+ * @param actions    the matching actions in manifest order.
+ * @param nextCursor cursor for the next page, or {@code null} if this is the last page.
+ */
+public record ActionPage(List<ActionCodeInfo> actions, String nextCursor) {}
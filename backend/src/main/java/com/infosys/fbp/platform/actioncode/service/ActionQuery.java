@@ -0,0 +1,12 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+/**
+ * Filters and paging for listing the action catalog. {@code null} filters match everything.
+ *
+ * @param componentName       exact component name, or {@code null}.
+ * @param actionCodeGroupName exact action code group name, or {@code null}.
+ * @param type                exact action type (e.g. "PostAndVerify"), or {@code null}.
+ * @param cursor              opaque cursor from a previous page, or {@code null} for the first page.
+ * @param limit               maximum number of actions to return, or {@code null} for all remaining.
+ */
+public record ActionQuery(String componentName, String actionCodeGroupName, String type, String cursor, Integer limit) {}
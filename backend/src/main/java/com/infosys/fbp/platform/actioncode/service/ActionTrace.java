@@ -0,0 +1,89 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one manifest entry cost during a catalog build. Times are in microseconds; a service spec is
+ * a single trace covering all of its operations.
+ *
+ * @param componentName   the component.
+ * @param actionCode      the action code, or the spec name of a service spec.
+ * @param schemaPath      the schema path from the manifest.
+ * @param outcome         {@code ingested}, {@code unchanged} (carried over from the previous build without
+ *                        fetching), {@code stub} (lazy mode), {@code skipped} or {@code failed}.
+ * @param reason          why the entry was skipped or failed, e.g. {@code no_paths} or {@code timeout}; otherwise {@code null}.
+ * @param fetchBytes      UTF-8 size of the fetched document; 0 if it was not (re)transferred.
+ * @param notModified     whether the document was revalidated instead of transferred.
+ * @param hedged          whether the result came from a hedged second request.
+ * @param parser          {@code lightweight} or {@code full}, or {@code null} if the document was not parsed in this build.
+ * @param fetchMicros     time to fetch the document.
+ * @param parseMicros     time to parse it.
+ * @param flattenMicros   time to flatten its operations into columns.
+ * @param costMicros      the sum of fetch, parse and flatten time; traces are ranked by it.
+ * @param operations      ingested actions produced by the entry.
+ * @param requestColumns  request body columns of those actions.
+ * @param responseColumns response body columns of those actions.
+ */
+public record ActionTrace(String componentName, String actionCode, String schemaPath, String outcome, String reason,
+                          long fetchBytes, boolean notModified, boolean hedged, String parser,
+                          long fetchMicros, long parseMicros, long flattenMicros, long costMicros,
+                          int operations, int requestColumns, int responseColumns) {
+
+    static final String INGESTED = "ingested";
+    static final String UNCHANGED = "unchanged";
+    static final String STUB = "stub";
+    static final String SKIPPED = "skipped";
+    static final String FAILED = "failed";
+
+    /**
+     * Summarizes a manifest entry's catalog entries and, unless it was carried over, the measurements of its ingestion.
+     */
+    static ActionTrace of(String componentName, String actionCode, String schemaPath,
+                          List<CatalogEntry> entries, SchemaTrace trace, boolean carriedOver) {
+        int operations = 0;
+        int requestColumns = 0;
+        int responseColumns = 0;
+        boolean stub = false;
+        for (CatalogEntry entry : entries) {
+            stub |= entry.isStub();
+            if (entry.isIngested()) {
+                ActionCodeInfo info = entry.info();
+                operations++;
+                requestColumns += info.getRequestBodyColumnList() == null ? 0 : info.getRequestBodyColumnList().size();
+                responseColumns += info.getResponseBodyColumnList() == null ? 0 : info.getResponseBodyColumnList().size();
+            }
+        }
+
+        String outcome;
+        String reason = null;
+        if (carriedOver) {
+            outcome = UNCHANGED;
+        } else if (stub) {
+            outcome = STUB;
+        } else if (operations > 0) {
+            outcome = INGESTED;
+        } else if (trace != null && trace.failReason == null && entries.get(0).contentHash() != null) {
+            outcome = SKIPPED;
+            // A cached derivation remembers that the content is unusable, not why
+            reason = trace.skipReason != null ? trace.skipReason : "previously_skipped";
+        } else {
+            outcome = FAILED;
+            reason = trace != null && trace.failReason != null ? trace.failReason : "unknown";
+        }
+
+        if (trace == null) {
+            return new ActionTrace(componentName, actionCode, schemaPath, outcome, reason,
+                    0, false, false, null, 0, 0, 0, 0, operations, requestColumns, responseColumns);
+        }
+        long fetchMicros = TimeUnit.NANOSECONDS.toMicros(trace.fetchNanos);
+        long parseMicros = TimeUnit.NANOSECONDS.toMicros(trace.parseNanos);
+        long flattenMicros = TimeUnit.NANOSECONDS.toMicros(trace.flattenNanos);
+        return new ActionTrace(componentName, actionCode, schemaPath, outcome, reason,
+                trace.fetchBytes, trace.notModified, trace.hedged, trace.parser,
+                fetchMicros, parseMicros, flattenMicros, fetchMicros + parseMicros + flattenMicros,
+                operations, requestColumns, responseColumns);
+    }
+}
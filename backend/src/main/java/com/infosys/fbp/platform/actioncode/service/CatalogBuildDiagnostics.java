@@ -0,0 +1,60 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the traces of the last {@code catalog.diagnostics.max-builds} catalog builds in a bounded
+ * ring buffer, so a slow build can be attributed to the schemas that caused it after the fact.
+ * The oldest trace is dropped when a new one arrives at capacity; a capacity of 0 disables recording.
+ */
+@Component
+public class CatalogBuildDiagnostics {
+
+    // Used until (or unless) Spring injects the shared buffer; records nothing
+    static final CatalogBuildDiagnostics DISABLED = new CatalogBuildDiagnostics(0);
+
+    private final int maxBuilds;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Deque<CatalogBuildTrace> builds = new ArrayDeque<>(); // Guarded by this, newest first
+
+    @Autowired
+    public CatalogBuildDiagnostics(@Value("${catalog.diagnostics.max-builds:10}") int maxBuilds) {
+        this.maxBuilds = Math.max(0, maxBuilds);
+    }
+
+    /**
+     * Whether builds should collect traces at all.
+     */
+    boolean isEnabled() {
+        return maxBuilds > 0;
+    }
+
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    synchronized void record(CatalogBuildTrace trace) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (builds.size() == maxBuilds) {
+            builds.removeLast();
+        }
+        builds.addFirst(trace);
+    }
+
+    /**
+     * Returns the recorded builds, newest first.
+     */
+    public synchronized List<CatalogBuildTrace> recentBuilds() {
+        return new ArrayList<>(builds);
+    }
+}
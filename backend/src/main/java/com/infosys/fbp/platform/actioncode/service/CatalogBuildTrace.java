@@ -0,0 +1,57 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Diagnostics of one catalog build: overall timing, outcome counts and a trace per manifest entry,
+ * most expensive first.
+ *
+ * @param sequence            build number since startup, increasing.
+ * @param startedAt           when the build started.
+ * @param type                {@code full} or {@code incremental}.
+ * @param outcome             {@code success}, or {@code manifest_unavailable} when no catalog could be built.
+ * @param durationMillis      wall time of the whole build.
+ * @param manifestFetchMicros time to fetch (and if changed, parse) the manifest.
+ * @param ingested            manifest entries that yielded at least one action.
+ * @param unchanged           entries carried over from the previous build without fetching.
+ * @param stubs               entries left as lazy stubs.
+ * @param skipped             entries whose schema yields no action.
+ * @param failed              entries that could not be ingested.
+ * @param actions             per-entry traces, ordered by {@link ActionTrace#costMicros()} descending.
+ */
+public record CatalogBuildTrace(long sequence, Instant startedAt, String type, String outcome,
+                                long durationMillis, long manifestFetchMicros,
+                                int ingested, int unchanged, int stubs, int skipped, int failed,
+                                List<ActionTrace> actions) {
+
+    static final Comparator<ActionTrace> BY_COST = Comparator.comparingLong(ActionTrace::costMicros).reversed();
+
+    static CatalogBuildTrace of(long sequence, Instant startedAt, String type, String outcome,
+                                long durationMillis, long manifestFetchMicros, List<ActionTrace> actions) {
+        int[] counts = new int[5];
+        actions.forEach(action -> {
+            switch (action.outcome()) {
+                case ActionTrace.INGESTED -> counts[0]++;
+                case ActionTrace.UNCHANGED -> counts[1]++;
+                case ActionTrace.STUB -> counts[2]++;
+                case ActionTrace.SKIPPED -> counts[3]++;
+                default -> counts[4]++;
+            }
+        });
+        return new CatalogBuildTrace(sequence, startedAt, type, outcome, durationMillis, manifestFetchMicros,
+                counts[0], counts[1], counts[2], counts[3], counts[4], actions.stream().sorted(BY_COST).toList());
+    }
+
+    /**
+     * Returns a copy listing only the {@code top} most expensive entries; the counts still cover all of them.
+     */
+    public CatalogBuildTrace withTopActions(int top) {
+        if (top >= actions.size()) {
+            return this;
+        }
+        return new CatalogBuildTrace(sequence, startedAt, type, outcome, durationMillis, manifestFetchMicros,
+                ingested, unchanged, stubs, skipped, failed, actions.subList(0, top));
+    }
+}
@@ -0,0 +1,60 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+
+/**
+ * One manifest entry of the action catalog and the outcome of ingesting it.
+ * <p>
+ * Entries derived from a service spec ({@code serviceSpecs} in the manifest) carry the spec name;
+ * one spec yields an entry per operation, or a single failed entry keyed by the spec name.
+ *
+ * @param componentName the manifest component the action code belongs to.
+ * @param actionCode    the action code.
+ * @param schemaPath    the schema path the manifest entry points at.
+ * @param contentHash   hash of the schema content it was built from, or {@code null} if it was never fetched.
+ * @param info          the ingested action (or a lazy stub), or {@code null} if the schema was skipped or failed.
+ * @param specName      the service spec the entry was derived from, or {@code null} for single-path schemas.
+ */
+public record CatalogEntry(String componentName, String actionCode, String schemaPath,
+                           String contentHash, ActionCodeInfo info, String specName) {
+
+    /**
+     * An entry for a single-path schema.
+     */
+    public CatalogEntry(String componentName, String actionCode, String schemaPath, String contentHash, ActionCodeInfo info) {
+        this(componentName, actionCode, schemaPath, contentHash, info, null);
+    }
+
+    /**
+     * Key identifying a manifest entry across builds.
+     */
+    public static String key(String componentName, String actionCode) {
+        return componentName + "/" + actionCode;
+    }
+
+    public String key() {
+        return key(componentName, actionCode);
+    }
+
+    /**
+     * Key of the manifest entry this entry was built from: its own key, or the service spec's.
+     */
+    public String sourceKey() {
+        return specName != null ? key(componentName, specName) : key();
+    }
+
+    /**
+     * Whether the entry produced an action.
+     */
+    public boolean isIngested() {
+        return info != null;
+    }
+
+    /**
+     * Whether the entry is a lazy placeholder built from the manifest alone, without the schema's
+     * endpoint, type, group or column lists.
+     */
+    public boolean isStub() {
+        return info != null && contentHash == null;
+    }
+}
@@ -0,0 +1,143 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters of the catalog pipeline, scraped under {@code /actuator/prometheus}:
+ * <ul>
+ *     <li>{@value #MANIFEST_FETCH}, {@value #SCHEMA_FETCH}, {@value #SCHEMA_PARSE} and {@value #SCHEMA_FLATTEN}
+ *     timers for the stages of ingesting a schema, and {@value #BUILD} for whole catalog builds,</li>
+ *     <li>{@value #SCHEMA_SKIPPED} and {@value #SCHEMA_FAILED} counters tagged with the reason,</li>
+ *     <li>{@value #ACTIONS} and {@value #COLUMNS} gauges describing the catalog currently served.</li>
+ * </ul>
+ * Parse, flatten and skip are recorded once per distinct schema content, since derived schemas are
+ * cached by content hash; fetches and failures are recorded for every attempt.
+ */
+@Component
+public class CatalogMetrics {
+
+    static final String MANIFEST_FETCH = "catalog.manifest.fetch";
+    static final String SCHEMA_FETCH = "catalog.schema.fetch";
+    static final String SCHEMA_PARSE = "catalog.schema.parse";
+    static final String SCHEMA_FLATTEN = "catalog.schema.flatten";
+    static final String SCHEMA_HEDGED = "catalog.schema.hedged";
+    static final String SCHEMA_SKIPPED = "catalog.schema.skipped";
+    static final String SCHEMA_FAILED = "catalog.schema.failed";
+    static final String BUILD = "catalog.build";
+    static final String ACTIONS = "catalog.actions";
+    static final String COLUMNS = "catalog.columns";
+
+    // Used until (or unless) Spring injects the application's registry; records nothing
+    static final CatalogMetrics NOOP = new CatalogMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry meterRegistry;
+
+    public CatalogMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * @param outcome {@code success}, {@code not_modified} or {@code error}.
+     */
+    void manifestFetched(Timer.Sample sample, String outcome) {
+        sample.stop(timer(MANIFEST_FETCH, "Time to fetch the API list manifest", "outcome", outcome));
+    }
+
+    /**
+     * @param outcome {@code success}, {@code not_modified} or {@code error}.
+     */
+    void schemaFetched(Timer.Sample sample, String outcome, boolean hedged) {
+        sample.stop(Timer.builder(SCHEMA_FETCH)
+                .description("Time to fetch one schema document")
+                .tag("outcome", outcome)
+                .tag("hedged", String.valueOf(hedged))
+                .register(meterRegistry));
+    }
+
+    /**
+     * @param parser {@code lightweight} or {@code full}; a document the fast path hands over counts as {@code full}.
+     */
+    void schemaParsed(Timer.Sample sample, String parser) {
+        sample.stop(timer(SCHEMA_PARSE, "Time to parse one schema document", "parser", parser));
+    }
+
+    void schemaFlattened(Timer.Sample sample) {
+        sample.stop(Timer.builder(SCHEMA_FLATTEN)
+                .description("Time to flatten the operations of one parsed schema into columns")
+                .register(meterRegistry));
+    }
+
+    /**
+     * @param type {@code full} or {@code incremental}.
+     * @param outcome {@code success} or {@code manifest_unavailable}.
+     */
+    void catalogBuilt(Timer.Sample sample, String type, String outcome) {
+        sample.stop(Timer.builder(BUILD)
+                .description("Time to build the action catalog")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    void schemaHedged() {
+        Counter.builder(SCHEMA_HEDGED)
+                .description("Hedged second requests sent for slow schemas")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * A schema that was read but yields no action, e.g. {@code unparseable} or {@code no_paths}.
+     */
+    void schemaSkipped(String reason) {
+        Counter.builder(SCHEMA_SKIPPED)
+                .description("Schemas that were read but yield no action")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * A schema that could not be ingested, e.g. {@code fetch_error} or {@code timeout}; it is retried by the next build.
+     */
+    void schemaFailed(String reason) {
+        Counter.builder(SCHEMA_FAILED)
+                .description("Schemas that could not be ingested")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Registers the catalog gauges. They read the counts of the catalog served at scrape time, which
+     * are computed once when it is built, and read zero while there is none.
+     */
+    void bindCatalog(Supplier<ActionCatalog> catalog) {
+        Gauge.builder(ACTIONS, catalog, supplier -> supplier.get() == null ? 0 : supplier.get().getActions().size())
+                .description("Ingested action codes in the catalog currently served")
+                .strongReference(true) // The supplier is typically a method reference held by nothing else
+                .register(meterRegistry);
+        Gauge.builder(COLUMNS, catalog, supplier -> supplier.get() == null ? 0 : supplier.get().getColumnCount())
+                .description("Request and response body columns of the catalog currently served")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    private Timer timer(String name, String description, String tag, String value) {
+        return Timer.builder(name)
+                .description(description)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content hashing used to key parse caches and derive ETags.
+ */
+final class ContentHashes {
+
+    private ContentHashes() {
+    }
+
+    /**
+     * Hex SHA-256 of the UTF-8 bytes of the given content.
+     */
+    static String sha256(String content) {
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hex SHA-256 of the given bytes.
+     */
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // Mandatory in every JRE
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Reads the manifest and schema documents from a local directory instead of the spec registry,
+ * for air-gapped and CI deployments. Enabled with {@code manifest.source=filesystem}; the directory
+ * is the {@code file:} URI in {@code manifest.base.url} (e.g. {@code file:///opt/specs/}).
+ * <p>
+ * Files are read through a read-only memory mapping. Each document's size and modification time
+ * serve as its validator: an unchanged file is reported as not modified without being read again.
+ * <p>
+ * With {@code manifest.source.watch} enabled, a {@link WatchService} watches the directory tree and
+ * publishes a {@link SchemaSourceChangedEvent} naming the files that were created, modified or
+ * deleted, so only those are re-ingested. Bursts of events (editors often write a file several
+ * times) are coalesced for {@code manifest.source.watch-debounce}.
+ */
+@Component
+@ConditionalOnProperty(name = "manifest.source", havingValue = "filesystem")
+@Slf4j
+public class FileSystemSchemaSource implements SchemaSource {
+
+    private final Path root;
+    private final boolean watch;
+    private final Duration debounce;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<URI, RegistryDocument> documentCache = new ConcurrentHashMap<>();
+
+    private WatchService watchService; // Null until watching starts
+    private Thread watchThread;
+
+    @Autowired
+    public FileSystemSchemaSource(@Value("${manifest.base.url}") String baseUrl,
+                                  @Value("${manifest.source.watch:true}") boolean watch,
+                                  @Value("${manifest.source.watch-debounce:50ms}") Duration debounce,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.root = Path.of(URI.create(baseUrl)).toAbsolutePath().normalize();
+        this.watch = watch;
+        this.debounce = debounce;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public RegistryDocument fetch(URI uri) {
+        RegistryDocument cached = documentCache.get(uri);
+        Path path = toPath(uri);
+        BasicFileAttributes attributes = readAttributes(path);
+        if (cached != null && validator(attributes).equals(cached.etag())) {
+            log.debug("File {} not modified; using cached copy.", path);
+            return cached.asNotModified();
+        }
+        return read(uri, path, attributes);
+    }
+
+    @Override
+    public RegistryDocument fetchUnconditionally(URI uri) {
+        Path path = toPath(uri);
+        return read(uri, path, readAttributes(path));
+    }
+
+    private RegistryDocument read(URI uri, Path path, BasicFileAttributes attributes) {
+        String body;
+        try {
+            // Decoded leniently, like the registry's response bodies; Files.readString rejects malformed input
+            body = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ResourceAccessException("Could not read " + path + ": " + e.getMessage(), e);
+        }
+        if (body.isEmpty()) {
+            documentCache.remove(uri);
+            return null;
+        }
+
+        RegistryDocument document = new RegistryDocument(uri, body, validator(attributes),
+                attributes.lastModifiedTime().toString(), ContentHashes.sha256(body), false);
+        documentCache.put(uri, document);
+        return document;
+    }
+
+    // Size and modification time identify a file version; the content hash still decides reuse of derived schemas
+    private static String validator(BasicFileAttributes attributes) {
+        return "\"" + attributes.size() + "-" + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) + "\"";
+    }
+
+    private Path toPath(URI uri) {
+        if (!"file".equalsIgnoreCase(uri.getScheme())) {
+            throw new ResourceAccessException("Not a file URI: " + uri + "; set manifest.base.url to a file: URI");
+        }
+        return Path.of(uri);
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new ResourceAccessException("No such file: " + path, e);
+        } catch (IOException e) {
+            throw new ResourceAccessException("Could not read " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<RegistryDocument> getValidators() {
+        return documentCache.values().stream()
+                .map(document -> new RegistryDocument(document.uri(), null, document.etag(),
+                        document.lastModified(), document.contentHash(), false))
+                .toList();
+    }
+
+    @Override
+    public void restoreValidators(List<RegistryDocument> documents) {
+        documents.forEach(document -> documentCache.putIfAbsent(document.uri(), document));
+    }
+
+    @Override
+    public void clear() {
+        documentCache.clear();
+    }
+
+    /**
+     * Starts watching the directory tree when enabled.
+     */
+    @PostConstruct
+    public void startWatching() throws IOException {
+        if (!watch) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        Map<WatchKey, Path> directories = new HashMap<>();
+        registerTree(root, directories);
+        watchThread = new Thread(() -> watchLoop(directories), "schema-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        log.info("Watching {} for schema changes.", root);
+    }
+
+    private void registerTree(Path directory, Map<WatchKey, Path> directories) throws IOException {
+        try (Stream<Path> tree = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) tree.filter(Files::isDirectory)::iterator) {
+                directories.put(path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), path);
+            }
+        }
+    }
+
+    private void watchLoop(Map<WatchKey, Path> directories) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new HashSet<>();
+                WatchKey key = watchService.take();
+                // Drain whatever arrives within the debounce window into one change set
+                while (key != null) {
+                    collectChanges(key, directories, changed);
+                    key = watchService.poll(debounce.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                if (!changed.isEmpty()) {
+                    publish(changed);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private void collectChanges(WatchKey key, Map<WatchKey, Path> directories, Set<Path> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || directory == null) {
+                log.warn("Missed file events under {}; forgetting all cached documents.", root);
+                documentCache.clear(); // Every document is re-read on the next build
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerTree(path, directories);
+                } catch (IOException e) {
+                    log.warn("Could not watch new directory {}", path, e);
+                }
+            }
+            if (!Files.isDirectory(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key); // Directory deleted
+        }
+    }
+
+    private void publish(Set<Path> changed) {
+        Set<URI> changedUris = new HashSet<>();
+        changed.forEach(path -> {
+            URI uri = path.toUri();
+            changedUris.add(uri);
+            documentCache.remove(uri); // Re-read even if size and modification time look unchanged
+        });
+        log.info("{} schema file(s) changed under {}; re-ingesting them.", changedUris.size(), root);
+        eventPublisher.publishEvent(new SchemaSourceChangedEvent(Set.copyOf(changedUris)));
+    }
+
+    /**
+     * Stops the watcher when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (watchService != null) {
+            watchThread.interrupt();
+            watchService.close();
+        }
+    }
+}
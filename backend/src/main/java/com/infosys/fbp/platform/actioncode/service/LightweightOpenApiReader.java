@@ -0,0 +1,251 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fast path for reading the single-path OpenAPI 3.0 JSON documents of the spec registry.
+ * <p>
+ * Reads the document as a Jackson tree and builds a minimal swagger model holding only what
+ * {@link ActionCodeService} consumes: paths, the GET/POST/PUT/PATCH/DELETE operations with their operation ids, tags, parameters,
+ * JSON request body and 200/201/default JSON responses, and the component schemas. Descriptions of
+ * schemas, examples and extensions are never materialized.
+ * <p>
+ * Documents using constructs the fast path does not model return {@code null}, and the caller falls
+ * back to the full {@code OpenAPIV3Parser}: non-JSON content, versions other than 3.0.x, composed
+ * schemas (allOf/oneOf/anyOf), references outside {@code #/components/schemas}, and referenced
+ * path items, parameters, request bodies or responses.
+ */
+@Slf4j
+class LightweightOpenApiReader {
+
+    private static final Set<String> RESPONSE_CODES = Set.of("200", "201", "default"); // The only ones consulted
+    private static final Set<String> COMPOSITION_KEYWORDS = Set.of("allOf", "oneOf", "anyOf");
+
+    private final ObjectMapper objectMapper;
+
+    LightweightOpenApiReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the document.
+     *
+     * @return the minimal model, or {@code null} if the document needs the full parser.
+     */
+    OpenAPI read(String content) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(content);
+        } catch (IOException e) {
+            log.debug("Document is not JSON; using the full parser.");
+            return null;
+        }
+        if (root == null || !root.isObject() || !root.path("openapi").asText("").startsWith("3.0")) {
+            log.debug("Document is not an OpenAPI 3.0 JSON document; using the full parser.");
+            return null;
+        }
+        try {
+            return readOpenApi(root);
+        } catch (UnsupportedConstructException e) {
+            log.debug("Document uses {}; using the full parser.", e.getMessage());
+            return null;
+        }
+    }
+
+    private OpenAPI readOpenApi(JsonNode root) {
+        OpenAPI openAPI = new OpenAPI();
+        openAPI.setOpenapi(root.get("openapi").asText());
+
+        JsonNode pathsNode = root.get("paths");
+        if (pathsNode != null && pathsNode.isObject()) {
+            Paths paths = new Paths();
+            pathsNode.fields().forEachRemaining(path -> paths.addPathItem(path.getKey(), readPathItem(path.getValue())));
+            openAPI.setPaths(paths);
+        }
+
+        JsonNode schemasNode = root.path("components").get("schemas");
+        if (schemasNode != null && schemasNode.isObject()) {
+            Components components = new Components().schemas(new LinkedHashMap<>());
+            schemasNode.fields().forEachRemaining(schema -> components.addSchemas(schema.getKey(), readSchema(schema.getValue())));
+            openAPI.setComponents(components);
+        }
+        return openAPI;
+    }
+
+    private PathItem readPathItem(JsonNode node) {
+        rejectRef(node, "a referenced path item");
+        PathItem pathItem = new PathItem();
+        if (node.has("post")) {
+            pathItem.setPost(readOperation(node.get("post")));
+        }
+        if (node.has("get")) {
+            pathItem.setGet(readOperation(node.get("get")));
+        }
+        if (node.has("put")) {
+            pathItem.setPut(readOperation(node.get("put")));
+        }
+        if (node.has("patch")) {
+            pathItem.setPatch(readOperation(node.get("patch")));
+        }
+        if (node.has("delete")) {
+            pathItem.setDelete(readOperation(node.get("delete")));
+        }
+        return pathItem; // Other methods are never consulted
+    }
+
+    private Operation readOperation(JsonNode node) {
+        Operation operation = new Operation();
+        operation.setOperationId(textOrNull(node, "operationId"));
+
+        JsonNode tagsNode = node.get("tags");
+        if (tagsNode != null && tagsNode.isArray()) {
+            List<String> tags = new ArrayList<>();
+            tagsNode.forEach(tag -> tags.add(tag.asText()));
+            operation.setTags(tags);
+        }
+
+        JsonNode parametersNode = node.get("parameters");
+        if (parametersNode != null && parametersNode.isArray()) {
+            List<Parameter> parameters = new ArrayList<>();
+            parametersNode.forEach(parameter -> parameters.add(readParameter(parameter)));
+            operation.setParameters(parameters);
+        }
+
+        JsonNode requestBodyNode = node.get("requestBody");
+        if (requestBodyNode != null) {
+            rejectRef(requestBodyNode, "a referenced request body");
+            operation.setRequestBody(new RequestBody().content(readContent(requestBodyNode.get("content"))));
+        }
+
+        JsonNode responsesNode = node.get("responses");
+        if (responsesNode != null && responsesNode.isObject()) {
+            ApiResponses responses = new ApiResponses();
+            responsesNode.fields().forEachRemaining(response -> {
+                if (RESPONSE_CODES.contains(response.getKey())) {
+                    rejectRef(response.getValue(), "a referenced response");
+                    responses.addApiResponse(response.getKey(), new ApiResponse().content(readContent(response.getValue().get("content"))));
+                }
+            });
+            operation.setResponses(responses);
+        }
+        return operation;
+    }
+
+    private Parameter readParameter(JsonNode node) {
+        rejectRef(node, "a referenced parameter");
+        Parameter parameter = new Parameter();
+        parameter.setName(textOrNull(node, "name"));
+        parameter.setIn(textOrNull(node, "in"));
+        parameter.setDescription(textOrNull(node, "description"));
+        if (node.has("required")) {
+            parameter.setRequired(node.get("required").asBoolean());
+        }
+        return parameter;
+    }
+
+    // Only the JSON media type is consulted; other media types are skipped without reading their schemas
+    private Content readContent(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return null;
+        }
+        Content content = new Content();
+        JsonNode json = node.get("application/json");
+        if (json != null) {
+            MediaType mediaType = new MediaType();
+            if (json.has("schema")) {
+                mediaType.setSchema(readSchema(json.get("schema")));
+            }
+            content.addMediaType("application/json", mediaType);
+        }
+        return content;
+    }
+
+    private Schema<?> readSchema(JsonNode node) {
+        for (String keyword : COMPOSITION_KEYWORDS) {
+            if (node.has(keyword)) {
+                throw new UnsupportedConstructException("a composed schema (" + keyword + ")");
+            }
+        }
+        if (node.has("$ref")) {
+            String ref = node.get("$ref").asText();
+            if (!ref.startsWith(SchemaFlattener.COMPONENT_SCHEMA_PREFIX)) {
+                throw new UnsupportedConstructException("the reference " + ref);
+            }
+            Schema<?> schema = new Schema<>();
+            schema.set$ref(ref); // Siblings of $ref are ignored in OpenAPI 3.0
+            return schema;
+        }
+
+        String type = textOrNull(node, "type");
+        Schema<?> schema;
+        if ("array".equals(type) || node.has("items")) {
+            ArraySchema arraySchema = new ArraySchema();
+            if (node.has("items")) {
+                arraySchema.setItems(readSchema(node.get("items")));
+            }
+            schema = arraySchema;
+        } else {
+            schema = new Schema<>();
+            schema.setType(type);
+        }
+
+        JsonNode propertiesNode = node.get("properties");
+        if (propertiesNode != null && propertiesNode.isObject()) {
+            schema.setProperties(new LinkedHashMap<>());
+            for (Map.Entry<String, JsonNode> property : propertiesNode.properties()) {
+                schema.addProperty(property.getKey(), readSchema(property.getValue()));
+            }
+        }
+
+        JsonNode requiredNode = node.get("required");
+        if (requiredNode != null && requiredNode.isArray()) {
+            List<String> required = new ArrayList<>();
+            requiredNode.forEach(name -> required.add(name.asText()));
+            schema.setRequired(required);
+        }
+        return schema;
+    }
+
+    private static void rejectRef(JsonNode node, String construct) {
+        if (node.has("$ref")) {
+            throw new UnsupportedConstructException(construct);
+        }
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && value.isValueNode() ? value.asText() : null;
+    }
+
+    // Signals a construct outside the fast path; the message names the construct for logging
+    private static class UnsupportedConstructException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedConstructException(String construct) {
+            super(construct, null, false, false); // Control flow only; no stack trace needed
+        }
+    }
+}
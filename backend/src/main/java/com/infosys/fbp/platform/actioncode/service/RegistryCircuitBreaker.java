@@ -0,0 +1,65 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Consecutive-failure circuit breaker for one registry host.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and requests fail fast for
+ * {@code openDuration}. Then a single trial request is let through (half-open): success closes the
+ * circuit, failure opens it again for another {@code openDuration}.
+ */
+class RegistryCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    RegistryCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Whether a request may be sent now. Moves an expired open circuit to half-open and admits
+     * exactly one trial request.
+     */
+    synchronized boolean tryAcquire(Instant now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (openedAt.plus(openDuration).isAfter(now)) {
+                    return false;
+                }
+                state = State.HALF_OPEN; // This caller sends the trial request
+                return true;
+            default:
+                return false; // A trial request is already in flight
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure(Instant now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,25 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import java.net.URI;
+
+/**
+ * A document (manifest or schema) fetched from the spec registry, together with the
+ * validators needed to revalidate it and a hash of its content.
+ *
+ * @param uri          the URI the document was fetched from.
+ * @param body         the raw document content.
+ * @param etag         the ETag returned by the registry, or {@code null} if none.
+ * @param lastModified the Last-Modified header returned by the registry, or {@code null} if none.
+ * @param contentHash  hex SHA-256 of the body, used to key parse caches.
+ * @param notModified  whether the last fetch was answered with 304 Not Modified.
+ */
+public record RegistryDocument(URI uri, String body, String etag, String lastModified,
+                               String contentHash, boolean notModified) {
+
+    /**
+     * Returns a copy of this document flagged as revalidated by a 304 response.
+     */
+    public RegistryDocument asNotModified() {
+        return new RegistryDocument(uri, body, etag, lastModified, contentHash, true);
+    }
+}
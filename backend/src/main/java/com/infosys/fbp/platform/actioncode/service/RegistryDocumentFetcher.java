@@ -0,0 +1,197 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fetches manifest and schema documents from the spec registry using conditional requests.
+ * <p>
+ * The last response for every URI is remembered. Subsequent fetches send {@code If-None-Match}
+ * and {@code If-Modified-Since}, and a {@code 304 Not Modified} answer is served from memory.
+ * Validators restored from a catalog snapshot carry no body; a 304 for such a document returns
+ * it without a body, and callers that need the content use {@link #fetchUnconditionally(URI)}.
+ * <p>
+ * Each registry host has a {@link RegistryCircuitBreaker}: after repeated connection failures or
+ * 5xx responses, fetches to that host fail fast with {@link ResourceAccessException} until a trial
+ * request succeeds again.
+ * <p>
+ * Conditional fetches are single-flight per URI: concurrent callers for a document whose request is
+ * still running wait for that response instead of sending their own. Unconditional fetches always
+ * send a request, which hedged attempts rely on.
+ */
+@Component
+@ConditionalOnProperty(name = "manifest.source", havingValue = "http", matchIfMissing = true)
+@Slf4j
+public class RegistryDocumentFetcher implements SchemaSource {
+
+    private final RestTemplate restTemplate;
+    private final Map<URI, RegistryDocument> documentCache = new ConcurrentHashMap<>();
+    private final Map<URI, CompletableFuture<RegistryDocument>> inFlight = new ConcurrentHashMap<>(); // Conditional fetches being sent
+    private final Map<String, RegistryCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>(); // By host:port
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    @Autowired
+    public RegistryDocumentFetcher(RestTemplate restTemplate,
+                                   @Value("${registry.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                   @Value("${registry.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.restTemplate = restTemplate;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Fetches a document, revalidating any previously fetched copy.
+     *
+     * @param uri the document URI.
+     * @return the current document, or {@code null} if the registry returned an empty body.
+     * @throws RestClientException if the request fails.
+     */
+    @Override
+    public RegistryDocument fetch(URI uri) {
+        CompletableFuture<RegistryDocument> request = new CompletableFuture<>();
+        CompletableFuture<RegistryDocument> existing = inFlight.putIfAbsent(uri, request);
+        if (existing != null) {
+            log.debug("Request for {} already in flight; sharing its response.", uri);
+            return await(existing);
+        }
+        try {
+            request.complete(fetch(uri, documentCache.get(uri)));
+        } catch (RuntimeException e) {
+            request.completeExceptionally(e);
+        } finally {
+            inFlight.remove(uri, request);
+        }
+        return await(request);
+    }
+
+    // Rethrows the shared request's failure as-is, so every caller sees the same RestClientException
+    private static RegistryDocument await(CompletableFuture<RegistryDocument> request) {
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches a document without sending validators, e.g. when only validators (no body) are known.
+     *
+     * @param uri the document URI.
+     * @return the current document, or {@code null} if the registry returned an empty body.
+     * @throws RestClientException if the request fails.
+     */
+    @Override
+    public RegistryDocument fetchUnconditionally(URI uri) {
+        return fetch(uri, null);
+    }
+
+    private RegistryDocument fetch(URI uri, RegistryDocument cached) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null) {
+            if (cached.etag() != null) {
+                headers.setIfNoneMatch(cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+            }
+        }
+
+        RegistryCircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(hostKey(uri),
+                host -> new RegistryCircuitBreaker(failureThreshold, openDuration));
+        if (!circuitBreaker.tryAcquire(Instant.now())) {
+            throw new ResourceAccessException("Circuit open for registry host " + hostKey(uri) + "; not fetching " + uri);
+        }
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            circuitBreaker.onSuccess();
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // The host is unreachable or failing; client errors (4xx) prove it is up and do not count
+            circuitBreaker.onFailure(Instant.now());
+            if (circuitBreaker.getState() == RegistryCircuitBreaker.State.OPEN) {
+                log.warn("Opened circuit for registry host {} after repeated failures", hostKey(uri));
+            }
+            throw e;
+        } catch (RestClientException e) {
+            circuitBreaker.onSuccess();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // Anything else, e.g. from a converter or interceptor, still settles the call, so a half-open
+            // circuit whose trial request this was does not wait for a result forever
+            circuitBreaker.onFailure(Instant.now());
+            throw e;
+        }
+
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+            log.debug("Document at {} not modified; using cached copy.", uri);
+            return cached.asNotModified();
+        }
+        if (response.getBody() == null) {
+            return null;
+        }
+
+        RegistryDocument document = new RegistryDocument(uri, response.getBody(),
+                response.getHeaders().getETag(),
+                response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                ContentHashes.sha256(response.getBody()), false);
+        documentCache.put(uri, document);
+        return document;
+    }
+
+    /**
+     * Returns the validators of every remembered document, without bodies, for persisting in a snapshot.
+     */
+    @Override
+    public List<RegistryDocument> getValidators() {
+        return documentCache.values().stream()
+                .map(document -> new RegistryDocument(document.uri(), null, document.etag(),
+                        document.lastModified(), document.contentHash(), false))
+                .toList();
+    }
+
+    /**
+     * Seeds validators restored from a snapshot. Documents fetched since startup are kept.
+     */
+    @Override
+    public void restoreValidators(List<RegistryDocument> documents) {
+        documents.forEach(document -> documentCache.putIfAbsent(document.uri(), document));
+    }
+
+    /**
+     * Forgets every remembered document so the next fetches are unconditional, and closes every circuit.
+     */
+    @Override
+    public void clear() {
+        documentCache.clear();
+        circuitBreakers.clear();
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getHost() + ":" + uri.getPort();
+    }
+}
@@ -0,0 +1,266 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flattens request/response schemas of one OpenAPI document into leaf columns.
+ * <p>
+ * Every named component schema ({@code #/components/schemas/*}) is flattened once into a
+ * fragment of columns relative to where it is referenced, and re-prefixed on each further use,
+ * so the cost scales with the number of distinct schemas rather than the number of reference paths.
+ * <p>
+ * Recursion is bounded per cycle of the {@code $ref} graph (a strongly connected set of components):
+ * entering a cycle allows {@code maxRefDepth - 1} further references within it below that point, after
+ * which the next one is cut, however many components the cycle has. A self-referencing component is
+ * thus expanded {@code maxRefDepth} times, while mutually referencing components expand to a number of
+ * columns bounded by their fan-out to the power {@code maxRefDepth}, not by the number of paths through
+ * the cycle. What a component expands to then only depends on the references it may still follow, so
+ * fragments are memoized per component and remaining references, recursive ones included.
+ * <p>
+ * Instances are per document and not thread-safe.
+ */
+@Slf4j
+class SchemaFlattener {
+
+    static final String COMPONENT_SCHEMA_PREFIX = "#/components/schemas/";
+
+    /**
+     * A leaf column found while flattening.
+     *
+     * @param parentPath path of the parent object relative to the flattening root, e.g. "" or ":details".
+     * @param name       the property name.
+     * @param mandatory  whether the property is listed as required by its parent.
+     */
+    record FlatColumn(String parentPath, String name, boolean mandatory) {}
+
+    private final OpenAPI openAPI;
+    private final int maxRefDepth;
+    private final Map<String, List<FlatColumn>> fragments = new HashMap<>(); // "name#remaining references" -> memoized columns
+    private Map<String, Integer> cycles; // Component name -> its cycle in the $ref graph; computed on first use
+    private String expandingComponent; // Innermost component being expanded, or null at the root
+    private int remainingRefs; // References within the expanding component's cycle still allowed below this point
+
+    SchemaFlattener(OpenAPI openAPI, int maxRefDepth) {
+        this.openAPI = openAPI;
+        this.maxRefDepth = Math.max(1, maxRefDepth);
+    }
+
+    /**
+     * Flattens the given root data schema into leaf columns with paths relative to the root.
+     */
+    List<FlatColumn> flatten(Schema<?> root) {
+        List<FlatColumn> columns = new ArrayList<>();
+        if (root != null) {
+            flatten(root, "", root.getRequired(), columns);
+        }
+        return columns;
+    }
+
+    // Helper to find a schema by its $ref (#/components/schemas/SchemaName)
+    Schema<?> findSchemaByRef(String ref) {
+        if (ref == null || !ref.startsWith(COMPONENT_SCHEMA_PREFIX)) {
+            log.warn("Invalid or unsupported schema reference format: {}", ref);
+            return null;
+        }
+        String schemaName = ref.substring(COMPONENT_SCHEMA_PREFIX.length());
+        if (openAPI.getComponents() == null || openAPI.getComponents().getSchemas() == null) {
+             log.warn("No components/schemas found in the OpenAPI document to resolve ref: {}", ref);
+            return null;
+        }
+        Schema<?> resolved = openAPI.getComponents().getSchemas().get(schemaName);
+         if (resolved == null) {
+             log.warn("Schema not found for reference: {}", ref);
+         }
+         return resolved;
+    }
+
+    private void flatten(Schema<?> schema, String currentPath, List<String> parentRequired, List<FlatColumn> columns) {
+        if (schema == null) return;
+
+        // Resolve $ref through the memoized component fragments
+        if (schema.get$ref() != null) {
+            expandRef(schema.get$ref(), currentPath, columns);
+            return; // Stop processing the $ref schema itself
+        }
+
+        if (schema.getProperties() != null) {
+            List<String> required = parentRequired != null ? parentRequired : Collections.emptyList();
+            schema.getProperties().forEach((propertyName, propertySchema) -> {
+                String newPath = currentPath + ":" + propertyName;
+                boolean isMandatory = required.contains(propertyName);
+
+                // Resolve property schema ref if needed
+                Schema<?> actualPropertySchema = propertySchema;
+                if (propertySchema.get$ref() != null) {
+                    actualPropertySchema = findSchemaByRef(propertySchema.get$ref());
+                    if (actualPropertySchema == null) {
+                        log.warn("Could not resolve property schema reference: {}", propertySchema.get$ref());
+                        return; // Skip this property if ref cannot be resolved
+                    }
+                }
+
+                if (actualPropertySchema instanceof ArraySchema) {
+                    // If it's an array, recurse on its items schema
+                    Schema<?> itemsSchema = ((ArraySchema) actualPropertySchema).getItems();
+                    if (itemsSchema != null) {
+                        flatten(itemsSchema, newPath, itemsSchema.getRequired(), columns);
+                    }
+                } else if (actualPropertySchema.getProperties() != null || actualPropertySchema.get$ref() != null) {
+                    // If it's an object (or a ref that resolves to one), recurse
+                    if (propertySchema.get$ref() != null) {
+                        expandRef(propertySchema.get$ref(), newPath, columns); // Named component: reuse its fragment
+                    } else {
+                        flatten(actualPropertySchema, newPath, actualPropertySchema.getRequired(), columns);
+                    }
+                } else {
+                    // Basic type, add a leaf column under the parent path
+                    columns.add(new FlatColumn(currentPath, propertyName, isMandatory));
+                }
+            });
+        }
+        // Handle cases where the schema itself is an array (e.g., request body is List<String>)
+        else if (schema instanceof ArraySchema) {
+            Schema<?> itemsSchema = ((ArraySchema) schema).getItems();
+            if (itemsSchema != null) {
+                // Recurse on items, path remains the same conceptually for the items within the root array
+                flatten(itemsSchema, currentPath, itemsSchema.getRequired(), columns);
+            }
+        }
+        // Potentially handle other schema types if necessary
+    }
+
+    // Appends the columns of a referenced component, re-prefixed with the path it is referenced from
+    private void expandRef(String ref, String currentPath, List<FlatColumn> columns) {
+        String name = componentName(ref);
+
+        int refs;
+        if (expandingComponent != null && sameCycle(expandingComponent, name)) {
+            if (remainingRefs == 0) {
+                log.debug("Cutting recursive schema reference {} at path {}", ref, currentPath);
+                return;
+            }
+            refs = remainingRefs - 1;
+        } else {
+            refs = maxRefDepth - 1; // Entering a cycle (or an acyclic component) from outside
+        }
+        String key = name + "#" + refs;
+        List<FlatColumn> fragment = fragments.get(key);
+        if (fragment == null) {
+            Schema<?> resolvedSchema = findSchemaByRef(ref);
+            if (resolvedSchema == null) {
+                log.warn("Could not resolve schema reference: {}", ref);
+                return;
+            }
+
+            String outerComponent = expandingComponent;
+            int outerRefs = remainingRefs;
+            expandingComponent = name;
+            remainingRefs = refs;
+            fragment = new ArrayList<>();
+            try {
+                // Use the resolved schema's required list if it exists
+                flatten(resolvedSchema, "", resolvedSchema.getRequired(), fragment);
+            } finally {
+                expandingComponent = outerComponent;
+                remainingRefs = outerRefs;
+            }
+            fragments.put(key, fragment);
+        }
+
+        if (currentPath.isEmpty()) {
+            columns.addAll(fragment);
+        } else {
+            fragment.forEach(column -> columns.add(
+                    new FlatColumn(currentPath + column.parentPath(), column.name(), column.mandatory())));
+        }
+    }
+
+    private boolean sameCycle(String component, String other) {
+        if (cycles == null) {
+            cycles = findCycles();
+        }
+        Integer cycle = cycles.get(component);
+        return cycle != null && cycle.equals(cycles.get(other));
+    }
+
+    // Strongly connected components of the $ref graph between component schemas (Tarjan's algorithm)
+    private Map<String, Integer> findCycles() {
+        Map<String, Set<String>> references = new HashMap<>();
+        if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
+            openAPI.getComponents().getSchemas().forEach((name, schema) -> {
+                Set<String> targets = new LinkedHashSet<>();
+                collectRefs(schema, targets);
+                references.put(name, targets);
+            });
+        }
+        Map<String, Integer> cycleOf = new HashMap<>();
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Deque<String> stack = new ArrayDeque<>();
+        for (String name : references.keySet()) {
+            if (!index.containsKey(name)) {
+                connect(name, references, index, lowLink, stack, cycleOf);
+            }
+        }
+        return cycleOf;
+    }
+
+    private static void connect(String name, Map<String, Set<String>> references, Map<String, Integer> index,
+                                Map<String, Integer> lowLink, Deque<String> stack, Map<String, Integer> cycleOf) {
+        index.put(name, index.size());
+        lowLink.put(name, index.get(name));
+        stack.push(name);
+        for (String target : references.getOrDefault(name, Set.of())) {
+            if (!references.containsKey(target)) {
+                continue; // Unresolvable; reported when expanded
+            }
+            if (!index.containsKey(target)) {
+                connect(target, references, index, lowLink, stack, cycleOf);
+                lowLink.put(name, Math.min(lowLink.get(name), lowLink.get(target)));
+            } else if (!cycleOf.containsKey(target)) { // Still on the stack
+                lowLink.put(name, Math.min(lowLink.get(name), index.get(target)));
+            }
+        }
+        if (lowLink.get(name).equals(index.get(name))) {
+            int cycle = index.get(name);
+            String member;
+            do {
+                member = stack.pop();
+                cycleOf.put(member, cycle);
+            } while (!member.equals(name));
+        }
+    }
+
+    // The components a schema references, following the same properties and items that flatten() does
+    private static void collectRefs(Schema<?> schema, Set<String> targets) {
+        if (schema == null) {
+            return;
+        }
+        if (schema.get$ref() != null) {
+            targets.add(componentName(schema.get$ref()));
+            return;
+        }
+        if (schema.getProperties() != null) {
+            schema.getProperties().values().forEach(property -> collectRefs(property, targets));
+        } else if (schema instanceof ArraySchema arraySchema) {
+            collectRefs(arraySchema.getItems(), targets);
+        }
+    }
+
+    private static String componentName(String ref) {
+        return ref.startsWith(COMPONENT_SCHEMA_PREFIX) ? ref.substring(COMPONENT_SCHEMA_PREFIX.length()) : ref;
+    }
+}
@@ -0,0 +1,53 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Where {@link ActionCodeService} reads the manifest and schema documents from.
+ * <p>
+ * The source is selected with {@code manifest.source}: {@code http} (default) fetches from the spec
+ * registry at {@code manifest.base.url} ({@link RegistryDocumentFetcher}); {@code filesystem} reads a
+ * local directory given as a {@code file:} base URL ({@link FileSystemSchemaSource}).
+ * <p>
+ * Sources remember the last copy of every document and report unchanged documents as not modified,
+ * so derived schemas are reused without re-parsing.
+ */
+public interface SchemaSource {
+
+    /**
+     * Reads a document, revalidating any previously read copy.
+     *
+     * @param uri the document URI.
+     * @return the current document, or {@code null} if it is empty.
+     * @throws RestClientException if the document cannot be read.
+     */
+    RegistryDocument fetch(URI uri);
+
+    /**
+     * Reads a document ignoring any remembered validators, e.g. when only validators (no body) are known.
+     * Never shares a read already in flight, so it can be used to hedge a slow one.
+     *
+     * @param uri the document URI.
+     * @return the current document, or {@code null} if it is empty.
+     * @throws RestClientException if the document cannot be read.
+     */
+    RegistryDocument fetchUnconditionally(URI uri);
+
+    /**
+     * Returns the validators of every remembered document, without bodies, for persisting in a snapshot.
+     */
+    List<RegistryDocument> getValidators();
+
+    /**
+     * Seeds validators restored from a snapshot. Documents read since startup are kept.
+     */
+    void restoreValidators(List<RegistryDocument> documents);
+
+    /**
+     * Forgets every remembered document so the next reads are unconditional.
+     */
+    void clear();
+}
@@ -0,0 +1,12 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import java.net.URI;
+import java.util.Set;
+
+/**
+ * Published by a {@link SchemaSource} that watches its documents when some of them were created,
+ * modified or deleted, so the catalog re-ingests just those.
+ *
+ * @param changedUris URIs of the changed documents, resolved the same way as manifest schema paths.
+ */
+public record SchemaSourceChangedEvent(Set<URI> changedUris) {}
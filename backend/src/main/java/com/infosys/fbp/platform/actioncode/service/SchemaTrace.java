@@ -0,0 +1,30 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+/**
+ * Measurements of one attempt at ingesting a manifest entry, filled in as the attempt proceeds
+ * and turned into an {@link ActionTrace} when the build completes. Each attempt (including a
+ * hedged one) has its own instance, written by the single thread running it.
+ */
+final class SchemaTrace {
+
+    final boolean hedged;
+    long fetchNanos;
+    long fetchBytes;
+    boolean notModified;
+    long parseNanos;
+    long flattenNanos;
+    String parser; // Null unless this attempt parsed the document
+    boolean reusedDerivation; // Templates came from the content hash cache
+    String skipReason;
+    String failReason;
+
+    SchemaTrace(boolean hedged) {
+        this.hedged = hedged;
+    }
+
+    static SchemaTrace failed(String reason) {
+        SchemaTrace trace = new SchemaTrace(false);
+        trace.failReason = reason;
+        return trace;
+    }
+}
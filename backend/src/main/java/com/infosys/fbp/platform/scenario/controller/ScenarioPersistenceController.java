@@ -1,7 +1,9 @@
 package com.infosys.fbp.platform.scenario.controller;
 
 import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchDto;
 import com.infosys.fbp.platform.scenario.service.ScenarioPersistenceService;
+import com.infosys.fbp.platform.scenario.service.ScenarioVersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -77,6 +79,35 @@ public class ScenarioPersistenceController {
                  .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Scenario not found with ID: " + scenarioId)); // If not present, throw 404
     }
 
+    /**
+     * Applies an edit to a stored scenario without re-sending it: step operations (insert, move, delete)
+     * and grid operations (set a cell, insert or delete rows), made against the version the client last
+     * saw. The operations are applied atomically.
+     *
+     * @param scenarioId The ID of the scenario to patch, passed as a path variable.
+     * @param patch      The base version and the operations, in order.
+     * @return The scenario ID and its new version; 400 for an invalid patch, 404 for an unknown scenario,
+     *         or 409 with the current version if the scenario changed since the base version.
+     */
+    @PatchMapping("/patch/{scenarioId}")
+    public ResponseEntity<?> patchScenario(@PathVariable String scenarioId, @RequestBody ScenarioPatchDto patch) {
+        if (patch.getBaseVersion() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "baseVersion is required"));
+        }
+        Optional<Long> version;
+        try {
+            version = persistenceService.patchScenario(scenarioId, patch);
+        } catch (ScenarioVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                                 .body(Map.of("error", e.getMessage(), "currentVersion", e.getCurrentVersion()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return version
+                .map(newVersion -> ResponseEntity.ok(Map.of("scenarioId", scenarioId, "version", newVersion)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Scenario not found with ID: " + scenarioId));
+    }
+
     /**
      * Retrieves all currently stored scenarios.
      *
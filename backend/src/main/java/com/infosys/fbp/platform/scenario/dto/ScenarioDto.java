@@ -32,4 +32,14 @@ public class ScenarioDto {
      */
     private List<ScenarioStepDto> steps;
 
+    /**
+     * Assigned by the server on every save or patch; a patch names the version it was made against.
+     * Null until the scenario is first saved.
+     */
+    private Long version;
+
+    public ScenarioDto(String scenarioId, String scenarioName, List<ScenarioStepDto> steps) {
+        this(scenarioId, scenarioName, steps, null);
+    }
+
 }
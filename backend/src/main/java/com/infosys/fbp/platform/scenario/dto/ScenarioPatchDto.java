@@ -0,0 +1,29 @@
+package com.infosys.fbp.platform.scenario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An edit of a stored scenario, sent instead of the whole scenario. The operations are applied in order
+ * and atomically: either all of them are stored, as a new version, or none.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioPatchDto {
+
+    /**
+     * The version of the scenario the operations were made against. The patch is rejected if the
+     * scenario has been saved or patched since.
+     */
+    private Long baseVersion;
+
+    /**
+     * The operations, applied in order; step and row indexes refer to the scenario as left by the previous one.
+     */
+    private List<ScenarioPatchOperationDto> operations;
+
+}
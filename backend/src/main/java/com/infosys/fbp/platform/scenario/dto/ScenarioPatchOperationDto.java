@@ -0,0 +1,97 @@
+package com.infosys.fbp.platform.scenario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One operation of a {@link ScenarioPatchDto}. Which fields apply depends on {@link #op}:
+ * <ul>
+ *     <li>{@code insertStep}: {@link #step} at {@link #stepIndex} (appended if omitted),</li>
+ *     <li>{@code moveStep}: the step at {@link #stepIndex} to {@link #toIndex},</li>
+ *     <li>{@code deleteStep}: the step at {@link #stepIndex},</li>
+ *     <li>{@code setCell}: {@link #column} of row {@link #rowIndex} of {@link #grid} in step {@link #stepIndex} to {@link #value},</li>
+ *     <li>{@code insertRows}: {@link #rows} at {@link #rowIndex} (appended if omitted) of {@link #grid} in step {@link #stepIndex},</li>
+ *     <li>{@code deleteRows}: {@link #count} rows (1 if omitted) from {@link #rowIndex} of {@link #grid} in step {@link #stepIndex}.</li>
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioPatchOperationDto {
+
+    private String op;
+
+    private Integer stepIndex;
+
+    private Integer toIndex;
+
+    private ScenarioStepDto step;
+
+    /**
+     * The grid of the step: {@code params}, {@code request} or {@code response}.
+     */
+    private String grid;
+
+    private Integer rowIndex;
+
+    private Integer count;
+
+    private String column;
+
+    private String value;
+
+    private List<Map<String, String>> rows;
+
+    public static ScenarioPatchOperationDto insertStep(Integer stepIndex, ScenarioStepDto step) {
+        ScenarioPatchOperationDto operation = of("insertStep", stepIndex);
+        operation.setStep(step);
+        return operation;
+    }
+
+    public static ScenarioPatchOperationDto moveStep(int stepIndex, int toIndex) {
+        ScenarioPatchOperationDto operation = of("moveStep", stepIndex);
+        operation.setToIndex(toIndex);
+        return operation;
+    }
+
+    public static ScenarioPatchOperationDto deleteStep(int stepIndex) {
+        return of("deleteStep", stepIndex);
+    }
+
+    public static ScenarioPatchOperationDto setCell(int stepIndex, String grid, int rowIndex, String column, String value) {
+        ScenarioPatchOperationDto operation = of("setCell", stepIndex);
+        operation.setGrid(grid);
+        operation.setRowIndex(rowIndex);
+        operation.setColumn(column);
+        operation.setValue(value);
+        return operation;
+    }
+
+    public static ScenarioPatchOperationDto insertRows(int stepIndex, String grid, Integer rowIndex, List<Map<String, String>> rows) {
+        ScenarioPatchOperationDto operation = of("insertRows", stepIndex);
+        operation.setGrid(grid);
+        operation.setRowIndex(rowIndex);
+        operation.setRows(rows);
+        return operation;
+    }
+
+    public static ScenarioPatchOperationDto deleteRows(int stepIndex, String grid, int rowIndex, int count) {
+        ScenarioPatchOperationDto operation = of("deleteRows", stepIndex);
+        operation.setGrid(grid);
+        operation.setRowIndex(rowIndex);
+        operation.setCount(count);
+        return operation;
+    }
+
+    private static ScenarioPatchOperationDto of(String op, Integer stepIndex) {
+        ScenarioPatchOperationDto operation = new ScenarioPatchOperationDto();
+        operation.setOp(op);
+        operation.setStepIndex(stepIndex);
+        return operation;
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A step grid (rows of column name to cell value) stored column by column: one array of cell values per
+ * column instead of a map, with its entries, per row.
+ * <p>
+ * Column names are dictionary-encoded: a grid refers to a shared {@link ColumnLayout}, the ordered
+ * attribute paths of its action, so the grids of every step of the same action share one set of names.
+ * Repeated cell values are interned per scenario by the caller's value pool.
+ * <p>
+ * The layout is inferred from the rows rather than taken from the action catalog: grids may hold columns
+ * the catalog does not list (or no longer lists), and rows must come back with their keys in the saved
+ * order. It merges the column order of all rows, so sparse rows that skip columns still share the layout
+ * of the full ones. Grids that cannot be rebuilt exactly from columns (null rows, or rows listing two
+ * columns in opposite orders) are kept as copies of the given rows.
+ */
+final class ColumnarGrid {
+
+    // Marks a column a row has no cell for, as opposed to a cell holding null
+    private static final String ABSENT = new String("absent");
+
+    private static final Map<ColumnLayout, WeakReference<ColumnLayout>> LAYOUTS = new WeakHashMap<>();
+
+    private final ColumnLayout layout;
+    private final String[][] columns;
+    private final int rowCount;
+    private final List<Map<String, String>> rows;
+
+    private ColumnarGrid(ColumnLayout layout, String[][] columns, int rowCount, List<Map<String, String>> rows) {
+        this.layout = layout;
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.rows = rows;
+    }
+
+    /**
+     * @param values pool of the cell values of the scenario being encoded, mapping each value to its shared copy.
+     * @return the encoded grid, or null for a null grid.
+     */
+    static ColumnarGrid encode(List<Map<String, String>> rows, Map<String, String> values) {
+        if (rows == null) {
+            return null;
+        }
+        // Every row's columns must appear in the layout in the row's order: consecutive columns of a row are
+        // edges 'must precede', and the layout is a topological order of them, preferring first appearance
+        List<String> seen = new ArrayList<>();
+        Map<String, Integer> seenIndexes = new HashMap<>();
+        List<Set<Integer>> successors = new ArrayList<>();
+        List<Integer> predecessorCounts = new ArrayList<>();
+        for (Map<String, String> row : rows) {
+            if (row == null) {
+                return new ColumnarGrid(null, null, rows.size(), copy(rows));
+            }
+            int previous = -1;
+            for (String name : row.keySet()) {
+                Integer index = seenIndexes.get(name);
+                if (index == null) {
+                    index = seen.size();
+                    seenIndexes.put(name, index);
+                    seen.add(name);
+                    successors.add(new HashSet<>());
+                    predecessorCounts.add(0);
+                }
+                if (previous >= 0 && successors.get(previous).add(index)) {
+                    predecessorCounts.set(index, predecessorCounts.get(index) + 1);
+                }
+                previous = index;
+            }
+        }
+        List<String> names = new ArrayList<>(seen.size());
+        Map<String, Integer> indexes = new HashMap<>();
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int index = 0; index < seen.size(); index++) {
+            if (predecessorCounts.get(index) == 0) {
+                ready.add(index);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int index = ready.poll();
+            indexes.put(seen.get(index), names.size());
+            names.add(seen.get(index));
+            for (int successor : successors.get(index)) {
+                int remaining = predecessorCounts.get(successor) - 1;
+                predecessorCounts.set(successor, remaining);
+                if (remaining == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        if (names.size() < seen.size()) {
+            return new ColumnarGrid(null, null, rows.size(), copy(rows)); // Rows order some columns both ways
+        }
+
+        String[][] columns = new String[names.size()][rows.size()];
+        for (String[] column : columns) {
+            Arrays.fill(column, ABSENT);
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            for (Map.Entry<String, String> cell : rows.get(row).entrySet()) {
+                String value = cell.getValue();
+                columns[indexes.get(cell.getKey())][row] = value == null ? null : values.computeIfAbsent(value, v -> v);
+            }
+        }
+        return new ColumnarGrid(layout(names), columns, rows.size(), null);
+    }
+
+    /**
+     * Rebuilds the rows, as fresh maps that keep the column order of the saved rows.
+     */
+    List<Map<String, String>> toRows() {
+        if (rows != null) {
+            return copy(rows);
+        }
+        String[] names = layout.names();
+        List<Map<String, String>> result = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            Map<String, String> cells = new LinkedHashMap<>((int) (names.length / 0.75f) + 1);
+            for (int column = 0; column < names.length; column++) {
+                String value = columns[column][row];
+                if (value != ABSENT) {
+                    cells.put(names[column], value);
+                }
+            }
+            result.add(cells);
+        }
+        return result;
+    }
+
+    /**
+     * The rows of a grid that is not stored by column, or null.
+     */
+    List<Map<String, String>> rows() {
+        return rows;
+    }
+
+    /**
+     * Cell values by column, in {@link #columnNames()} order; null if the grid is kept as rows.
+     */
+    String[][] columns() {
+        return columns;
+    }
+
+    String[] columnNames() {
+        return layout != null ? layout.names() : null;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    static boolean isAbsent(String value) {
+        return value == ABSENT;
+    }
+
+    private static List<Map<String, String>> copy(List<Map<String, String>> rows) {
+        List<Map<String, String>> copy = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            copy.add(row == null ? null : new LinkedHashMap<>(row));
+        }
+        return copy;
+    }
+
+    // Returns the shared layout with these names, registering it if none is in use
+    private static ColumnLayout layout(List<String> names) {
+        ColumnLayout layout = new ColumnLayout(names.stream().map(String::intern).toArray(String[]::new));
+        synchronized (LAYOUTS) {
+            WeakReference<ColumnLayout> shared = LAYOUTS.get(layout);
+            ColumnLayout existing = shared != null ? shared.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            LAYOUTS.put(layout, new WeakReference<>(layout)); // Dropped once no grid uses it
+            return layout;
+        }
+    }
+
+    /**
+     * The ordered column names of a grid, typically the attribute paths of a step's action.
+     */
+    private record ColumnLayout(String[] names) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ColumnLayout layout && Arrays.equals(names, layout.names);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(names);
+        }
+    }
+}
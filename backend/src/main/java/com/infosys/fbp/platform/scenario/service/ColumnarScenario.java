@@ -0,0 +1,133 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How the in-memory stores keep a scenario: its step grids as {@link ColumnarGrid}s, with repeated cell
+ * values shared across the whole scenario. Immutable; {@link #toDto()} builds a fresh {@link ScenarioDto}
+ * for every load, so callers never see (or change) what is stored.
+ */
+final class ColumnarScenario {
+
+    private final String scenarioId;
+    private final String scenarioName;
+    private final Step[] steps;
+    private final Long version;
+    private final long weight;
+
+    private ColumnarScenario(String scenarioId, String scenarioName, Step[] steps, Long version) {
+        this.scenarioId = scenarioId;
+        this.scenarioName = scenarioName;
+        this.steps = steps;
+        this.version = version;
+        this.weight = ScenarioWeigher.weigh(this);
+    }
+
+    static ColumnarScenario encode(ScenarioDto scenario) {
+        List<ScenarioStepDto> steps = scenario.getSteps();
+        Step[] encoded = null;
+        if (steps != null) {
+            Map<String, String> values = new HashMap<>(); // Interns cell values within this scenario
+            encoded = new Step[steps.size()];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = encode(steps.get(i), values);
+            }
+        }
+        return new ColumnarScenario(scenario.getScenarioId(), scenario.getScenarioName(), encoded, scenario.getVersion());
+    }
+
+    ScenarioDto toDto() {
+        List<ScenarioStepDto> stepList = null;
+        if (steps != null) {
+            stepList = new ArrayList<>(steps.length);
+            for (Step step : steps) {
+                stepList.add(decode(step));
+            }
+        }
+        return new ScenarioDto(scenarioId, scenarioName, stepList, version);
+    }
+
+    /**
+     * This scenario with the operations applied, as {@code version}. Steps the operations do not edit are
+     * shared with this scenario rather than decoded and encoded again.
+     *
+     * @throws IllegalArgumentException if an operation does not apply.
+     */
+    ColumnarScenario patched(List<ScenarioPatchOperationDto> operations, long version) {
+        Map<String, String> values = new HashMap<>(); // Interns the cell values of the edited steps
+        List<Step> patched = ScenarioPatcher.apply(steps != null ? Arrays.asList(steps) : List.of(), operations,
+                ColumnarScenario::decode, step -> encode(step, values));
+        return new ColumnarScenario(scenarioId, scenarioName, patched.toArray(Step[]::new), version);
+    }
+
+    String scenarioId() {
+        return scenarioId;
+    }
+
+    String scenarioName() {
+        return scenarioName;
+    }
+
+    /**
+     * The steps in order, or null if the scenario was saved without a step list.
+     */
+    Step[] steps() {
+        return steps;
+    }
+
+    /**
+     * The version the scenario was saved as; null if it was stored without one.
+     */
+    Long version() {
+        return version;
+    }
+
+    int stepCount() {
+        return steps == null ? 0 : steps.length;
+    }
+
+    /**
+     * Estimated heap bytes, computed once on encoding or patching.
+     */
+    long weight() {
+        return weight;
+    }
+
+    private static Step encode(ScenarioStepDto step, Map<String, String> values) {
+        return Step.of(step.getId(), step.getActionCode(), step.getBeforeDescription(), step.getAfterDescription(),
+                ColumnarGrid.encode(step.getStepParamsData(), values),
+                ColumnarGrid.encode(step.getStepRequestData(), values),
+                ColumnarGrid.encode(step.getStepResponseData(), values));
+    }
+
+    private static ScenarioStepDto decode(Step step) {
+        return new ScenarioStepDto(step.id(), step.actionCode(), step.beforeDescription(), step.afterDescription(),
+                toRows(step.params()), toRows(step.request()), toRows(step.response()));
+    }
+
+    private static List<Map<String, String>> toRows(ColumnarGrid grid) {
+        return grid == null ? null : grid.toRows();
+    }
+
+    /**
+     * One step; its estimated heap bytes are computed once, so a patched scenario is weighed without
+     * walking the grids of the steps it shares.
+     */
+    record Step(String id, String actionCode, String beforeDescription, String afterDescription,
+                ColumnarGrid params, ColumnarGrid request, ColumnarGrid response, long weight) {
+
+        static Step of(String id, String actionCode, String beforeDescription, String afterDescription,
+                       ColumnarGrid params, ColumnarGrid request, ColumnarGrid response) {
+            Step step = new Step(id, actionCode, beforeDescription, afterDescription, params, request, response, 0);
+            return new Step(id, actionCode, beforeDescription, afterDescription, params, request, response, ScenarioWeigher.weigh(step));
+        }
+    }
+}
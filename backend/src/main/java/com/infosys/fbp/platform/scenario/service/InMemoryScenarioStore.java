@@ -0,0 +1,381 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps scenarios on the heap; they are lost on restart. The default store ({@code scenario.store=memory}).
+ * Scenarios are held as {@link ColumnarScenario}s and only turned back into DTOs when loaded.
+ * <p>
+ * With a memory budget ({@code scenario.memory.max-size}) the heap only holds the most recently used
+ * scenarios, weighed by their estimated size (see {@link ScenarioWeigher}). Past the budget the least
+ * recently used ones are spilled as gzip-compressed JSON to a local directory and faulted back in on
+ * their next load, so heap use stays flat however many scenarios are stored. Spilled files are scratch
+ * space: they are cleared on startup like the rest of the store.
+ * <p>
+ * The lock only guards the bookkeeping; spill files are written and read outside it, so a slow disk
+ * only delays the operations that need the disk. A scenario being spilled stays loadable from the
+ * heap until its file is written, and every spill gets a file of its own, so a read that races a
+ * save, clear or another fault-in of the same scenario notices and retries instead of reading a
+ * file that is being replaced.
+ */
+@Component
+@ConditionalOnProperty(name = "scenario.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryScenarioStore implements ScenarioStore {
+
+    private final ObjectMapper objectMapper;
+    private final long maxWeight;
+    private final Path spillDirectory;
+    // Scenarios on the heap, least recently used first; all fields below are guarded by this map. Kept in
+    // insertion order and promoted explicitly on load and save, so lookups such as version() do not count as use
+    private final LinkedHashMap<String, ColumnarScenario> resident = new LinkedHashMap<>();
+    // Scenarios spilled (or being spilled) to disk, with what totals and version checks need so that those need no disk reads
+    private final Map<String, Spilled> spilled = new HashMap<>();
+    private long residentWeight;
+    private long stepCount;
+    private long spillSequence;
+
+    /**
+     * A store without a memory budget, which keeps every scenario on the heap.
+     */
+    public InMemoryScenarioStore() {
+        this(new ObjectMapper(), DataSize.ofBytes(0), null);
+    }
+
+    @Autowired
+    public InMemoryScenarioStore(ObjectMapper objectMapper,
+                                 @Value("${scenario.memory.max-size:0}") DataSize maxSize,
+                                 @Value("${scenario.memory.spill-directory:data/scenario-spill}") String spillDirectory) {
+        this.objectMapper = objectMapper;
+        this.maxWeight = maxSize.toBytes();
+        this.spillDirectory = spillDirectory != null ? Path.of(spillDirectory) : null;
+        if (maxWeight > 0) {
+            deleteSpilledFiles(); // Left over from the previous run
+        }
+    }
+
+    @Override
+    public void save(ScenarioDto scenario) {
+        String scenarioId = scenario.getScenarioId();
+        ColumnarScenario entry = ColumnarScenario.encode(scenario);
+        Spilled replaced;
+        List<Map.Entry<String, Spilled>> victims;
+        synchronized (resident) {
+            replaced = removeSpilled(scenarioId);
+            victims = admit(scenarioId, entry);
+        }
+        deleteSpilled(scenarioId, replaced);
+        spill(victims);
+    }
+
+    @Override
+    public Optional<ScenarioDto> load(String scenarioId) {
+        return Optional.ofNullable(faultIn(scenarioId)).map(ColumnarScenario::toDto);
+    }
+
+    @Override
+    public OptionalLong version(String scenarioId) {
+        synchronized (resident) {
+            Long version;
+            ColumnarScenario entry = resident.get(scenarioId);
+            if (entry != null) {
+                version = entry.version();
+            } else if (spilled.containsKey(scenarioId)) {
+                version = spilled.get(scenarioId).version();
+            } else {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(version != null ? version : 0);
+        }
+    }
+
+    /**
+     * Applies the operations to the stored columnar scenario, decoding and encoding only the steps they edit.
+     */
+    @Override
+    public void patch(String scenarioId, List<ScenarioPatchOperationDto> operations, long version) {
+        while (true) {
+            ColumnarScenario entry = faultIn(scenarioId);
+            if (entry == null) {
+                throw new IllegalStateException("No scenario stored with ID: " + scenarioId);
+            }
+            ColumnarScenario patched = entry.patched(operations, version); // Outside the lock; writes to one scenario are serialized by the caller
+            Spilled replaced = null;
+            List<Map.Entry<String, Spilled>> victims;
+            synchronized (resident) {
+                if (resident.get(scenarioId) != entry) {
+                    Spilled spilling = spilled.get(scenarioId);
+                    if (spilling == null || spilling.pending() != entry) {
+                        continue; // Spilled and written, or cleared, while being patched
+                    }
+                    replaced = removeSpilled(scenarioId); // Its writer deletes the file it is writing
+                }
+                victims = admit(scenarioId, patched);
+            }
+            deleteSpilled(scenarioId, replaced);
+            spill(victims);
+            return;
+        }
+    }
+
+    /**
+     * All stored scenarios. Spilled ones are read from disk without being faulted in, so listing does
+     * not evict the working set.
+     */
+    @Override
+    public Collection<ScenarioDto> loadAll() {
+        List<ColumnarScenario> onHeap;
+        List<Map.Entry<String, Spilled>> onDisk;
+        synchronized (resident) {
+            onHeap = new ArrayList<>(resident.values());
+            onDisk = new ArrayList<>(spilled.size());
+            spilled.forEach((scenarioId, spilledEntry) -> onDisk.add(Map.entry(scenarioId, spilledEntry)));
+        }
+        List<ScenarioDto> scenarios = new ArrayList<>(onHeap.size() + onDisk.size());
+        onHeap.forEach(entry -> scenarios.add(entry.toDto()));
+        for (Map.Entry<String, Spilled> spilledEntry : onDisk) {
+            ScenarioDto scenario = readSpilled(spilledEntry.getKey(), spilledEntry.getValue());
+            if (scenario != null) {
+                scenarios.add(scenario);
+            } else {
+                load(spilledEntry.getKey()).ifPresent(scenarios::add); // Faulted in, replaced or cleared meanwhile
+            }
+        }
+        return scenarios;
+    }
+
+    @Override
+    public int count() {
+        synchronized (resident) {
+            return resident.size() + spilled.size();
+        }
+    }
+
+    @Override
+    public long stepCount() {
+        synchronized (resident) {
+            return stepCount;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Map<String, Spilled> cleared;
+        synchronized (resident) {
+            resident.clear();
+            residentWeight = 0;
+            stepCount = 0;
+            cleared = new HashMap<>(spilled);
+            spilled.clear();
+        }
+        cleared.forEach(this::deleteSpilled);
+    }
+
+    /**
+     * Estimated bytes of the scenarios currently on the heap.
+     */
+    long residentWeight() {
+        synchronized (resident) {
+            return residentWeight;
+        }
+    }
+
+    // The scenario, read back onto the heap if it was spilled; null if none is stored
+    private ColumnarScenario faultIn(String scenarioId) {
+        while (true) {
+            Spilled spilledEntry;
+            synchronized (resident) {
+                ColumnarScenario entry = resident.remove(scenarioId);
+                if (entry != null) {
+                    resident.put(scenarioId, entry); // Now the most recently used
+                    return entry;
+                }
+                spilledEntry = spilled.get(scenarioId);
+                if (spilledEntry == null) {
+                    return null;
+                }
+                if (spilledEntry.pending() != null) {
+                    return spilledEntry.pending(); // Still being written; served from the heap without faulting in
+                }
+            }
+            ScenarioDto scenario = readSpilled(scenarioId, spilledEntry);
+            if (scenario == null) {
+                continue; // Replaced or faulted in by another thread while reading
+            }
+            ColumnarScenario entry = ColumnarScenario.encode(scenario);
+            List<Map.Entry<String, Spilled>> victims;
+            synchronized (resident) {
+                if (spilled.get(scenarioId) != spilledEntry) {
+                    continue;
+                }
+                removeSpilled(scenarioId);
+                victims = admit(scenarioId, entry);
+            }
+            deleteSpilled(scenarioId, spilledEntry);
+            spill(victims);
+            return entry;
+        }
+    }
+
+    // Called with the lock held
+    private Spilled removeSpilled(String scenarioId) {
+        Spilled removed = spilled.remove(scenarioId);
+        if (removed != null) {
+            stepCount -= removed.stepCount();
+        }
+        return removed;
+    }
+
+    // Called with the lock held: makes the scenario the most recently used one and picks the scenarios
+    // to spill to get back within the budget, which stay loadable from the heap until spill() writes them
+    private List<Map.Entry<String, Spilled>> admit(String scenarioId, ColumnarScenario entry) {
+        ColumnarScenario previous = resident.remove(scenarioId);
+        resident.put(scenarioId, entry);
+        residentWeight += entry.weight() - (previous != null ? previous.weight() : 0);
+        stepCount += entry.stepCount() - (previous != null ? previous.stepCount() : 0);
+        if (maxWeight <= 0 || residentWeight <= maxWeight) {
+            return List.of();
+        }
+        List<Map.Entry<String, Spilled>> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, ColumnarScenario>> leastRecentlyUsed = resident.entrySet().iterator();
+        while (residentWeight > maxWeight && resident.size() > 1) {
+            Map.Entry<String, ColumnarScenario> victim = leastRecentlyUsed.next();
+            ColumnarScenario evicted = victim.getValue();
+            leastRecentlyUsed.remove();
+            residentWeight -= evicted.weight();
+            Spilled spilling = new Spilled(++spillSequence, evicted.stepCount(), evicted.version(), evicted);
+            spilled.put(victim.getKey(), spilling);
+            victims.add(Map.entry(victim.getKey(), spilling));
+        }
+        return victims;
+    }
+
+    // Writes the picked scenarios to disk, without the lock
+    private void spill(List<Map.Entry<String, Spilled>> victims) {
+        for (Map.Entry<String, Spilled> victim : victims) {
+            String scenarioId = victim.getKey();
+            Spilled spilling = victim.getValue();
+            boolean written = write(scenarioId, spilling);
+            boolean current;
+            synchronized (resident) {
+                current = spilled.get(scenarioId) == spilling;
+                if (current && written) {
+                    spilled.put(scenarioId, spilling.written()); // Drops the heap copy
+                } else if (current) {
+                    // Kept on the heap, over budget, rather than lost
+                    spilled.remove(scenarioId);
+                    resident.put(scenarioId, spilling.pending());
+                    residentWeight += spilling.pending().weight();
+                }
+            }
+            if (written && !current) {
+                deleteFile(scenarioId, spilling); // Saved, patched, faulted in or cleared while being written
+            }
+        }
+    }
+
+    private boolean write(String scenarioId, Spilled spilling) {
+        try {
+            Files.createDirectories(spillDirectory);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(spillPath(scenarioId, spilling)))) {
+                objectMapper.writeValue(out, spilling.pending().toDto());
+            }
+            log.debug("Spilled scenario {} to disk", scenarioId);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not spill scenario {} to {}; keeping it on the heap", scenarioId, spillDirectory, e);
+            return false;
+        }
+    }
+
+    // The spilled scenario, or null if its file was already deleted because the scenario was replaced or faulted in
+    private ScenarioDto readSpilled(String scenarioId, Spilled spilledEntry) {
+        if (spilledEntry.pending() != null) {
+            return spilledEntry.pending().toDto();
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(spillPath(scenarioId, spilledEntry)))) {
+            return objectMapper.readValue(in, ScenarioDto.class);
+        } catch (IOException e) {
+            synchronized (resident) {
+                if (spilled.get(scenarioId) != spilledEntry) {
+                    return null;
+                }
+            }
+            throw new UncheckedIOException("Could not read spilled scenario " + scenarioId, e);
+        }
+    }
+
+    private void deleteSpilled(String scenarioId, Spilled spilledEntry) {
+        if (spilledEntry == null || spilledEntry.pending() != null) {
+            return; // Nothing on disk yet; whoever is writing it deletes it
+        }
+        deleteFile(scenarioId, spilledEntry);
+    }
+
+    private void deleteFile(String scenarioId, Spilled spilledEntry) {
+        try {
+            Files.deleteIfExists(spillPath(scenarioId, spilledEntry));
+        } catch (IOException e) {
+            log.warn("Could not delete spilled scenario {}", scenarioId, e); // Cleared on the next startup
+        }
+    }
+
+    private void deleteSpilledFiles() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".json.gz")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clear spilled scenarios in {}", spillDirectory, e);
+        }
+    }
+
+    // Scenario IDs are free text, so file names are derived from them rather than taken verbatim
+    private Path spillPath(String scenarioId, Spilled spilledEntry) {
+        return spillDirectory.resolve(UUID.nameUUIDFromBytes(scenarioId.getBytes(StandardCharsets.UTF_8))
+                + "-" + spilledEntry.sequence() + ".json.gz");
+    }
+
+    /**
+     * A spilled scenario: {@code pending} holds it until its file, numbered {@code sequence}, is written.
+     * Compared by identity, since a scenario may be spilled again with the same content.
+     */
+    private record Spilled(long sequence, int stepCount, Long version, ColumnarScenario pending) {
+
+        Spilled written() {
+            return new Spilled(sequence, stepCount, version, null);
+        }
+    }
+}
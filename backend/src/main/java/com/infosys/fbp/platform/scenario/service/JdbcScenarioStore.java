@@ -0,0 +1,273 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps scenarios in normalized tables (scenario, step, grid cell; see {@code db/scenario-schema.sql})
+ * of the application database, so they survive restarts when {@code spring.datasource.url} points at a
+ * file or server database. Enabled with {@code scenario.store=jdbc}.
+ * <p>
+ * A save replaces the scenario in one transaction: one delete (cascading to its steps and cells) and
+ * one batched insert per table, so a scenario with thousands of grid cells costs three round trips
+ * plus the delete. A load is a single query joining all three tables, ordered so that rows, cells
+ * and column order are rebuilt exactly as saved. Patches use the default load, patch and save.
+ * <p>
+ * {@link #count()} and {@link #stepCount()}, read on every metrics scrape, are counters taken from the
+ * tables at startup and moved by each committed save and clear, so scrapes cost no queries. They do not
+ * see writes by other application instances sharing the database until the next restart.
+ * <p>
+ * The store talks to the unwrapped {@code realDataSource}: statement-level SQL logging of the
+ * {@code DataSourceSpy} would otherwise log every batched cell and dominate save time.
+ */
+@Component
+@ConditionalOnProperty(name = "scenario.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcScenarioStore implements ScenarioStore {
+
+    static final int PARAMS_GRID = 0;
+    static final int REQUEST_GRID = 1;
+    static final int RESPONSE_GRID = 2;
+
+    private static final String INSERT_SCENARIO = "INSERT INTO scenario (scenario_id, scenario_name, step_count, version) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_STEP = "INSERT INTO scenario_step (scenario_id, position, step_id, action_code, "
+            + "before_description, after_description, params_rows, request_rows, response_rows) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CELL = "INSERT INTO scenario_cell (scenario_id, position, grid, row_index, column_index, "
+            + "column_name, cell_value) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_JOINED = "SELECT s.scenario_id, s.scenario_name, s.step_count, s.version, st.position, st.step_id, "
+            + "st.action_code, st.before_description, st.after_description, st.params_rows, st.request_rows, st.response_rows, "
+            + "c.grid, c.row_index, c.column_name, c.cell_value "
+            + "FROM scenario s "
+            + "LEFT JOIN scenario_step st ON st.scenario_id = s.scenario_id "
+            + "LEFT JOIN scenario_cell c ON c.scenario_id = st.scenario_id AND c.position = st.position ";
+    private static final String ORDER_JOINED = " ORDER BY s.scenario_id, st.position, c.grid, c.row_index, c.column_index";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger scenarioCount = new AtomicInteger();
+    private final AtomicLong stepTotal = new AtomicLong();
+
+    @Autowired
+    public JdbcScenarioStore(@Qualifier("realDataSource") DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Own transaction manager, since the application's one is bound to the wrapping DataSourceSpy
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        new ResourceDatabasePopulator(new ClassPathResource("db/scenario-schema.sql")).execute(dataSource);
+        Integer scenarios = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scenario", Integer.class);
+        Long storedSteps = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scenario_step", Long.class);
+        scenarioCount.set(scenarios != null ? scenarios : 0);
+        stepTotal.set(storedSteps != null ? storedSteps : 0);
+        log.info("Scenario store: {} scenarios in the database.", count());
+    }
+
+    @Override
+    public void save(ScenarioDto scenario) {
+        String scenarioId = scenario.getScenarioId();
+        List<ScenarioStepDto> steps = scenario.getSteps() != null ? scenario.getSteps() : List.of();
+        List<Cell> cells = cellsOf(steps);
+
+        // The replaced scenario's step count (null for a null step list), or no element if it is new
+        List<Integer> replaced = transactionTemplate.execute(status -> {
+            List<Integer> previous = jdbcTemplate.queryForList("SELECT step_count FROM scenario WHERE scenario_id = ?",
+                    Integer.class, scenarioId);
+            jdbcTemplate.update("DELETE FROM scenario WHERE scenario_id = ?", scenarioId);
+            jdbcTemplate.update(INSERT_SCENARIO, scenarioId, scenario.getScenarioName(),
+                    scenario.getSteps() != null ? scenario.getSteps().size() : null, scenario.getVersion());
+            jdbcTemplate.batchUpdate(INSERT_STEP, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int position) throws SQLException {
+                    ScenarioStepDto step = steps.get(position);
+                    statement.setString(1, scenarioId);
+                    statement.setInt(2, position);
+                    statement.setString(3, step.getId());
+                    statement.setString(4, step.getActionCode());
+                    statement.setString(5, step.getBeforeDescription());
+                    statement.setString(6, step.getAfterDescription());
+                    setRowCount(statement, 7, step.getStepParamsData());
+                    setRowCount(statement, 8, step.getStepRequestData());
+                    setRowCount(statement, 9, step.getStepResponseData());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return steps.size();
+                }
+            });
+            jdbcTemplate.batchUpdate(INSERT_CELL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int index) throws SQLException {
+                    Cell cell = cells.get(index);
+                    statement.setString(1, scenarioId);
+                    statement.setInt(2, cell.position());
+                    statement.setInt(3, cell.grid());
+                    statement.setInt(4, cell.row());
+                    statement.setInt(5, cell.column());
+                    statement.setString(6, cell.name());
+                    statement.setString(7, cell.value());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return cells.size();
+                }
+            });
+            return previous;
+        });
+        // Only counted once committed; a failed save leaves the counters as they were
+        if (replaced.isEmpty()) {
+            scenarioCount.incrementAndGet();
+        }
+        Integer replacedSteps = replaced.isEmpty() ? null : replaced.get(0);
+        stepTotal.addAndGet(steps.size() - (replacedSteps != null ? replacedSteps : 0));
+    }
+
+    @Override
+    public Optional<ScenarioDto> load(String scenarioId) {
+        List<ScenarioDto> scenarios = query(SELECT_JOINED + "WHERE s.scenario_id = ?" + ORDER_JOINED, scenarioId);
+        return scenarios.stream().findFirst();
+    }
+
+    @Override
+    public OptionalLong version(String scenarioId) {
+        List<Long> versions = jdbcTemplate.query("SELECT version FROM scenario WHERE scenario_id = ?",
+                (rs, row) -> rs.getLong("version"), scenarioId); // 0 for NULL
+        return versions.isEmpty() ? OptionalLong.empty() : OptionalLong.of(versions.get(0));
+    }
+
+    @Override
+    public Collection<ScenarioDto> loadAll() {
+        return query(SELECT_JOINED + ORDER_JOINED);
+    }
+
+    @Override
+    public int count() {
+        return scenarioCount.get();
+    }
+
+    @Override
+    public long stepCount() {
+        return stepTotal.get();
+    }
+
+    @Override
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM scenario"); // Cascades to steps and cells
+        scenarioCount.set(0);
+        stepTotal.set(0);
+    }
+
+    // Rebuilds scenarios from the joined rows: one row per cell, or per step or scenario without any
+    private List<ScenarioDto> query(String sql, Object... args) {
+        Map<String, ScenarioDto> scenarios = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (ResultSet rs) -> {
+            String scenarioId = rs.getString("scenario_id");
+            ScenarioDto scenario = scenarios.get(scenarioId);
+            if (scenario == null) {
+                int stepCount = rs.getInt("step_count");
+                scenario = new ScenarioDto(scenarioId, rs.getString("scenario_name"), rs.wasNull() ? null : new ArrayList<>(stepCount),
+                        rs.getObject("version", Long.class));
+                scenarios.put(scenarioId, scenario);
+            }
+
+            int position = rs.getInt("position");
+            if (rs.wasNull()) {
+                return; // Scenario without steps
+            }
+            List<ScenarioStepDto> steps = scenario.getSteps();
+            if (steps.size() == position) {
+                steps.add(new ScenarioStepDto(rs.getString("step_id"), rs.getString("action_code"),
+                        rs.getString("before_description"), rs.getString("after_description"),
+                        emptyRows(rs, "params_rows"), emptyRows(rs, "request_rows"), emptyRows(rs, "response_rows")));
+            }
+
+            int grid = rs.getInt("grid");
+            if (rs.wasNull()) {
+                return; // Step without cells
+            }
+            ScenarioStepDto step = steps.get(position);
+            List<Map<String, String>> rows = switch (grid) {
+                case PARAMS_GRID -> step.getStepParamsData();
+                case REQUEST_GRID -> step.getStepRequestData();
+                default -> step.getStepResponseData();
+            };
+            rows.get(rs.getInt("row_index")).put(rs.getString("column_name"), rs.getString("cell_value"));
+        }, args);
+        return new ArrayList<>(scenarios.values());
+    }
+
+    // A grid with the stored number of empty rows, or null if the grid was null when saved
+    private static List<Map<String, String>> emptyRows(ResultSet rs, String column) throws SQLException {
+        int rowCount = rs.getInt(column);
+        if (rs.wasNull()) {
+            return null;
+        }
+        List<Map<String, String>> rows = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            rows.add(new LinkedHashMap<>()); // Keeps column order as saved
+        }
+        return rows;
+    }
+
+    private static void setRowCount(PreparedStatement statement, int index, List<Map<String, String>> rows) throws SQLException {
+        if (rows == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, rows.size());
+        }
+    }
+
+    private static List<Cell> cellsOf(List<ScenarioStepDto> steps) {
+        List<Cell> cells = new ArrayList<>();
+        for (int position = 0; position < steps.size(); position++) {
+            ScenarioStepDto step = steps.get(position);
+            addCells(cells, position, PARAMS_GRID, step.getStepParamsData());
+            addCells(cells, position, REQUEST_GRID, step.getStepRequestData());
+            addCells(cells, position, RESPONSE_GRID, step.getStepResponseData());
+        }
+        return cells;
+    }
+
+    private static void addCells(List<Cell> cells, int position, int grid, List<Map<String, String>> rows) {
+        if (rows == null) {
+            return;
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.get(row) == null) {
+                continue; // Loaded back as an empty row
+            }
+            int column = 0;
+            for (Map.Entry<String, String> cell : rows.get(row).entrySet()) {
+                cells.add(new Cell(position, grid, row, column++, cell.getKey(), cell.getValue()));
+            }
+        }
+    }
+
+    // One grid cell of a step, in save order
+    private record Cell(int position, int grid, int row, int column, String name, String value) {}
+}
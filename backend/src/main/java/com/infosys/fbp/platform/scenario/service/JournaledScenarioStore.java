@@ -0,0 +1,450 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps scenarios in a map on the heap (as {@link ColumnarScenario}s), made durable by an append-only
+ * journal on local disk. Enabled with {@code scenario.store=journal}.
+ * <p>
+ * Every save, patch or clear appends a record to the current {@link ScenarioJournal} and returns once
+ * it is on disk; concurrent saves share one fsync. Records only take effect in the map once they are on
+ * disk, in journal order, so readers never see a change that a crash could still lose. If a sync fails
+ * the store refuses further writes until it is restarted and recovered from what did reach the disk.
+ * A patch is journaled as its operations, not as the patched scenario, so its record is as small as the edit. When the journal grows past the compaction threshold (or
+ * a record does not fit) writes move on to a new journal generation, and the scenarios as of that
+ * moment are written in the background to a gzip-compressed JSON snapshot. Older journals are only
+ * deleted once the snapshot and its directory entry are forced to disk. On startup the map is rebuilt from the latest snapshot plus the journals written since,
+ * so restart time is bounded by the snapshot size and the compaction threshold.
+ */
+@Component
+@ConditionalOnProperty(name = "scenario.store", havingValue = "journal")
+@Slf4j
+public class JournaledScenarioStore implements ScenarioStore {
+
+    static final String SNAPSHOT_FILE = "scenarios-snapshot.json.gz";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("scenarios-(\\d+)\\.journal");
+
+    private static final byte SAVE_RECORD = 1;
+    private static final byte CLEAR_RECORD = 2;
+    private static final byte PATCH_RECORD = 3;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int journalCapacity;
+    private final long compactionThreshold;
+    private final Map<String, ColumnarScenario> scenarios = new ConcurrentHashMap<>();
+    // Steps of all stored scenarios, kept up to date by put() and clearScenarios() so that metrics need no scan
+    private final AtomicLong stepTotal = new AtomicLong();
+    // Serializes appends, and applying them to the map in the same order, so replaying the journal reproduces the map
+    private final Object writeLock = new Object();
+    private final ExecutorService snapshotExecutor;
+    private ScenarioJournal journal;
+    // Records appended but not yet known to be on disk, in journal order; guarded by writeLock
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    private long appendSequence;
+    // Set once a journal could not be forced to disk; guarded by writeLock
+    private Exception failure;
+
+    @Autowired
+    public JournaledScenarioStore(ObjectMapper objectMapper,
+                                  @Value("${scenario.journal.directory:data/scenario-journal}") String directory,
+                                  @Value("${scenario.journal.size:64MB}") DataSize journalSize,
+                                  @Value("${scenario.journal.compaction-threshold:16MB}") DataSize compactionThreshold) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.journalCapacity = (int) Math.min(journalSize.toBytes(), Integer.MAX_VALUE);
+        this.compactionThreshold = compactionThreshold.toBytes();
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scenario-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore scenarios from " + this.directory.toAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void save(ScenarioDto scenario) {
+        byte[] payload = payload(SAVE_RECORD, scenario, scenario.getScenarioId());
+        ColumnarScenario entry = ColumnarScenario.encode(scenario);
+        append(payload, () -> put(scenario.getScenarioId(), entry));
+    }
+
+    /**
+     * Applies the operations to the stored columnar scenario, decoding and encoding only the steps they
+     * edit, and journals the operations.
+     */
+    @Override
+    public void patch(String scenarioId, List<ScenarioPatchOperationDto> operations, long version) {
+        ColumnarScenario current = scenarios.get(scenarioId);
+        if (current == null) {
+            throw new IllegalStateException("No scenario stored with ID: " + scenarioId);
+        }
+        // Serialized first, so the record holds the operations exactly as they are replayed
+        byte[] payload = payload(PATCH_RECORD, new PatchRecord(scenarioId, version, operations), scenarioId);
+        ColumnarScenario patched = current.patched(operations, version); // Validates before anything is journaled
+        // Only journaled, and applied, if nothing (such as a clear) replaced the scenario since it was read
+        if (!append(payload, () -> scenarios.get(scenarioId) == current, () -> put(scenarioId, patched))) {
+            throw new IllegalStateException("Scenario " + scenarioId + " was changed or removed while being patched");
+        }
+    }
+
+    @Override
+    public Optional<ScenarioDto> load(String scenarioId) {
+        return Optional.ofNullable(scenarios.get(scenarioId)).map(ColumnarScenario::toDto);
+    }
+
+    @Override
+    public OptionalLong version(String scenarioId) {
+        ColumnarScenario scenario = scenarios.get(scenarioId);
+        if (scenario == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(scenario.version() != null ? scenario.version() : 0);
+    }
+
+    @Override
+    public Collection<ScenarioDto> loadAll() {
+        return scenarios.values().stream().map(ColumnarScenario::toDto).toList();
+    }
+
+    @Override
+    public int count() {
+        return scenarios.size();
+    }
+
+    @Override
+    public long stepCount() {
+        return stepTotal.get();
+    }
+
+    @Override
+    public void clear() {
+        append(new byte[]{CLEAR_RECORD}, this::clearScenarios);
+    }
+
+    /**
+     * Closes the journal and waits briefly for a pending snapshot when the application context closes.
+     * An unfinished snapshot is harmless: the journals it would replace are only deleted after it is written.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (writeLock) {
+            closeQuietly(journal);
+        }
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A record: its type, then the value as JSON
+    private byte[] payload(byte type, Object value, String scenarioId) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize journal record for scenario " + scenarioId, e);
+        }
+        byte[] payload = new byte[json.length + 1];
+        payload[0] = type;
+        System.arraycopy(json, 0, payload, 1, json.length);
+        return payload;
+    }
+
+    // Called under writeLock, or during recovery
+    private void put(String scenarioId, ColumnarScenario entry) {
+        ColumnarScenario previous = scenarios.put(scenarioId, entry);
+        stepTotal.addAndGet(entry.stepCount() - (previous != null ? previous.stepCount() : 0));
+    }
+
+    private void clearScenarios() {
+        scenarios.clear();
+        stepTotal.set(0);
+    }
+
+    private void append(byte[] payload, Runnable apply) {
+        append(payload, () -> true, apply);
+    }
+
+    // Appends the record if the precondition, checked under writeLock, holds, and applies it once it is on disk.
+    // The precondition is checked again when applying: a record appended behind a clear that was not yet on
+    // disk finds its scenario gone, and is not applied, just as replay skips it.
+    private boolean append(byte[] payload, BooleanSupplier precondition, Runnable apply) {
+        Pending record;
+        ScenarioJournal target;
+        int end;
+        synchronized (writeLock) {
+            if (failure != null) {
+                throw new IllegalStateException("Scenario journal could not be forced to disk; restart to recover the store", failure);
+            }
+            if (!precondition.getAsBoolean()) {
+                return false;
+            }
+            end = journal.append(payload);
+            if (end < 0) {
+                rotate(payload.length); // Full: continue in a fresh journal large enough for the record
+                end = journal.append(payload);
+            }
+            record = new Pending(++appendSequence, precondition, apply);
+            pending.add(record);
+            target = journal;
+            if (end > compactionThreshold) {
+                rotate(0); // The record is in the previous journal, which rotating forces to disk
+            }
+        }
+        try {
+            sync(target, end);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            // Not applied; whether the record reached the disk is unknown until the store recovers
+            throw e;
+        }
+        synchronized (writeLock) {
+            applyPending(record.sequence); // Records before this one are on disk too
+            return record.applied;
+        }
+    }
+
+    // Forces the journal up to 'end'; overridden by tests to simulate a failing disk
+    void sync(ScenarioJournal target, int end) {
+        target.sync(end);
+    }
+
+    // Called under writeLock: applies the pending records up to and including 'sequence', in journal order
+    private void applyPending(long sequence) {
+        while (!pending.isEmpty() && pending.peek().sequence <= sequence) {
+            Pending record = pending.poll();
+            record.applied = record.precondition.getAsBoolean();
+            if (record.applied) {
+                record.apply.run();
+            }
+        }
+    }
+
+    // Called under writeLock: switches to the next journal generation and snapshots the scenarios as of now
+    private void rotate(int recordBytes) {
+        ScenarioJournal previous = journal;
+        long generation = previous.generation() + 1;
+        try {
+            journal = ScenarioJournal.open(journalPath(generation), generation,
+                    Math.max(journalCapacity, recordBytes + ScenarioJournal.HEADER_BYTES), payload -> {});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open scenario journal generation " + generation, e);
+        }
+        forceDirectory(); // Records acknowledged from the new journal must not lose their file on a crash
+        try {
+            previous.close();
+        } catch (IOException e) {
+            failure = e;
+            throw new IllegalStateException("Could not force scenario journal generation " + previous.generation() + " to disk", e);
+        }
+        applyPending(appendSequence); // Closing forced them to disk, and the snapshot must include them
+        List<ColumnarScenario> state = new ArrayList<>(scenarios.values());
+        snapshotExecutor.execute(() -> writeSnapshot(new Snapshot(generation, state.stream().map(ColumnarScenario::toDto).toList())));
+    }
+
+    private void writeSnapshot(Snapshot snapshot) {
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        try {
+            Path tempFile = Files.createTempFile(directory, SNAPSHOT_FILE, ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                    objectMapper.writeValue(out, snapshot);
+                }
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    channel.force(true); // Complete on disk before it can replace the previous snapshot
+                }
+                Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile); // Only left behind if the write or move failed
+            }
+            forceDirectory(); // The rename must be durable before the journals it replaces are deleted
+            deleteJournalsBefore(snapshot.generation());
+            log.debug("Saved scenario snapshot generation {} ({} scenarios)", snapshot.generation(), snapshot.scenarios().size());
+        } catch (IOException e) {
+            // Nothing is lost: the journals since the previous snapshot are kept and replayed instead
+            log.warn("Could not save scenario snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        long generation = 0;
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.isRegularFile(snapshotPath)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshotPath))) {
+                Snapshot snapshot = objectMapper.readValue(in, Snapshot.class);
+                snapshot.scenarios().forEach(scenario -> put(scenario.getScenarioId(), ColumnarScenario.encode(scenario)));
+                generation = snapshot.generation();
+            }
+        }
+        int snapshotScenarios = scenarios.size();
+        deleteJournalsBefore(generation); // Left behind if the process stopped right after a snapshot
+
+        List<Long> generations = journalGenerations();
+        boolean created = generations.isEmpty();
+        if (created) {
+            generations = List.of(generation);
+        }
+        long journalBytes = 0;
+        int records = 0;
+        for (int i = 0; i < generations.size(); i++) {
+            // Journals older than the newest one are only left when their snapshot was not written
+            ScenarioJournal replayed = ScenarioJournal.open(journalPath(generations.get(i)), generations.get(i),
+                    journalCapacity, this::replay);
+            journalBytes += replayed.size();
+            records += replayed.replayedRecords();
+            if (i < generations.size() - 1) {
+                replayed.close();
+            } else {
+                journal = replayed;
+            }
+        }
+        if (created) {
+            forceDirectory();
+        }
+        log.info("Scenario store: restored {} scenarios in {} ms ({} from the snapshot, {} journal records in {} bytes).",
+                scenarios.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), snapshotScenarios, records, journalBytes);
+    }
+
+    private void replay(byte[] payload) {
+        if (payload[0] == CLEAR_RECORD) {
+            clearScenarios();
+            return;
+        }
+        try {
+            if (payload[0] == PATCH_RECORD) {
+                PatchRecord patch = objectMapper.readValue(payload, 1, payload.length - 1, PatchRecord.class);
+                ColumnarScenario current = scenarios.get(patch.scenarioId());
+                if (current == null) {
+                    // Appended behind a clear that was not yet on disk; the clear won in memory too
+                    log.warn("Skipping journaled patch to version {} of scenario {}, which is not stored", patch.version(), patch.scenarioId());
+                    return;
+                }
+                put(patch.scenarioId(), current.patched(patch.operations(), patch.version()));
+                return;
+            }
+            ScenarioDto scenario = objectMapper.readValue(payload, 1, payload.length - 1, ScenarioDto.class);
+            put(scenario.getScenarioId(), ColumnarScenario.encode(scenario));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable scenario journal record", e); // Passed its checksum, so not a torn write
+        }
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> JOURNAL_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteJournalsBefore(long generation) throws IOException {
+        for (long older : journalGenerations()) {
+            if (older < generation) {
+                Files.deleteIfExists(journalPath(older));
+            }
+        }
+    }
+
+    // Makes created, renamed and deleted files in the directory durable
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform (such as Windows), where directory entries are journaled by the file system
+            log.debug("Could not force scenario journal directory {} to disk", directory, e);
+        }
+    }
+
+    private Path journalPath(long generation) {
+        return directory.resolve("scenarios-" + generation + ".journal");
+    }
+
+    private static void closeQuietly(ScenarioJournal journal) {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close scenario journal generation {}", journal.generation(), e);
+        }
+    }
+
+    /**
+     * The scenarios as of the start of journal {@code generation}.
+     */
+    record Snapshot(long generation, List<ScenarioDto> scenarios) {}
+
+    /**
+     * A record appended to the journal, applied to the map once a sync covers it.
+     */
+    private static final class Pending {
+
+        private final long sequence;
+        private final BooleanSupplier precondition;
+        private final Runnable apply;
+        private boolean applied; // Guarded by writeLock
+
+        private Pending(long sequence, BooleanSupplier precondition, Runnable apply) {
+            this.sequence = sequence;
+            this.precondition = precondition;
+            this.apply = apply;
+        }
+    }
+
+    /**
+     * A journaled patch: the operations that turned the previous version of the scenario into {@code version}.
+     */
+    record PatchRecord(String scenarioId, long version, List<ScenarioPatchOperationDto> operations) {}
+}
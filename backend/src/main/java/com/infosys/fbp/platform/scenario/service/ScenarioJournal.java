@@ -0,0 +1,191 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * One generation of the scenario journal: a memory-mapped, append-only file of records, each laid out as
+ * payload length (int), CRC32 of the payload (int) and the payload. The file is preallocated to its
+ * capacity and zero-filled, so a zero length marks the end of the records.
+ * <p>
+ * Appends only copy into the mapping; {@link #sync(int)} makes them durable. Concurrent writers share
+ * flushes (group commit): whoever syncs forces everything appended so far, and writers whose records it
+ * covered return without forcing again.
+ * <p>
+ * A failed force fails every later sync of the journal as well: the pages it could not write may have
+ * been dropped, so a force that succeeds afterwards would not prove them durable.
+ */
+final class ScenarioJournal implements Closeable {
+
+    static final int HEADER_BYTES = 8;
+
+    private final long generation;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Object syncLock = new Object();
+    private final int replayedRecords;
+    // Offset past the last record; written by appenders (serialized by the caller), read by syncers
+    private volatile int position;
+    // Offset up to which the mapping has been forced to disk
+    private int synced;
+    private boolean closed;
+    private UncheckedIOException failure; // Of the first force that failed
+
+    private ScenarioJournal(long generation, FileChannel channel, MappedByteBuffer buffer, int position, int replayedRecords) {
+        this.generation = generation;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.position = position;
+        this.synced = position;
+        this.replayedRecords = replayedRecords;
+    }
+
+    /**
+     * Opens the journal file, creating it if missing, and hands the payload of every intact record to
+     * {@code replay} in append order. Replay stops at the first torn or corrupt record, which is what a
+     * crash during an append leaves behind; that tail is zeroed and later appends overwrite it.
+     *
+     * @param capacity bytes to map; an existing larger file is mapped whole.
+     */
+    static ScenarioJournal open(Path path, long generation, int capacity, Consumer<byte[]> replay) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int size = (int) Math.max(capacity, Math.min(channel.size(), Integer.MAX_VALUE));
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            int position = 0;
+            int records = 0;
+            while (position + HEADER_BYTES <= size) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || length > size - position - HEADER_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(position + HEADER_BYTES, payload);
+                if (buffer.getInt(position + 4) != checksum(payload)) {
+                    break;
+                }
+                replay.accept(payload);
+                position += HEADER_BYTES + length;
+                records++;
+            }
+            if (zeroTail(buffer, position)) {
+                buffer.force();
+            }
+            return new ScenarioJournal(generation, channel, buffer, position, records);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Bytes taken by the records, which bounds the time to replay this journal.
+     */
+    int size() {
+        return position;
+    }
+
+    int replayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * Copies a record into the mapping. Callers serialize appends.
+     *
+     * @return the offset at which the record ends, to pass to {@link #sync(int)}; -1 if it does not fit.
+     */
+    int append(byte[] payload) {
+        int start = position;
+        if (payload.length > buffer.capacity() - start - HEADER_BYTES) {
+            return -1;
+        }
+        buffer.put(start + HEADER_BYTES, payload);
+        buffer.putInt(start + 4, checksum(payload));
+        buffer.putInt(start, payload.length); // Last, so a torn append never reads back as a complete record
+        position = start + HEADER_BYTES + payload.length;
+        return position;
+    }
+
+    /**
+     * Blocks until everything up to {@code end} is on disk.
+     */
+    void sync(int end) {
+        synchronized (syncLock) {
+            if (synced >= end) {
+                return; // Forced by another writer (or on close) meanwhile
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            int target = position;
+            try {
+                buffer.force(synced, target - synced);
+            } catch (UncheckedIOException e) {
+                failure = e;
+                throw e;
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Forces outstanding appends and closes the file; pending {@link #sync(int)} calls return at once, or
+     * fail if the force did.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (failure != null) {
+                    throw failure.getCause();
+                }
+                buffer.force();
+                synced = position;
+            } catch (UncheckedIOException e) {
+                failure = e;
+                throw e.getCause();
+            } finally {
+                channel.close(); // The mapping itself is released once the buffer is collected
+            }
+        }
+    }
+
+    private static boolean zeroTail(MappedByteBuffer buffer, int from) {
+        boolean dirty = false;
+        int index = from;
+        for (; index + Long.BYTES <= buffer.capacity(); index += Long.BYTES) { // A word at a time; usually all zero
+            if (buffer.getLong(index) != 0) {
+                buffer.putLong(index, 0);
+                dirty = true;
+            }
+        }
+        for (; index < buffer.capacity(); index++) {
+            if (buffer.get(index) != 0) {
+                buffer.put(index, (byte) 0);
+                dirty = true;
+            }
+        }
+        return dirty;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,191 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Applies the operations of a {@link com.infosys.fbp.platform.scenario.dto.ScenarioPatchDto} to the steps
+ * of a scenario, whatever form a store keeps them in. Step operations only move the stored steps around;
+ * a step is only opened (turned into a {@link ScenarioStepDto}) when a grid operation edits it, and closed
+ * again once all operations are applied, so the work done is proportional to the steps the patch touches.
+ */
+final class ScenarioPatcher {
+
+    private ScenarioPatcher() {
+    }
+
+    /**
+     * @param open  turns a stored step into a DTO that may be changed.
+     * @param close turns an edited or inserted DTO back into a stored step.
+     * @return the patched steps; the given list is left unchanged.
+     * @throws IllegalArgumentException naming the first operation that does not apply.
+     */
+    static <S> List<S> apply(List<S> steps, List<ScenarioPatchOperationDto> operations,
+                             Function<S, ScenarioStepDto> open, Function<ScenarioStepDto, S> close) {
+        List<Slot<S>> slots = new ArrayList<>(steps.size() + operations.size());
+        for (S step : steps) {
+            slots.add(new Slot<>(step));
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            ScenarioPatchOperationDto operation = operations.get(i);
+            try {
+                apply(slots, operation, open);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Operation " + i + " (" + (operation == null ? null : operation.getOp()) + "): " + e.getMessage(), e);
+            }
+        }
+        List<S> patched = new ArrayList<>(slots.size());
+        for (Slot<S> slot : slots) {
+            patched.add(slot.opened != null ? close.apply(slot.opened) : slot.stored);
+        }
+        return patched;
+    }
+
+    private static <S> void apply(List<Slot<S>> slots, ScenarioPatchOperationDto operation, Function<S, ScenarioStepDto> open) {
+        if (operation == null || operation.getOp() == null) {
+            throw new IllegalArgumentException("op is required");
+        }
+        switch (operation.getOp()) {
+            case "insertStep" -> {
+                if (operation.getStep() == null) {
+                    throw new IllegalArgumentException("step is required");
+                }
+                int index = operation.getStepIndex() != null ? operation.getStepIndex() : slots.size();
+                checkIndex("stepIndex", index, slots.size() + 1);
+                Slot<S> slot = new Slot<>(null);
+                slot.opened = copy(operation.getStep());
+                slots.add(index, slot);
+            }
+            case "moveStep" -> {
+                int from = stepIndex(slots, operation);
+                int to = required("toIndex", operation.getToIndex());
+                checkIndex("toIndex", to, slots.size());
+                slots.add(to, slots.remove(from));
+            }
+            case "deleteStep" -> slots.remove(stepIndex(slots, operation));
+            case "setCell" -> {
+                List<Map<String, String>> rows = grid(slots.get(stepIndex(slots, operation)).open(open), operation, false);
+                int row = required("rowIndex", operation.getRowIndex());
+                checkIndex("rowIndex", row, rows.size());
+                if (operation.getColumn() == null) {
+                    throw new IllegalArgumentException("column is required");
+                }
+                Map<String, String> cells = rows.get(row);
+                if (!(cells instanceof LinkedHashMap)) {
+                    cells = cells == null ? new LinkedHashMap<>() : new LinkedHashMap<>(cells); // May be immutable
+                    rows.set(row, cells);
+                }
+                cells.put(operation.getColumn(), operation.getValue());
+            }
+            case "insertRows" -> {
+                List<Map<String, String>> rows = grid(slots.get(stepIndex(slots, operation)).open(open), operation, true);
+                int row = operation.getRowIndex() != null ? operation.getRowIndex() : rows.size();
+                checkIndex("rowIndex", row, rows.size() + 1);
+                if (operation.getRows() == null) {
+                    throw new IllegalArgumentException("rows is required");
+                }
+                List<Map<String, String>> inserted = new ArrayList<>(operation.getRows().size());
+                for (Map<String, String> cells : operation.getRows()) {
+                    inserted.add(cells == null ? new LinkedHashMap<>() : new LinkedHashMap<>(cells));
+                }
+                rows.addAll(row, inserted);
+            }
+            case "deleteRows" -> {
+                List<Map<String, String>> rows = grid(slots.get(stepIndex(slots, operation)).open(open), operation, false);
+                int row = required("rowIndex", operation.getRowIndex());
+                int count = operation.getCount() != null ? operation.getCount() : 1;
+                if (count < 1 || row < 0 || row + count > rows.size()) {
+                    throw new IllegalArgumentException("rows " + row + " to " + (row + count - 1) + " are not all in a grid of " + rows.size() + " rows");
+                }
+                rows.subList(row, row + count).clear();
+            }
+            default -> throw new IllegalArgumentException("unknown op; expected insertStep, moveStep, deleteStep, setCell, insertRows or deleteRows");
+        }
+    }
+
+    private static int stepIndex(List<? extends Slot<?>> slots, ScenarioPatchOperationDto operation) {
+        int index = required("stepIndex", operation.getStepIndex());
+        checkIndex("stepIndex", index, slots.size());
+        return index;
+    }
+
+    // The rows of the named grid as a list that may be changed; a missing grid is only created to insert into
+    private static List<Map<String, String>> grid(ScenarioStepDto step, ScenarioPatchOperationDto operation, boolean create) {
+        if (operation.getGrid() == null) {
+            throw new IllegalArgumentException("grid is required");
+        }
+        List<Map<String, String>> rows = switch (operation.getGrid()) {
+            case "params" -> step.getStepParamsData();
+            case "request" -> step.getStepRequestData();
+            case "response" -> step.getStepResponseData();
+            default -> throw new IllegalArgumentException("unknown grid; expected params, request or response");
+        };
+        if (rows instanceof ArrayList) {
+            return rows;
+        }
+        if (rows == null && !create) {
+            throw new IllegalArgumentException("step has no " + operation.getGrid() + " grid");
+        }
+        List<Map<String, String>> editable = rows == null ? new ArrayList<>() : new ArrayList<>(rows);
+        switch (operation.getGrid()) {
+            case "params" -> step.setStepParamsData(editable);
+            case "request" -> step.setStepRequestData(editable);
+            default -> step.setStepResponseData(editable);
+        }
+        return editable;
+    }
+
+    private static int required(String field, Integer value) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static void checkIndex(String field, int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException(field + " " + index + " is out of range [0, " + (size - 1) + "]");
+        }
+    }
+
+    // Grids included: later operations edit the inserted step in place and must not change the operation itself
+    private static ScenarioStepDto copy(ScenarioStepDto step) {
+        return new ScenarioStepDto(step.getId(), step.getActionCode(), step.getBeforeDescription(), step.getAfterDescription(),
+                copy(step.getStepParamsData()), copy(step.getStepRequestData()), copy(step.getStepResponseData()));
+    }
+
+    private static List<Map<String, String>> copy(List<Map<String, String>> rows) {
+        if (rows == null) {
+            return null;
+        }
+        List<Map<String, String>> copied = new ArrayList<>(rows.size());
+        for (Map<String, String> cells : rows) {
+            copied.add(cells == null ? null : new LinkedHashMap<>(cells));
+        }
+        return copied;
+    }
+
+    // A step as stored, or once opened, as an editable DTO
+    private static final class Slot<S> {
+
+        private final S stored;
+        private ScenarioStepDto opened;
+
+        private Slot(S stored) {
+            this.stored = stored;
+        }
+
+        private ScenarioStepDto open(Function<S, ScenarioStepDto> open) {
+            if (opened == null) {
+                opened = open.apply(stored);
+            }
+            return opened;
+        }
+    }
+}
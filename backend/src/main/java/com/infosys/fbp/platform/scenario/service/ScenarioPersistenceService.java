@@ -2,28 +2,76 @@ package com.infosys.fbp.platform.scenario.service;
 
 import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
 import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection; // Added import
-import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Service responsible for temporary in-memory persistence of scenarios.
+ * Service responsible for persistence of scenarios. Where they are kept is up to the configured
+ * {@link ScenarioStore} ({@code scenario.store}): in memory by default, or in the database.
+ * <p>
+ * Every save or patch stores the scenario as its next version. Writes to the same scenario are
+ * serialized, so a patch is checked against, and applied to, exactly the version it names.
+ * <p>
+ * Save, load, patch and getAll are timed as {@value #OPERATION_TIMER} (tagged with the operation, and for
+ * loads whether the scenario was found); {@value #SCENARIOS_GAUGE} and {@value #STEPS_GAUGE} report
+ * how many scenarios and steps are stored.
  */
 @Service
 public class ScenarioPersistenceService {
 
-    // Use ConcurrentHashMap for basic thread safety in a web environment
-    private final Map<String, ScenarioDto> scenarioStore = new ConcurrentHashMap<>();
+    static final String OPERATION_TIMER = "scenario.store.operation";
+    static final String SCENARIOS_GAUGE = "scenario.store.scenarios";
+    static final String STEPS_GAUGE = "scenario.store.steps";
+
+    private final ScenarioStore scenarioStore;
+    private final Timer saveTimer;
+    private final Timer loadHitTimer;
+    private final Timer loadMissTimer;
+    private final Timer getAllTimer;
+    private final Timer patchTimer;
+    // Striped by scenario ID: writes to one scenario are serialized, writes to different ones mostly not
+    private final Object[] writeLocks = new Object[64];
+
+    public ScenarioPersistenceService(ScenarioStore scenarioStore, MeterRegistry meterRegistry) {
+        this.scenarioStore = scenarioStore;
+        this.saveTimer = operationTimer(meterRegistry, "save", "n/a");
+        this.loadHitTimer = operationTimer(meterRegistry, "load", "found");
+        this.loadMissTimer = operationTimer(meterRegistry, "load", "not_found");
+        this.getAllTimer = operationTimer(meterRegistry, "getAll", "n/a");
+        this.patchTimer = operationTimer(meterRegistry, "patch", "n/a");
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
+        }
+        Gauge.builder(SCENARIOS_GAUGE, scenarioStore, ScenarioStore::count)
+                .description("Scenarios currently stored")
+                .register(meterRegistry);
+        Gauge.builder(STEPS_GAUGE, scenarioStore, ScenarioStore::stepCount)
+                .description("Steps across all stored scenarios")
+                .register(meterRegistry);
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation, String result) {
+        return Timer.builder(OPERATION_TIMER)
+                .description("Time spent in scenario store operations")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     /**
-     * Saves or updates a scenario in the in-memory store using the ID from the DTO.
+     * Saves or updates a scenario in the store using the ID from the DTO.
      *
      * @param scenarioDto The scenario data to save, including the scenarioId.
-     * @return The saved ScenarioDto object.
+     * @return The saved ScenarioDto object, with the version it was stored as.
      */
     public ScenarioDto saveScenario(ScenarioDto scenarioDto) {
         // Use the ID provided in the DTO
@@ -33,7 +81,13 @@ public class ScenarioPersistenceService {
             throw new IllegalArgumentException("Scenario ID cannot be null or empty for saving.");
         }
         // Store the DTO using the provided ID as the key
-        scenarioStore.put(scenarioId, scenarioDto);
+        saveTimer.record(() -> {
+            synchronized (writeLock(scenarioId)) {
+                OptionalLong current = scenarioStore.version(scenarioId);
+                scenarioDto.setVersion(current.isPresent() ? current.getAsLong() + 1 : 1);
+                scenarioStore.save(scenarioDto);
+            }
+        });
         // Consider logging the save/update operation
         // log.info("Scenario saved/updated with ID: {}", scenarioId);
         // Return the saved DTO
@@ -41,7 +95,7 @@ public class ScenarioPersistenceService {
     }
 
     /**
-     * Loads a scenario from the in-memory store by its ID.
+     * Loads a scenario from the store by its ID.
      *
      * @param scenarioId The unique ID of the scenario to load.
      * @return An Optional containing the ScenarioDto if found, otherwise empty.
@@ -49,18 +103,54 @@ public class ScenarioPersistenceService {
     public Optional<ScenarioDto> loadScenario(String scenarioId) {
         // Consider logging the load attempt
         // log.info("Attempting to load scenario with ID: {}", scenarioId);
-        return Optional.ofNullable(scenarioStore.get(scenarioId));
+        long start = System.nanoTime();
+        Optional<ScenarioDto> scenario = scenarioStore.load(scenarioId);
+        (scenario.isPresent() ? loadHitTimer : loadMissTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return scenario;
+    }
+
+    /**
+     * Applies the operations of the patch to a stored scenario, atomically: either all of them are
+     * stored, as the next version, or none. A patch without operations changes nothing.
+     *
+     * @param scenarioId The ID of the scenario to patch.
+     * @param patch      The operations and the version they were made against.
+     * @return The version the scenario is now at, or empty if no scenario is stored under the ID.
+     * @throws ScenarioVersionConflictException if the scenario is no longer at the base version.
+     * @throws IllegalArgumentException if the base version is missing or an operation does not apply.
+     */
+    public Optional<Long> patchScenario(String scenarioId, ScenarioPatchDto patch) {
+        if (patch.getBaseVersion() == null) {
+            throw new IllegalArgumentException("baseVersion is required");
+        }
+        return patchTimer.record(() -> {
+            synchronized (writeLock(scenarioId)) {
+                OptionalLong current = scenarioStore.version(scenarioId);
+                if (current.isEmpty()) {
+                    return Optional.<Long>empty();
+                }
+                long version = current.getAsLong();
+                if (version != patch.getBaseVersion()) {
+                    throw new ScenarioVersionConflictException(scenarioId, patch.getBaseVersion(), version);
+                }
+                if (patch.getOperations() == null || patch.getOperations().isEmpty()) {
+                    return Optional.of(version);
+                }
+                scenarioStore.patch(scenarioId, patch.getOperations(), version + 1);
+                return Optional.of(version + 1);
+            }
+        });
     }
 
     /**
-     * Retrieves all scenarios currently stored in memory.
+     * Retrieves all scenarios currently stored.
      *
      * @return A collection of all ScenarioDto objects.
      */
     public Collection<ScenarioDto> getAllScenarios() {
         // Consider logging the retrieval operation
         // log.info("Retrieving all {} scenarios.", scenarioStore.size());
-        return scenarioStore.values();
+        return getAllTimer.record(scenarioStore::loadAll);
     }
 
     // Optional: Method to clear the store or remove specific entries if needed
@@ -68,8 +158,12 @@ public class ScenarioPersistenceService {
     //     scenarioStore.remove(scenarioId);
     // }
 
+    private Object writeLock(String scenarioId) {
+        return writeLocks[Math.floorMod(scenarioId.hashCode(), writeLocks.length)];
+    }
+
     /**
-     * Clears all scenarios from the in-memory store.
+     * Clears all scenarios from the store.
      * Primarily intended for testing purposes.
      */
     public void clearAllScenarios() {
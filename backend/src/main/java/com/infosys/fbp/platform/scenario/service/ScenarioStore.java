@@ -0,0 +1,75 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
+
+/**
+ * Where {@link ScenarioPersistenceService} keeps scenarios. The implementation is chosen with
+ * {@code scenario.store}: {@code memory} (default, lost on restart), {@code jdbc} (normalized tables
+ * in the application database) or {@code journal} (in memory, backed by a journal on local disk).
+ * <p>
+ * Implementations are thread-safe. A saved scenario replaces any previous one with the same ID as a
+ * whole; loads never observe a partially written scenario. Versions are assigned by
+ * {@link ScenarioPersistenceService}, which also serializes writes to the same scenario.
+ */
+public interface ScenarioStore {
+
+    /**
+     * Stores the scenario under its ID, replacing any previous version.
+     */
+    void save(ScenarioDto scenario);
+
+    /**
+     * Loads the scenario stored under the ID.
+     */
+    Optional<ScenarioDto> load(String scenarioId);
+
+    /**
+     * The version of the scenario stored under the ID, without loading it; 0 for a scenario stored
+     * without a version.
+     */
+    OptionalLong version(String scenarioId);
+
+    /**
+     * Applies the operations to the steps of the stored scenario and stores the result as {@code version}.
+     * Nothing is stored if an operation does not apply. This default loads and saves the whole scenario;
+     * stores that can apply the operations in place override it.
+     *
+     * @throws IllegalArgumentException if an operation does not apply.
+     * @throws IllegalStateException if no scenario is stored under the ID.
+     */
+    default void patch(String scenarioId, List<ScenarioPatchOperationDto> operations, long version) {
+        ScenarioDto scenario = load(scenarioId)
+                .orElseThrow(() -> new IllegalStateException("No scenario stored with ID: " + scenarioId));
+        scenario.setSteps(ScenarioPatcher.apply(scenario.getSteps() != null ? scenario.getSteps() : List.of(), operations,
+                Function.identity(), Function.identity())); // Loads return fresh objects, so they may be edited in place
+        scenario.setVersion(version);
+        save(scenario);
+    }
+
+    /**
+     * Loads every stored scenario.
+     */
+    Collection<ScenarioDto> loadAll();
+
+    /**
+     * Number of stored scenarios.
+     */
+    int count();
+
+    /**
+     * Number of steps across all stored scenarios.
+     */
+    long stepCount();
+
+    /**
+     * Removes every stored scenario.
+     */
+    void clear();
+}
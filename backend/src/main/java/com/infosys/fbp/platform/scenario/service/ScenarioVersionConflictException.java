@@ -0,0 +1,19 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a patch was made against a version of the scenario that is no longer the stored one.
+ */
+@Getter
+public class ScenarioVersionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long currentVersion;
+
+    public ScenarioVersionConflictException(String scenarioId, long baseVersion, long currentVersion) {
+        super("Scenario " + scenarioId + " is at version " + currentVersion + ", not " + baseVersion);
+        this.currentVersion = currentVersion;
+    }
+}
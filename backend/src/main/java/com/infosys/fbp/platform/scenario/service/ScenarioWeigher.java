@@ -0,0 +1,109 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the heap taken by a scenario, assuming a 64-bit JVM with compressed references and
+ * compact strings. Grid cells dominate, so only strings, lists, maps and their entries (or for a
+ * {@link ColumnarScenario}, its arrays) are counted. Strings shared within a columnar step are
+ * counted once; column names, shared by every grid of the same layout, are not counted.
+ */
+final class ScenarioWeigher {
+
+    private static final int OBJECT_BYTES = 16;
+    private static final int STRING_BYTES = 24 + 16; // String plus its byte array header
+    private static final int LIST_BYTES = 24 + 16;   // ArrayList plus its element array header
+    private static final int MAP_BYTES = 56 + 16;    // LinkedHashMap plus its table header
+    private static final int MAP_ENTRY_BYTES = 40 + 4; // Entry plus its table slot
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_BYTES = 16;
+
+    private ScenarioWeigher() {
+    }
+
+    static long weigh(ScenarioDto scenario) {
+        long bytes = OBJECT_BYTES + weigh(scenario.getScenarioId()) + weigh(scenario.getScenarioName());
+        List<ScenarioStepDto> steps = scenario.getSteps();
+        if (steps != null) {
+            bytes += LIST_BYTES + (long) REFERENCE_BYTES * steps.size();
+            for (ScenarioStepDto step : steps) {
+                bytes += OBJECT_BYTES + 7L * REFERENCE_BYTES
+                        + weigh(step.getId()) + weigh(step.getActionCode())
+                        + weigh(step.getBeforeDescription()) + weigh(step.getAfterDescription())
+                        + weighGrid(step.getStepParamsData())
+                        + weighGrid(step.getStepRequestData())
+                        + weighGrid(step.getStepResponseData());
+            }
+        }
+        return bytes;
+    }
+
+    static long weigh(ColumnarScenario scenario) {
+        long bytes = OBJECT_BYTES + weigh(scenario.scenarioId()) + weigh(scenario.scenarioName());
+        ColumnarScenario.Step[] steps = scenario.steps();
+        if (steps != null) {
+            bytes += ARRAY_BYTES + (long) REFERENCE_BYTES * steps.length;
+            for (ColumnarScenario.Step step : steps) {
+                bytes += step.weight();
+            }
+        }
+        return bytes;
+    }
+
+    static long weigh(ColumnarScenario.Step step) {
+        Set<String> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        return OBJECT_BYTES + 8L * REFERENCE_BYTES
+                + weigh(step.id()) + weigh(step.actionCode())
+                + weigh(step.beforeDescription()) + weigh(step.afterDescription())
+                + weighGrid(step.params(), counted)
+                + weighGrid(step.request(), counted)
+                + weighGrid(step.response(), counted);
+    }
+
+    private static long weighGrid(ColumnarGrid grid, Set<String> counted) {
+        if (grid == null) {
+            return 0;
+        }
+        if (grid.rows() != null) {
+            return OBJECT_BYTES + weighGrid(grid.rows());
+        }
+        long bytes = OBJECT_BYTES + ARRAY_BYTES + (long) REFERENCE_BYTES * grid.columns().length;
+        for (String[] column : grid.columns()) {
+            bytes += ARRAY_BYTES + (long) REFERENCE_BYTES * column.length;
+            for (String value : column) {
+                if (value != null && !ColumnarGrid.isAbsent(value) && counted.add(value)) {
+                    bytes += weigh(value);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long weighGrid(List<Map<String, String>> rows) {
+        if (rows == null) {
+            return 0;
+        }
+        long bytes = LIST_BYTES + (long) REFERENCE_BYTES * rows.size();
+        for (Map<String, String> row : rows) {
+            if (row == null) {
+                continue;
+            }
+            bytes += MAP_BYTES;
+            for (Map.Entry<String, String> cell : row.entrySet()) {
+                bytes += MAP_ENTRY_BYTES + weigh(cell.getKey()) + weigh(cell.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    private static long weigh(String value) {
+        return value == null ? 0 : STRING_BYTES + value.length();
+    }
+}
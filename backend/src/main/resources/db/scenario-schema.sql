@@ -0,0 +1,40 @@
+-- Normalized scenario tables of the jdbc scenario store (scenario.store=jdbc).
+-- Grid rows are numbered per step and grid; a grid's row count lives on the step, so empty rows need no cells.
+-- A NULL step_count or row count stands for a missing (null) list, as opposed to an empty one.
+
+CREATE TABLE IF NOT EXISTS scenario (
+    scenario_id   VARCHAR(255) PRIMARY KEY,
+    scenario_name VARCHAR,
+    step_count    INT,
+    version       BIGINT
+);
+
+-- Added with scenario versions; tables created before that lack the column
+ALTER TABLE scenario ADD COLUMN IF NOT EXISTS version BIGINT;
+
+CREATE TABLE IF NOT EXISTS scenario_step (
+    scenario_id        VARCHAR(255) NOT NULL,
+    position           INT NOT NULL,
+    step_id            VARCHAR,
+    action_code        VARCHAR,
+    before_description VARCHAR,
+    after_description  VARCHAR,
+    params_rows        INT,
+    request_rows       INT,
+    response_rows      INT,
+    PRIMARY KEY (scenario_id, position),
+    FOREIGN KEY (scenario_id) REFERENCES scenario (scenario_id) ON DELETE CASCADE
+);
+
+-- grid: 0 = path/query parameters, 1 = request body, 2 = response body verification
+CREATE TABLE IF NOT EXISTS scenario_cell (
+    scenario_id  VARCHAR(255) NOT NULL,
+    position     INT NOT NULL,
+    grid         TINYINT NOT NULL,
+    row_index    INT NOT NULL,
+    column_index INT NOT NULL,
+    column_name  VARCHAR NOT NULL,
+    cell_value   VARCHAR,
+    PRIMARY KEY (scenario_id, position, grid, row_index, column_index),
+    FOREIGN KEY (scenario_id, position) REFERENCES scenario_step (scenario_id, position) ON DELETE CASCADE
+);
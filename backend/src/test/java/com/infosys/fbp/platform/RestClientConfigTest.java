@@ -0,0 +1,77 @@
+package com.infosys.fbp.platform;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RestTemplateAutoConfiguration.class, MetricsAutoConfiguration.class))
+            .withUserConfiguration(RestClientConfig.class)
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance())) // "5s" durations, as in the application
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/doc.json", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void pooledClient_shouldReuseConnectionsAndPublishMetrics() {
+        contextRunner.run(context -> {
+            RestTemplate restTemplate = context.getBean(RestTemplate.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            String url = "http://localhost:" + server.getAddress().getPort() + "/doc.json";
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                assertThat(restTemplate.getForObject(url, String.class)).isEqualTo("{}");
+            }
+
+            // Assert: one connect for three requests, and the pool gauges are registered
+            assertThat(restTemplate.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+            assertThat(meterRegistry.get(TimedConnectionSocketFactory.CONNECT_TIMER).tag("outcome", "success").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value()).isEqualTo(50);
+        });
+    }
+
+    @Test
+    void simpleClient_shouldBeUsedWhenPoolingIsDisabled() {
+        contextRunner.withPropertyValues("rest-client.pool.enabled=false").run(context -> {
+            assertThat(context.getBean(RestTemplate.class).getRequestFactory())
+                    .isInstanceOf(SimpleClientHttpRequestFactory.class);
+            assertThat(context).doesNotHaveBean("registryHttpClient");
+        });
+    }
+}
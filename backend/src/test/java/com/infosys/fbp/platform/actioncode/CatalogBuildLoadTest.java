@@ -0,0 +1,201 @@
+package com.infosys.fbp.platform.actioncode;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.infosys.fbp.platform.actioncode.service.ActionCatalog;
+import com.infosys.fbp.platform.actioncode.service.ActionCatalogService;
+import com.infosys.fbp.platform.actioncode.service.ActionCodeService;
+import com.infosys.fbp.platform.actioncode.service.CatalogEntry;
+import com.infosys.fbp.platform.actioncode.service.RegistryDocumentFetcher;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of catalog builds against an embedded WireMock registry stand-in.
+ * <p>
+ * The registry serves a generated manifest of {@code loadtest.schemas} distinct schemas derived from
+ * the {@code create-demandCode.json} fixture (the one under {@code mocking/__files}). Each schema answers
+ * after {@code loadtest.latency-ms} plus up to {@code loadtest.jitter-ms} of uniform jitter, and a seeded
+ * {@code loadtest.failure-rate} share of them answers 503. The test reports:
+ * <ul>
+ *     <li>wall time and registry requests of a cold and of a warm (revalidating) catalog build,</li>
+ *     <li>p50/p99 latency of {@code /api/actions} for {@code loadtest.clients} concurrent clients issuing
+ *     {@code loadtest.requests} requests, starting from a cold catalog, and the registry requests they caused.</li>
+ * </ul>
+ * Tagged {@code load} and excluded from the default build; run with
+ * {@code mvn -Pload-test test -Dloadtest.schemas=5000 -Dloadtest.latency-ms=80}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "catalog.snapshot.enabled=false",
+        "manifest.ingestion.build-timeout=10m",
+        "logging.level.com.infosys.fbp.platform.actioncode.service=WARN"
+})
+@Slf4j
+class CatalogBuildLoadTest {
+
+    private static final int SCHEMAS = Integer.getInteger("loadtest.schemas", 2000);
+    private static final int LATENCY_MS = Integer.getInteger("loadtest.latency-ms", 50);
+    private static final int JITTER_MS = Integer.getInteger("loadtest.jitter-ms", 50);
+    private static final double FAILURE_RATE = Double.parseDouble(System.getProperty("loadtest.failure-rate", "0.01"));
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 16);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 500);
+
+    private static final WireMockServer registry = new WireMockServer(options().dynamicPort());
+    private static int failingSchemas;
+
+    @Autowired
+    private ActionCodeService actionCodeService;
+
+    @Autowired
+    private ActionCatalogService actionCatalogService;
+
+    @Autowired
+    private RegistryDocumentFetcher documentFetcher;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void registryProperties(DynamicPropertyRegistry properties) throws Exception {
+        registry.start();
+        stubRegistry();
+        properties.add("manifest.base.url", () -> registry.baseUrl() + "/api/");
+        properties.add("manifest.api-list.context-path", () -> "manifest/apiList.json");
+    }
+
+    @AfterAll
+    static void stopRegistry() {
+        registry.stop();
+    }
+
+    @Test
+    void catalogBuildUnderRegistryLatency() throws Exception {
+        // 1. Cold build: every schema is fetched and parsed
+        documentFetcher.clear();
+        registry.resetRequests();
+        long start = System.nanoTime();
+        List<CatalogEntry> entries = actionCodeService.buildCatalogEntries(Map.of()).orElseThrow();
+        long coldMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int coldRequests = registryRequests();
+
+        // 2. Warm build: every schema is revalidated, nothing is re-parsed
+        registry.resetRequests();
+        start = System.nanoTime();
+        actionCodeService.buildCatalogEntries(Map.of()).orElseThrow();
+        long warmMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int warmRequests = registryRequests();
+
+        // 3. Concurrent clients against a cold catalog: one build, then served from memory
+        documentFetcher.clear();
+        actionCatalogService.invalidate();
+        registry.resetRequests();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(REQUESTS));
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<HttpStatus>> statuses = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                statuses.add(clients.submit(() -> {
+                    long requestStart = System.nanoTime();
+                    ResponseEntity<String> response = restTemplate.getForEntity("/api/actions", String.class);
+                    latencies.add(System.nanoTime() - requestStart);
+                    return HttpStatus.valueOf(response.getStatusCode().value());
+                }));
+            }
+            for (Future<HttpStatus> status : statuses) {
+                assertThat(status.get(10, TimeUnit.MINUTES)).isEqualTo(HttpStatus.OK);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        int endpointRequests = registryRequests();
+        ActionCatalog catalog = actionCatalogService.getCatalog().orElseThrow();
+
+        // Report
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        log.info("=== Catalog build load test ===");
+        log.info("Registry: {} schemas, {} ms latency + up to {} ms jitter, {} failing ({}%)",
+                SCHEMAS, LATENCY_MS, JITTER_MS, failingSchemas, String.format("%.1f", FAILURE_RATE * 100));
+        log.info("Cold build: {} ms, {} registry requests, {} of {} entries ingested",
+                coldMillis, coldRequests, entries.stream().filter(CatalogEntry::isIngested).count(), entries.size());
+        log.info("Warm build: {} ms, {} registry requests", warmMillis, warmRequests);
+        log.info("/api/actions: {} requests from {} clients, p50 {} ms, p99 {} ms, max {} ms, {} registry requests",
+                sorted.size(), CLIENTS, String.format("%.1f", percentile(sorted, 0.50)), String.format("%.1f", percentile(sorted, 0.99)),
+                String.format("%.1f", percentile(sorted, 1.0)), endpointRequests);
+
+        // Sanity: failing schemas are isolated, and concurrent clients share one build
+        assertThat(entries).hasSize(SCHEMAS);
+        assertThat(entries.stream().filter(CatalogEntry::isIngested).count()).isEqualTo(SCHEMAS - failingSchemas);
+        assertThat(catalog.getActions()).hasSize(SCHEMAS - failingSchemas);
+        assertThat(endpointRequests).isLessThanOrEqualTo(coldRequests);
+    }
+
+    private static void stubRegistry() throws Exception {
+        String template;
+        try (InputStream inputStream = new ClassPathResource("create-demandCode.json").getInputStream()) {
+            template = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Random random = new Random(42); // Same failing schemas on every run
+        StringBuilder manifest = new StringBuilder("{ \"components\": { \"LoadTest\": { \"apiSchemas\": {");
+        for (int i = 0; i < SCHEMAS; i++) {
+            String actionCode = "create-demandCode-" + i;
+            String path = "docs/" + actionCode + ".json";
+            manifest.append(i == 0 ? "" : ",").append('"').append(actionCode).append("\": \"").append(path).append('"');
+
+            boolean failing = random.nextDouble() < FAILURE_RATE;
+            failingSchemas += failing ? 1 : 0;
+            registry.stubFor(get(urlEqualTo("/api/" + path)).willReturn(failing
+                    ? aResponse().withStatus(503).withUniformRandomDelay(LATENCY_MS, LATENCY_MS + JITTER_MS)
+                    : aResponse().withStatus(200).withHeader("Content-Type", "application/json")
+                            .withHeader("ETag", "\"v1-" + i + "\"")
+                            // Distinct content per schema, so every one is parsed as in a real registry
+                            .withBody(template.replace("/api/demandCodeCreation/", "/api/demandCodeCreation" + i + "/"))
+                            .withUniformRandomDelay(LATENCY_MS, LATENCY_MS + JITTER_MS)));
+        }
+        registry.stubFor(get(urlEqualTo("/api/manifest/apiList.json")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(manifest.append("} } } }").toString())));
+    }
+
+    private static int registryRequests() {
+        return registry.countRequestsMatching(anyRequestedFor(anyUrl()).build()).getCount();
+    }
+
+    private static double percentile(List<Long> sortedNanos, double quantile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
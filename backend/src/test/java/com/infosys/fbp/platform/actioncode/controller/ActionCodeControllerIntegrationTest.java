@@ -1,14 +1,18 @@
 package com.infosys.fbp.platform.actioncode.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.actioncode.service.ActionCatalogService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureMockRestServiceServer;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
@@ -16,16 +20,25 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// No snapshot warm start: its background reconcile would race the mock server expectations below
+@SpringBootTest(properties = "catalog.snapshot.enabled=false")
 @AutoConfigureMockMvc
+@AutoConfigureObservability // Tests disable metrics export by default; the Prometheus endpoint is asserted below
 @AutoConfigureMockRestServiceServer // Enable mocking of RestTemplate calls
 public class ActionCodeControllerIntegrationTest {
 
@@ -41,6 +54,9 @@ public class ActionCodeControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper; // For comparing JSON
 
+    @Autowired
+    private ActionCatalogService actionCatalogService; // Cleared so each test starts from a cold cache
+
     @Value("${manifest.base.url}")
     private String manifestBaseUrl;
 
@@ -58,8 +74,9 @@ public class ActionCodeControllerIntegrationTest {
         createDemandCodeContent = loadResourceContent("create-demandCode.json");
         expectedActionCodeListContent = loadResourceContent("ActionCodeList.json");
 
-        // Reset the mock server before each test
+        // Reset the mock server and the catalog cache before each test
         mockServer.reset();
+        actionCatalogService.invalidate();
 
         // Define mock responses for external HTTP calls
         String manifestUrl = manifestBaseUrl + manifestContextPath;
@@ -87,6 +104,169 @@ public class ActionCodeControllerIntegrationTest {
         mockServer.verify();
     }
 
+    @Test
+    void testGetActionCodes_repeatRequestsAreServedFromCache() throws Exception {
+        // First request builds the catalog from the (mocked) registry
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // Second request must not hit the registry again; the mock server only allows one call each
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(expectedActionCodeListContent));
+
+        mockServer.verify();
+    }
+
+    @Test
+    void testPrometheusEndpoint_exposesCatalogMetrics() throws Exception {
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("catalog_manifest_fetch_seconds_count{")))
+                .andExpect(content().string(containsString("catalog_schema_fetch_seconds_count{")))
+                .andExpect(content().string(containsString("catalog_schema_parse_seconds_count{")))
+                .andExpect(content().string(containsString("catalog_build_seconds_count{")))
+                .andExpect(content().string(containsString("catalog_actions 1.0")))
+                .andExpect(content().string(containsString("catalog_columns 44.0")))
+                .andExpect(content().string(containsString("scenario_store_scenarios")));
+        mockServer.verify();
+    }
+
+    @Test
+    void testCatalogBuildDiagnostics_listsLatestBuildFirst() throws Exception {
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/diagnostics/catalog-builds").param("limit", "1").param("top", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].outcome").value("success"))
+                .andExpect(jsonPath("$[0].ingested").value(1))
+                .andExpect(jsonPath("$[0].actions[0].actionCode").value("create-demandCode"))
+                .andExpect(jsonPath("$[0].actions[0].outcome").value("ingested"))
+                .andExpect(jsonPath("$[0].actions[0].fetchBytes").value(createDemandCodeContent.getBytes(StandardCharsets.UTF_8).length));
+        mockServer.verify();
+    }
+
+    @Test
+    void testCatalogBuildDiagnostics_rejectsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/diagnostics/catalog-builds").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("limit must be at least 1"));
+    }
+
+    @Test
+    void testGetActionCodes_gzipWhenAccepted() throws Exception {
+        byte[] compressed = mockMvc.perform(get("/api/actions")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING))) // CORS adds its own Vary values
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // The compressed body must decode to the same JSON
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            JSONAssert.assertEquals(expectedActionCodeListContent, new String(in.readAllBytes(), StandardCharsets.UTF_8), false);
+        }
+        mockServer.verify();
+    }
+
+    @Test
+    void testGetActionCodes_notModifiedForMatchingETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Revalidation with the same ETag gets no body
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockServer.verify();
+    }
+
+    @Test
+    void testGetActionCodes_eTagDiffersPerContentCoding() throws Exception {
+        String identityEtag = mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, not(identityEtag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A validator for one coding does not revalidate the other
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/actions").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+
+        mockServer.verify();
+    }
+
+    @Test
+    void testGetActionCodes_summaryViewOmitsColumnLists() throws Exception {
+        mockMvc.perform(get("/api/actions")
+                        .param("view", "summary")
+                        .param("component", "Collection")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].actionCode").value("create-demandCode"))
+                .andExpect(jsonPath("$[0].requestColumnCount").isNumber())
+                .andExpect(jsonPath("$[0].requestBodyColumnList").doesNotExist())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockServer.verify();
+    }
+
+    @Test
+    void testGetActionCodes_unknownComponentIsEmpty() throws Exception {
+        mockMvc.perform(get("/api/actions").param("component", "Unknown").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void testGetActionCodes_invalidParametersAreRejected() throws Exception {
+        mockMvc.perform(get("/api/actions").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/actions").param("view", "compact"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/actions").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAction_returnsFullActionOr404() throws Exception {
+        mockMvc.perform(get("/api/actions/create-demandCode").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.componentName").value("Collection"))
+                .andExpect(jsonPath("$.requestBodyColumnList").isArray());
+
+        mockMvc.perform(get("/api/actions/create-demandCode").param("component", "Billing"))
+                .andExpect(status().isNotFound());
+
+        mockServer.verify();
+    }
+
+    @Test
+    void testInvalidateActionCatalog() throws Exception {
+        mockMvc.perform(post("/api/actions/cache/invalidate"))
+                .andExpect(status().isNoContent());
+    }
+
     // Helper method to load content from classpath resources
     private String loadResourceContent(String resourcePath) throws Exception {
         ClassPathResource resource = new ClassPathResource(resourcePath);
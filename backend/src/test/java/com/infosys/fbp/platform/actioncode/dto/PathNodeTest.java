@@ -0,0 +1,108 @@
+package com.infosys.fbp.platform.actioncode.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathNodeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_shouldReturnCanonicalNodes() {
+        // Act
+        PathNode details = PathNode.of(":request:demandCode:details");
+
+        // Assert
+        assertThat(PathNode.of(":request").resolve(":demandCode:details")).isSameAs(details);
+        assertThat(PathNode.of(":request:demandCode").child("details")).isSameAs(details);
+        assertThat(details.path()).isEqualTo(":request:demandCode:details");
+        assertThat(details.path("city")).isEqualTo(":request:demandCode:details:city");
+        assertThat(PathNode.of("")).isSameAs(PathNode.root());
+        assertThat(PathNode.root().path()).isEmpty();
+    }
+
+    @Test
+    void startsWith_shouldMatchNodeAndDescendantsOnly() {
+        PathNode data = PathNode.of(":response:data");
+
+        assertThat(PathNode.of(":response:data").startsWith(data)).isTrue();
+        assertThat(PathNode.of(":response:data:items").startsWith(data)).isTrue();
+        assertThat(PathNode.of(":response:dataset").startsWith(data)).isFalse();
+        assertThat(PathNode.of(":response").startsWith(data)).isFalse();
+        assertThat(PathNode.find(":response:never-stored")).isEmpty();
+    }
+
+    @Test
+    void columns_shouldSerializeDerivedPathsAndRoundTrip() throws Exception {
+        // Arrange
+        RequestBodyColumnInfo column = new RequestBodyColumnInfo("city", true, PathNode.of(":request:address"));
+
+        // Act
+        String json = objectMapper.writeValueAsString(column);
+        RequestBodyColumnInfo read = objectMapper.readValue(json, RequestBodyColumnInfo.class);
+
+        // Assert
+        assertThat(json).isEqualTo("{\"technicalColumnName\":\"city\",\"isMandatory\":true,\"derivedDataType\":\":request:address\"," +
+                "\"attributePath\":\":request:address:city\",\"attributeGridPath\":\":request:address:city\"}");
+        assertThat(read).isEqualTo(column);
+        assertThat(read.getParentPath()).isSameAs(column.getParentPath());
+    }
+
+    @Test
+    void columns_shouldReadTheSameWhateverThePropertyOrder() throws Exception {
+        // Attribute paths before the properties they are derived from
+        String reordered = "{\"attributePath\":\":request:address:city\",\"attributeGridPath\":\":grid:city\"," +
+                "\"derivedDataType\":\":request:address\",\"technicalColumnName\":\"city\",\"isMandatory\":true}";
+
+        RequestBodyColumnInfo read = objectMapper.readValue(reordered, RequestBodyColumnInfo.class);
+        read.setDerivedDataType(":request:home");
+
+        assertThat(read.getAttributePath()).isEqualTo(":request:home:city"); // Was derived, so follows the type
+        assertThat(read.getAttributeGridPath()).isEqualTo(":grid:city");
+        assertThat(objectMapper.readValue(reordered, ResponseBodyColumnInfo.class))
+                .isEqualTo(new ResponseBodyColumnInfo("city", true, ":request:address", null, ":grid:city"));
+    }
+
+    @Test
+    void setters_shouldKeepPathsWhateverTheCallOrder() {
+        RequestBodyColumnInfo column = new RequestBodyColumnInfo();
+        column.setDerivedDataType(":request:address");
+        column.setTechnicalColumnName("city");
+        column.setAttributePath(":request:address:city"); // Equal to the derived path only until the rename
+        column.setTechnicalColumnName("street");
+
+        assertThat(column.getAttributePath()).isEqualTo(":request:address:city");
+        assertThat(column.getAttributeGridPath()).isEqualTo(":request:address:street");
+    }
+
+    @Test
+    void setters_shouldKeepPathsThatDifferFromTheDerivedOnes() {
+        ResponseBodyColumnInfo column = new ResponseBodyColumnInfo("id", false, ":response:data", ":response:data:id", ":grid:id");
+
+        assertThat(column.getAttributePath()).isEqualTo(":response:data:id");
+        assertThat(column.getAttributeGridPath()).isEqualTo(":grid:id");
+
+        column.setDerivedDataType(":response:items");
+        assertThat(column.getAttributePath()).isEqualTo(":response:items:id");
+    }
+
+    @Test
+    void actionCodeInfo_shouldListColumnsUnderPathPrefix() {
+        // Arrange
+        ActionCodeInfo info = new ActionCodeInfo();
+        info.setResponseBodyColumnList(List.of(
+                new ResponseBodyColumnInfo("id", true, PathNode.of(":response:data")),
+                new ResponseBodyColumnInfo("city", false, PathNode.of(":response:data:address")),
+                new ResponseBodyColumnInfo("code", false, PathNode.of(":response:errors"))));
+
+        // Act & Assert
+        assertThat(info.responseColumnsUnder(":response:data"))
+                .extracting(ResponseBodyColumnInfo::getTechnicalColumnName).containsExactly("id", "city");
+        assertThat(info.responseColumnsUnder(":response:unknown")).isEmpty();
+        assertThat(info.requestColumnsUnder(":request")).isEmpty();
+    }
+}
@@ -0,0 +1,532 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ActionCatalogServiceTest {
+
+    private final ActionCodeService actionCodeService = mock(ActionCodeService.class);
+    private final ActionCatalogSnapshotStore snapshotStore = mock(ActionCatalogSnapshotStore.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ActionCatalogService catalogService;
+    @Captor
+    private ArgumentCaptor<Map<String, CatalogEntry>> previous; // Entries each build was given to carry over
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (catalogService != null) {
+            catalogService.shutdown();
+        }
+        mocks.close();
+    }
+
+    @Test
+    void getActions_shouldBuildOnceAndServeFromMemoryWithinTtl() {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenReturn(Optional.of(List.of(entry("create-a"))));
+
+        // Act
+        List<ActionCodeInfo> first = catalogService.getActions();
+        List<ActionCodeInfo> second = catalogService.getActions();
+
+        // Assert
+        assertThat(first).extracting(ActionCodeInfo::getActionCode).containsExactly("create-a");
+        assertThat(second).isSameAs(first);
+        verify(actionCodeService, times(1)).buildCatalogEntries(anyMap());
+    }
+
+    @Test
+    void getActions_shouldShareOneColdBuildBetweenConcurrentCallers() throws Exception {
+        // Arrange: the build blocks until every caller has arrived
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenAnswer(invocation -> {
+            buildStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(List.of(entry("create-a")));
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<List<ActionCodeInfo>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> catalogService.getActions()));
+            }
+            assertThat(buildStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100); // Let the other callers reach the in-flight build
+            release.countDown();
+
+            // Assert
+            for (Future<List<ActionCodeInfo>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).extracting(ActionCodeInfo::getActionCode).containsExactly("create-a");
+            }
+            verify(actionCodeService, times(1)).buildCatalogEntries(anyMap());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void getActions_shouldServeStaleCatalogWhileRefreshingInBackground() throws Exception {
+        // Arrange: zero TTL makes every cached catalog stale immediately; the refresh waits to be released
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ZERO, true, Duration.ofHours(1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("v1"))))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(List.of(entry("v2")));
+                });
+        catalogService.getActions(); // Cold build of v1
+        Thread.sleep(5); // Ensure the catalog is strictly older than the zero TTL
+
+        // Act: the stale read still returns v1 and triggers a refresh
+        List<ActionCodeInfo> stale = catalogService.getActions();
+        CompletableFuture<Void> refresh = catalogService.refreshAsync(); // Joins the refresh triggered by the stale read
+        release.countDown();
+        refresh.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(stale).extracting(ActionCodeInfo::getActionCode).containsExactly("v1");
+        verify(actionCodeService, times(2)).buildCatalogEntries(anyMap());
+        assertThat(catalogService.getCatalog().get().getActions())
+                .extracting(ActionCodeInfo::getActionCode).containsExactly("v2");
+    }
+
+    @Test
+    void refresh_shouldKeepLastGoodCatalogWhenRebuildFails() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("good"))))
+                .thenReturn(Optional.empty()); // Manifest unavailable on refresh
+        catalogService.getActions();
+
+        // Act
+        catalogService.refreshAsync().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(catalogService.getActions()).extracting(ActionCodeInfo::getActionCode).containsExactly("good");
+        verify(actionCodeService, times(2)).buildCatalogEntries(anyMap());
+    }
+
+    @Test
+    void invalidate_shouldForceRebuildOnNextRead() {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("v1"))))
+                .thenReturn(Optional.of(List.of(entry("v2"))));
+        catalogService.getActions();
+
+        // Act
+        catalogService.invalidate();
+        List<ActionCodeInfo> rebuilt = catalogService.getActions();
+
+        // Assert
+        assertThat(rebuilt).extracting(ActionCodeInfo::getActionCode).containsExactly("v2");
+        assertThat(catalogService.getCatalog().get().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_duringRefreshShouldJoinItInsteadOfBuildingAgain() throws Exception {
+        // Arrange: the refresh blocks inside the build until released
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("v1"))))
+                .thenAnswer(invocation -> {
+                    refreshing.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(List.of(entry("v2")));
+                })
+                .thenReturn(Optional.of(List.of(entry("v3"))));
+        catalogService.getActions();
+        catalogService.refreshAsync();
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act: a read after invalidation waits for the running refresh, which is redone from scratch
+        catalogService.invalidate();
+        List<Thread> readerThread = new ArrayList<>();
+        ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            readerThread.add(thread);
+            return thread;
+        });
+        try {
+            Future<List<ActionCodeInfo>> rebuilt = reader.submit(() -> catalogService.getActions());
+            while (readerThread.isEmpty() || readerThread.get(0).getState() == Thread.State.NEW
+                    || readerThread.get(0).getState() == Thread.State.RUNNABLE) {
+                Thread.sleep(1); // Until the reader is parked on the refresh
+            }
+            release.countDown();
+
+            // Assert
+            assertThat(rebuilt.get(5, TimeUnit.SECONDS)).extracting(ActionCodeInfo::getActionCode).containsExactly("v3");
+            verify(actionCodeService, times(3)).buildCatalogEntries(anyMap()); // Cold build, dropped refresh, its redo
+        } finally {
+            release.countDown();
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    void schemaSourceChange_duringColdBuildShouldRunAfterIt() throws Exception {
+        // Arrange: the cold build blocks inside the build until released
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenAnswer(invocation -> {
+                    building.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(List.of(entry("old")));
+                })
+                .thenReturn(Optional.of(List.of(entry("changed"))));
+        when(actionCodeService.resolveDocumentUri(anyString()))
+                .thenAnswer(invocation -> URI.create("file:///specs/").resolve(invocation.<String>getArgument(0)));
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<ActionCodeInfo>> cold = reader.submit(() -> catalogService.getActions());
+            assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act
+            CompletableFuture<Void> changed = catalogService.onSchemaSourceChanged(
+                    new SchemaSourceChangedEvent(Set.of(URI.create("file:///specs/docs/changed.json"))));
+            Thread.sleep(100); // Time for a build started next to the cold one to reach the registry
+            verify(actionCodeService, times(1)).buildCatalogEntries(anyMap());
+            release.countDown();
+
+            // Assert: the change is built after the cold build, so it is what is served
+            assertThat(cold.get(5, TimeUnit.SECONDS)).extracting(ActionCodeInfo::getActionCode).containsExactly("old");
+            changed.get(5, TimeUnit.SECONDS);
+            assertThat(catalogService.getActions()).extracting(ActionCodeInfo::getActionCode).containsExactly("changed");
+        } finally {
+            release.countDown();
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    void refresh_shouldCompleteExceptionallyAndKeepCatalogWhenRebuildThrows() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("good"))))
+                .thenThrow(new IllegalStateException("registry exploded"));
+        catalogService.getActions();
+
+        // Act
+        CompletableFuture<Void> refresh = catalogService.refreshAsync();
+
+        // Assert: the failure reaches the future (and the log) instead of being dropped
+        assertThat(refresh).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(catalogService.getActions()).extracting(ActionCodeInfo::getActionCode).containsExactly("good");
+        assertThat(catalogService.refreshAsync()).isNotSameAs(refresh); // A failed refresh does not block the next one
+    }
+
+    @Test
+    void invalidate_duringRefreshShouldRedoItAsFullBuild() throws Exception {
+        // Arrange: the refresh blocks inside the build until released
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("v1"))))
+                .thenAnswer(invocation -> {
+                    refreshing.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(List.of(entry("v1"), entry("stale")));
+                })
+                .thenReturn(Optional.of(List.of(entry("fresh"))));
+        catalogService.getActions();
+        CompletableFuture<Void> refresh = catalogService.refreshAsync();
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        catalogService.invalidate();
+        release.countDown();
+        refresh.get(5, TimeUnit.SECONDS);
+
+        // Assert: the incremental result was dropped and rebuilt without carrying anything over
+        verify(actionCodeService, times(3)).buildCatalogEntries(previous.capture());
+        assertThat(previous.getAllValues().get(1)).containsOnlyKeys("Collection/v1");
+        assertThat(previous.getAllValues().get(2)).isEmpty();
+        assertThat(catalogService.getActions()).extracting(ActionCodeInfo::getActionCode).containsExactly("fresh");
+    }
+
+    @Test
+    void refresh_shouldDiffAgainstPreviousEntriesWhenIncremental() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("v1"))))
+                .thenReturn(Optional.of(List.of(entry("v1"), entry("v2"))));
+        catalogService.getActions(); // Cold start is always a full build
+
+        // Act
+        catalogService.refreshAsync().get(5, TimeUnit.SECONDS);
+
+        // Assert: the cold build passed no previous entries, the refresh passed the cold build's entries
+        verify(actionCodeService, times(2)).buildCatalogEntries(previous.capture());
+        assertThat(previous.getAllValues().get(0)).isEmpty();
+        assertThat(previous.getAllValues().get(1)).containsOnlyKeys("Collection/v1");
+        assertThat(catalogService.getActions()).extracting(ActionCodeInfo::getActionCode).containsExactly("v1", "v2");
+    }
+
+    @Test
+    void schemaSourceChange_shouldReingestOnlyEntriesOfChangedFiles() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenReturn(Optional.of(List.of(entry("a"), entry("b"))));
+        when(actionCodeService.resolveDocumentUri(anyString()))
+                .thenAnswer(invocation -> URI.create("file:///specs/").resolve(invocation.<String>getArgument(0)));
+        catalogService.getActions();
+
+        // Act
+        catalogService.onSchemaSourceChanged(new SchemaSourceChangedEvent(Set.of(URI.create("file:///specs/docs/b.json"))))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert: the changed entry is not carried over, so the build re-ingests it
+        verify(actionCodeService, times(2)).buildCatalogEntries(previous.capture());
+        assertThat(previous.getAllValues().get(1)).containsOnlyKeys("Collection/a");
+    }
+
+    @Test
+    void refresh_shouldRunFullBuildWhenIncrementalDisabled() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), false, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenReturn(Optional.of(List.of(entry("v1"))));
+        catalogService.getActions();
+
+        // Act
+        catalogService.refreshAsync().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        verify(actionCodeService, times(2)).buildCatalogEntries(Map.of());
+    }
+
+    @Test
+    void warmStart_shouldServeSnapshotWhileRegistryIsUnavailable() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        ActionCatalogSnapshot snapshot = new ActionCatalogSnapshot();
+        snapshot.setBuiltAt(Instant.now());
+        snapshot.setFullBuildAt(Instant.now());
+        snapshot.setEntries(List.of(entry("from-snapshot")));
+        when(snapshotStore.isEnabled()).thenReturn(true);
+        when(snapshotStore.load()).thenReturn(Optional.of(snapshot));
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenReturn(Optional.empty()); // Registry down
+
+        // Act
+        catalogService.warmStart();
+
+        // Assert
+        verify(actionCodeService).importRegistryState(snapshot);
+        verify(actionCodeService, timeout(5000)).buildCatalogEntries(anyMap()); // The background reconcile
+        assertThat(catalogService.getActions()).extracting(ActionCodeInfo::getActionCode).containsExactly("from-snapshot");
+    }
+
+    @Test
+    void getPayload_shouldSerializeEachCatalogVersionOnce() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("v1"))))
+                .thenReturn(Optional.of(List.of(entry("v1"), entry("v2"))));
+
+        // Act
+        ActionCatalogPayload first = catalogService.getPayload().orElseThrow();
+        ActionCatalogPayload again = catalogService.getPayload().orElseThrow();
+        catalogService.refreshAsync().get(5, TimeUnit.SECONDS);
+        ActionCatalogPayload refreshed = catalogService.getPayload().orElseThrow();
+
+        // Assert
+        assertThat(again).isSameAs(first);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).contains("\"actionCode\":\"v1\"");
+        try (InputStream gunzipped = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertThat(gunzipped.readAllBytes()).isEqualTo(first.json());
+        }
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(refreshed.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void findActions_shouldFilterAndPageWithCursor() {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        ActionCodeInfo billing = new ActionCodeInfo();
+        billing.setComponentName("Billing");
+        billing.setActionCode("other-x");
+        CatalogEntry other = new CatalogEntry("Billing", "other-x", "docs/other-x.json", "hash-other-x", billing);
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("a"), other, entry("b"), entry("c"))));
+
+        // Act
+        ActionPage first = catalogService.findActions(new ActionQuery("Collection", null, null, null, 2));
+        ActionPage second = catalogService.findActions(new ActionQuery("Collection", null, null, first.nextCursor(), 2));
+
+        // Assert
+        assertThat(first.actions()).extracting(ActionCodeInfo::getActionCode).containsExactly("a", "b");
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(second.actions()).extracting(ActionCodeInfo::getActionCode).containsExactly("c");
+        assertThat(second.nextCursor()).isNull();
+        assertThat(catalogService.findAction("other-x", null)).map(ActionCodeInfo::getComponentName).contains("Billing");
+        assertThat(catalogService.findAction("other-x", "Collection")).isEmpty();
+    }
+
+    @Test
+    void findActions_shouldResumeAfterCursorEntryWhenCatalogChanges() throws Exception {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(entry("a"), entry("b"), entry("c"))))
+                .thenReturn(Optional.of(List.of(entry("new"), entry("a"), entry("b"), entry("c"))));
+        ActionPage first = catalogService.findActions(new ActionQuery(null, null, null, null, 2));
+
+        // Act: an action is inserted ahead of the cursor position
+        catalogService.refreshAsync().get(5, TimeUnit.SECONDS);
+        ActionPage second = catalogService.findActions(new ActionQuery(null, null, null, first.nextCursor(), 2));
+
+        // Assert
+        assertThat(second.actions()).extracting(ActionCodeInfo::getActionCode).containsExactly("c");
+    }
+
+    @Test
+    void findAction_shouldResolveLazyStubOnceUnderConcurrentLookups() throws Exception {
+        // Arrange: the manifest only yields a stub; ingestion blocks until both lookups are waiting
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CatalogEntry stub = stub("lazy-a");
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenReturn(Optional.of(List.of(stub)));
+        CountDownLatch ingesting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CatalogEntry resolved = entry("lazy-a");
+        resolved.info().setType("PostAndVerify");
+        when(actionCodeService.resolveEntry(stub)).thenAnswer(invocation -> {
+            ingesting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return resolved;
+        });
+        catalogService.getCatalog(); // Cold build of the stub catalog
+
+        // Act
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<ActionCodeInfo>> first = callers.submit(() -> catalogService.findAction("lazy-a", null));
+            assertThat(ingesting.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Optional<ActionCodeInfo>> second = callers.submit(() -> catalogService.findAction("lazy-a", null));
+            Thread.sleep(50); // Let the second lookup join the in-flight ingestion
+            release.countDown();
+
+            // Assert
+            assertThat(first.get(5, TimeUnit.SECONDS)).map(ActionCodeInfo::getType).contains("PostAndVerify");
+            assertThat(second.get(5, TimeUnit.SECONDS)).map(ActionCodeInfo::getType).contains("PostAndVerify");
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(actionCodeService, times(1)).resolveEntry(stub);
+        assertThat(catalogService.getCatalog().get().getEntries()).containsExactly(resolved);
+        assertThat(catalogService.findAction("lazy-a", null)).map(ActionCodeInfo::getType).contains("PostAndVerify");
+        verify(actionCodeService, times(1)).resolveEntry(any());
+    }
+
+    @Test
+    void findAction_shouldKeepStubWhenLazyResolutionFails() {
+        // Arrange
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CatalogEntry stub = stub("lazy-b");
+        when(actionCodeService.buildCatalogEntries(anyMap())).thenReturn(Optional.of(List.of(stub)));
+        when(actionCodeService.resolveEntry(stub))
+                .thenReturn(new CatalogEntry("Collection", "lazy-b", stub.schemaPath(), null, null))
+                .thenReturn(entry("lazy-b"));
+
+        // Act & Assert: the failed attempt is not published and the next lookup retries
+        assertThat(catalogService.findAction("lazy-b", null)).isEmpty();
+        assertThat(catalogService.getCatalog().get().getEntries()).containsExactly(stub);
+        assertThat(catalogService.findAction("lazy-b", null)).isPresent();
+        verify(actionCodeService, times(2)).resolveEntry(stub);
+    }
+
+    @Test
+    void findAction_resolvedDuringRefreshShouldSurviveItsPublish() throws Exception {
+        // Arrange: the refresh, started on top of the stub catalog, blocks inside the build until released
+        catalogService = new ActionCatalogService(actionCodeService, snapshotStore, objectMapper, Duration.ofHours(1), true, Duration.ofHours(1));
+        CatalogEntry stub = stub("lazy-c");
+        CatalogEntry resolved = entry("lazy-c");
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(actionCodeService.buildCatalogEntries(anyMap()))
+                .thenReturn(Optional.of(List.of(stub)))
+                .thenAnswer(invocation -> {
+                    refreshing.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(List.of(stub));
+                });
+        when(actionCodeService.resolveEntry(stub)).thenReturn(resolved);
+        catalogService.getCatalog(); // Cold build of the stub catalog
+        CompletableFuture<Void> refresh = catalogService.refreshAsync();
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        assertThat(catalogService.findAction("lazy-c", null)).isPresent();
+        release.countDown();
+        refresh.get(5, TimeUnit.SECONDS);
+
+        // Assert: the refreshed catalog keeps the resolution instead of bringing the stub back
+        assertThat(catalogService.getCatalog().get().getEntries()).containsExactly(resolved);
+        assertThat(catalogService.findAction("lazy-c", null)).isPresent();
+        verify(actionCodeService, times(1)).resolveEntry(stub);
+    }
+
+    private CatalogEntry stub(String actionCode) {
+        ActionCodeInfo info = new ActionCodeInfo();
+        info.setComponentName("Collection");
+        info.setActionCode(actionCode);
+        return new CatalogEntry("Collection", actionCode, "docs/" + actionCode + ".json", null, info);
+    }
+
+    private CatalogEntry entry(String actionCode) {
+        ActionCodeInfo info = new ActionCodeInfo();
+        info.setComponentName("Collection");
+        info.setActionCode(actionCode);
+        return new CatalogEntry("Collection", actionCode, "docs/" + actionCode + ".json", "hash-" + actionCode, info);
+    }
+}
@@ -0,0 +1,95 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+import com.infosys.fbp.platform.actioncode.dto.ApiListManifest;
+import com.infosys.fbp.platform.actioncode.dto.ComponentDetail;
+import com.infosys.fbp.platform.actioncode.dto.RequestBodyColumnInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionCatalogSnapshotStoreTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void saveAndLoad_shouldRoundTripCatalogAndValidators() {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("catalog/action-catalog.json.gz");
+        ActionCatalogSnapshotStore store = new ActionCatalogSnapshotStore(objectMapper, true, snapshotFile.toString());
+        ActionCatalogSnapshot snapshot = createSnapshot();
+
+        // Act
+        store.save(snapshot);
+        Optional<ActionCatalogSnapshot> loaded = store.load();
+
+        // Assert
+        assertThat(snapshotFile).exists();
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get()).usingRecursiveComparison().isEqualTo(snapshot);
+    }
+
+    @Test
+    void load_shouldReturnEmpty_whenSnapshotIsMissingOrCorrupt() throws Exception {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("action-catalog.json.gz");
+        ActionCatalogSnapshotStore store = new ActionCatalogSnapshotStore(objectMapper, true, snapshotFile.toString());
+
+        // Act & Assert
+        assertThat(store.load()).isEmpty();
+        Files.writeString(snapshotFile, "not gzip");
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void save_shouldDoNothing_whenDisabled() {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("action-catalog.json.gz");
+        ActionCatalogSnapshotStore store = new ActionCatalogSnapshotStore(objectMapper, false, snapshotFile.toString());
+
+        // Act
+        store.save(createSnapshot());
+
+        // Assert
+        assertThat(snapshotFile).doesNotExist();
+        assertThat(store.load()).isEmpty();
+    }
+
+    private ActionCatalogSnapshot createSnapshot() {
+        ActionCodeInfo info = new ActionCodeInfo();
+        info.setComponentName("Collection");
+        info.setActionCode("create-demandCode");
+        info.setEndPoint("/demandCode");
+        info.setType("PostAndVerify");
+        info.setRequestBodyColumnList(List.of(new RequestBodyColumnInfo("code", true, ":request", ":request:code", ":request:code")));
+
+        ComponentDetail componentDetail = new ComponentDetail();
+        componentDetail.setApiSchemas(Map.of("create-demandCode", "docs/create-demandCode.json"));
+        ApiListManifest manifest = new ApiListManifest();
+        manifest.setComponents(Map.of("Collection", componentDetail));
+
+        ActionCatalogSnapshot snapshot = new ActionCatalogSnapshot();
+        snapshot.setBuiltAt(Instant.parse("2025-01-01T10:00:00Z"));
+        snapshot.setFullBuildAt(Instant.parse("2025-01-01T09:00:00Z"));
+        snapshot.setManifestHash("manifest-hash");
+        snapshot.setManifest(manifest);
+        snapshot.setEntries(List.of(new CatalogEntry("Collection", "create-demandCode", "docs/create-demandCode.json", "schema-hash", info)));
+        snapshot.setDocuments(List.of(new RegistryDocument(URI.create("http://registry/docs/create-demandCode.json"),
+                null, "\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", "schema-hash", false)));
+        return snapshot;
+    }
+}
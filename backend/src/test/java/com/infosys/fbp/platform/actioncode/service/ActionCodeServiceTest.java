@@ -3,7 +3,10 @@ package com.infosys.fbp.platform.actioncode.service;
 // import com.fasterxml.jackson.core.type.TypeReference; // Keep for expected result loading
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
-// import org.junit.jupiter.api.BeforeEach; // Remove
+import com.infosys.fbp.platform.actioncode.dto.ParameterInfo;
+import com.infosys.fbp.platform.actioncode.dto.RequestBodyColumnInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith; // Add
 import org.springframework.beans.factory.annotation.Autowired; // Add
@@ -13,26 +16,34 @@ import org.springframework.http.HttpMethod; // Add
 import org.springframework.http.HttpStatus; // Add
 import org.springframework.http.MediaType; // Add
 import org.springframework.context.annotation.Import; // Add
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource; // Add
 import org.springframework.test.context.junit.jupiter.SpringExtension; // Add
 import org.springframework.test.web.client.ExpectedCount; // Add
 import org.springframework.test.web.client.MockRestServiceServer; // Add
+import org.springframework.test.web.client.ResponseCreator;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*; // Add static imports
 import static org.springframework.test.web.client.response.MockRestResponseCreators.*; // Add static imports
 // import com.infosys.fbp.platform.AppConfig; // Remove import for AppConfig
 import com.infosys.fbp.platform.RestClientConfig; // Add import for RestClientConfig
+import org.springframework.web.client.RestTemplate;
 
 import java.io.InputStream;
 import java.util.List;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets; // Add
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @ExtendWith(SpringExtension.class)
-@RestClientTest(ActionCodeService.class)
+@RestClientTest({ActionCodeService.class, RegistryDocumentFetcher.class})
 @Import(RestClientConfig.class) // Import RestClientConfig instead of AppConfig
 // Define the new base URL and context path properties for the test
 @TestPropertySource(properties = {
@@ -50,8 +61,16 @@ class ActionCodeServiceTest {
     @Autowired
     private MockRestServiceServer mockServer; // Autowire MockRestServiceServer (provided by @RestClientTest)
 
-    // @BeforeEach // Remove setUp method
-    // void setUp() { ... }
+    @Autowired
+    private RestTemplate restTemplate; // Needed to bind an unordered mock server for parallel ingestion
+
+    @Autowired
+    private RegistryDocumentFetcher documentFetcher; // Cleared so each test starts with unconditional fetches
+
+    @BeforeEach
+    void setUp() {
+        documentFetcher.clear();
+    }
 
     @Test
     void testGenerateActionCodeList() throws Exception {
@@ -374,4 +393,492 @@ class ActionCodeServiceTest {
         // 8. Verify mock server interactions
         this.mockServer.verify();
     }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testGenerateActionCodeList_ParallelIngestionKeepsManifestOrder() throws Exception {
+        // 1. Manifest with several components and action codes, all pointing at the same fixture
+        String manifest = "{ \"components\": {" +
+                "  \"Collection\": { \"apiSchemas\": {" +
+                "    \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\", \"create-c\": \"docs/c.json\" } }," +
+                "  \"Billing\": { \"apiSchemas\": {" +
+                "    \"create-d\": \"docs/d.json\", \"create-e\": \"docs/missing.json\", \"create-f\": \"docs/f.json\" } }" +
+                "} }";
+        String schema;
+        try (InputStream inputStream = new ClassPathResource("create-demandCode.json").getInputStream()) {
+            schema = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // 2. Schema requests complete in whatever order the pool issues them
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        for (String file : List.of("a", "b", "c", "d", "f")) {
+            unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/" + file + ".json"))
+                    .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        }
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/missing.json"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // 3. Call the service method
+        List<ActionCodeInfo> actualActionCodeList = actionCodeService.generateActionCodeList();
+
+        // 4. Output follows manifest order and the failing schema is isolated
+        assertThat(actualActionCodeList)
+                .extracting(ActionCodeInfo::getActionCode)
+                .containsExactly("create-a", "create-b", "create-c", "create-d", "create-f");
+        assertThat(actualActionCodeList)
+                .extracting(ActionCodeInfo::getComponentName)
+                .containsExactly("Collection", "Collection", "Collection", "Billing", "Billing");
+
+        unorderedServer.verify();
+    }
+
+    @Test
+    void testGenerateActionCodeList_RevalidatesWithConditionalRequests() throws Exception {
+        // 1. Load fixtures
+        String mockApiListJsonContent;
+        try (InputStream inputStream = new ClassPathResource("apiList.json").getInputStream()) {
+            mockApiListJsonContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String mockCreateDemandCodeJsonContent;
+        try (InputStream inputStream = new ClassPathResource("create-demandCode.json").getInputStream()) {
+            mockCreateDemandCodeJsonContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // 2. First build: the registry returns validators with each document
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(mockApiListJsonContent, MediaType.APPLICATION_JSON).header("ETag", "\"manifest-v1\""));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/create-demandCode.json"))
+                .andRespond(withSuccess(mockCreateDemandCodeJsonContent, MediaType.APPLICATION_JSON)
+                        .header("ETag", "\"schema-v1\"")
+                        .header("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT"));
+
+        // 3. Second build: the validators are sent back and the registry answers 304
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andExpect(header("If-None-Match", "\"manifest-v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/create-demandCode.json"))
+                .andExpect(header("If-None-Match", "\"schema-v1\""))
+                .andExpect(header("If-Modified-Since", "Wed, 21 Oct 2015 07:28:00 GMT"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // 4. Call the service method twice
+        List<ActionCodeInfo> firstBuild = actionCodeService.generateActionCodeList();
+        List<ActionCodeInfo> secondBuild = actionCodeService.generateActionCodeList();
+
+        // 5. The revalidated build is identical to the first one
+        assertThat(firstBuild).hasSize(1);
+        assertThat(secondBuild)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(firstBuild);
+
+        this.mockServer.verify();
+    }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testBuildCatalogEntries_IncrementalOnlyIngestsChangedEntries() throws Exception {
+        // 1. Load the schema fixture
+        String schema;
+        try (InputStream inputStream = new ClassPathResource("create-demandCode.json").getInputStream()) {
+            schema = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String manifestV1 = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\" } } } }";
+        // b is repointed, c is added and a is unchanged
+        String manifestV2 = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b2.json\", \"create-c\": \"docs/c.json\" } } } }";
+
+        // 2. First (full) build fetches every schema; the second fetches only b2 and c
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifestV1, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/a.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/b.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        List<CatalogEntry> firstBuild = actionCodeService.buildCatalogEntries(Map.of()).orElseThrow();
+        unorderedServer.verify();
+        unorderedServer.reset();
+
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifestV2, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/b2.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/c.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        Map<String, CatalogEntry> previous = new LinkedHashMap<>();
+        firstBuild.forEach(entry -> previous.put(entry.key(), entry));
+
+        // 3. Call the incremental build
+        List<CatalogEntry> secondBuild = actionCodeService.buildCatalogEntries(previous).orElseThrow();
+
+        // 4. The unchanged entry is carried over as-is, the others are re-ingested in manifest order
+        assertThat(secondBuild).extracting(CatalogEntry::actionCode).containsExactly("create-a", "create-b", "create-c");
+        assertThat(secondBuild.get(0)).isSameAs(firstBuild.get(0));
+        assertThat(secondBuild.get(1).schemaPath()).isEqualTo("docs/b2.json");
+        assertThat(secondBuild).allMatch(CatalogEntry::isIngested);
+
+        unorderedServer.verify();
+    }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testBuildCatalogEntries_ServiceSpecYieldsOneEntryPerOperation() throws Exception {
+        // 1. A manifest pointing at one full service spec next to a single-path schema
+        String manifest = "{ \"components\": { \"Orders\": {" +
+                " \"apiSchemas\": { \"create-demandCode\": \"docs/create-demandCode.json\" }," +
+                " \"serviceSpecs\": { \"order-service\": \"specs/order-service.json\" } } } }";
+        String spec = loadFixture("order-service.json");
+
+        // 2. The spec is fetched once for all of its operations, in whatever order the pool issues the requests
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/create-demandCode.json"))
+                .andRespond(withSuccess(loadFixture("create-demandCode.json"), MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/specs/order-service.json"))
+                .andRespond(withSuccess(spec, MediaType.APPLICATION_JSON));
+
+        List<CatalogEntry> entries = actionCodeService.buildCatalogEntries(Map.of()).orElseThrow();
+
+        // 3. Operation ids are used as action codes, otherwise method and path; duplicates get a suffix
+        assertThat(entries).extracting(CatalogEntry::actionCode).containsExactly(
+                "create-demandCode", "listOrders", "post-api-orders", "put-api-orders-id", "listOrders-2");
+        assertThat(entries).extracting(entry -> entry.info().getType()).containsExactly(
+                "PostAndVerify", "FetchAndVerify", "PostAndVerify", "PutAndVerify", "DeleteAndVerify");
+        assertThat(entries.get(0).specName()).isNull();
+        assertThat(entries.subList(1, 5)).allSatisfy(entry -> {
+            assertThat(entry.specName()).isEqualTo("order-service");
+            assertThat(entry.componentName()).isEqualTo("Orders");
+            assertThat(entry.info().getComponentName()).isEqualTo("Orders");
+        });
+        assertThat(entries.get(3).info().getEndPoint()).isEqualTo("/api/orders/{id}");
+        assertThat(entries.get(3).info().getPathPropertyListMap().getPathParamList())
+                .extracting(ParameterInfo::getTechnicalColumnName).containsExactly("id");
+        assertThat(entries.get(2).info().getRequestBodyColumnList())
+                .extracting(RequestBodyColumnInfo::getTechnicalColumnName).containsExactly("id", "amount");
+        unorderedServer.verify();
+
+        // 4. An incremental build reuses the unchanged spec's entries without fetching it
+        unorderedServer.reset();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        Map<String, CatalogEntry> previous = new LinkedHashMap<>();
+        entries.forEach(entry -> previous.put(entry.key(), entry));
+
+        List<CatalogEntry> rebuilt = actionCodeService.buildCatalogEntries(previous).orElseThrow();
+
+        assertThat(rebuilt).containsExactlyElementsOf(entries);
+        unorderedServer.verify();
+    }
+
+    @Test
+    void testBuildCatalogEntries_LazyModeFetchesOnlyTheManifest() throws Exception {
+        // 1. Load fixtures
+        String mockApiListJsonContent;
+        try (InputStream inputStream = new ClassPathResource("apiList.json").getInputStream()) {
+            mockApiListJsonContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String mockCreateDemandCodeJsonContent;
+        try (InputStream inputStream = new ClassPathResource("create-demandCode.json").getInputStream()) {
+            mockCreateDemandCodeJsonContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        ActionCodeService lazyService = new ActionCodeService(objectMapper, documentFetcher,
+                "http://test-url.com/", "apiList.json", false, 1, 2, true, true,
+                Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ZERO);
+
+        // 2. The build only fetches the manifest; the schema is fetched when the entry is resolved
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(mockApiListJsonContent, MediaType.APPLICATION_JSON));
+        List<CatalogEntry> stubs = lazyService.buildCatalogEntries(Map.of()).orElseThrow();
+        this.mockServer.verify();
+        this.mockServer.reset();
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/create-demandCode.json"))
+                .andRespond(withSuccess(mockCreateDemandCodeJsonContent, MediaType.APPLICATION_JSON));
+
+        // 3. Resolve the stub on demand
+        CatalogEntry resolved = lazyService.resolveEntry(stubs.get(0));
+
+        // 4. Stubs carry only manifest data; the resolved entry has the full detail
+        assertThat(stubs).hasSize(1).allMatch(CatalogEntry::isStub);
+        assertThat(stubs.get(0).info().getActionCode()).isEqualTo("create-demandCode");
+        assertThat(stubs.get(0).info().getRequestBodyColumnList()).isEmpty();
+        assertThat(resolved.isStub()).isFalse();
+        assertThat(resolved.info().getType()).isEqualTo("PostAndVerify");
+        assertThat(resolved.info().getRequestBodyColumnList()).isNotEmpty();
+
+        this.mockServer.verify();
+    }
+
+    @Test
+    void testBuildCatalogEntries_LazyModeIncrementalBuildCarriesOverStubs() throws Exception {
+        // 1. A lazy service and a manifest with a single schema
+        String manifestV1 = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\" } } } }";
+        String manifestV2 = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\" } } } }";
+        ActionCodeService lazyService = new ActionCodeService(objectMapper, documentFetcher,
+                "http://test-url.com/", "apiList.json", false, 1, 2, true, true,
+                Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ZERO);
+
+        // 2. Both builds only fetch the manifest
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifestV1, MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifestV2, MediaType.APPLICATION_JSON));
+        List<CatalogEntry> firstBuild = lazyService.buildCatalogEntries(Map.of()).orElseThrow();
+        Map<String, CatalogEntry> previous = new LinkedHashMap<>();
+        firstBuild.forEach(entry -> previous.put(entry.key(), entry));
+
+        // 3. Call the incremental build
+        List<CatalogEntry> secondBuild = lazyService.buildCatalogEntries(previous).orElseThrow();
+
+        // 4. The unchanged stub is carried over and the added entry becomes a stub
+        assertThat(secondBuild).extracting(CatalogEntry::actionCode).containsExactly("create-a", "create-b");
+        assertThat(secondBuild.get(0)).isSameAs(firstBuild.get(0));
+        assertThat(secondBuild).allMatch(CatalogEntry::isStub);
+
+        this.mockServer.verify();
+    }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testBuildCatalogEntries_DeadlinesReturnPartialCatalog() throws Exception {
+        // 1. a is fast, b stalls well past every deadline
+        String schema = loadFixture("create-demandCode.json");
+        String manifest = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\" } } } }";
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.times(2), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.times(2), requestTo("http://test-url.com/docs/a.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.times(2), requestTo("http://test-url.com/docs/b.json"))
+                .andRespond(delayed(Duration.ofMillis(1500), withSuccess(schema, MediaType.APPLICATION_JSON)));
+
+        // 2. Build once bounded by the per-schema deadline and once by the overall build deadline
+        ActionCodeService perSchema = pipelineService(Duration.ofMillis(200), Duration.ofSeconds(10), Duration.ZERO);
+        ActionCodeService perBuild = pipelineService(Duration.ofSeconds(10), Duration.ofMillis(300), Duration.ZERO);
+        try {
+            for (ActionCodeService service : List.of(perSchema, perBuild)) {
+                documentFetcher.clear();
+                long started = System.nanoTime();
+                List<CatalogEntry> entries = service.buildCatalogEntries(Map.of()).orElseThrow();
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+                // 3. The build returns early with b marked as failed, in manifest order
+                assertThat(elapsed).isLessThan(Duration.ofMillis(1200));
+                assertThat(entries).extracting(CatalogEntry::actionCode).containsExactly("create-a", "create-b");
+                assertThat(entries.get(0).isIngested()).isTrue();
+                assertThat(entries.get(1).isIngested()).isFalse();
+            }
+        } finally {
+            perSchema.shutdown();
+            perBuild.shutdown();
+        }
+    }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testBuildCatalogEntries_DeadlineCountsFromStartNotFromQueueing() throws Exception {
+        // 1. Six schemas that each take 300 ms, ingested two at a time
+        String schema = loadFixture("create-demandCode.json");
+        String manifest = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\"," +
+                "  \"create-c\": \"docs/c.json\", \"create-d\": \"docs/d.json\"," +
+                "  \"create-e\": \"docs/e.json\", \"create-f\": \"docs/f.json\" } } } }";
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        for (String file : List.of("a", "b", "c", "d", "e", "f")) {
+            unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/" + file + ".json"))
+                    .andRespond(delayed(Duration.ofMillis(300), withSuccess(schema, MediaType.APPLICATION_JSON)));
+        }
+        ActionCodeService narrow = new ActionCodeService(objectMapper, documentFetcher, "http://test-url.com/", "apiList.json",
+                true, 2, 2, false, true, Duration.ofMillis(700), Duration.ofSeconds(10), Duration.ZERO);
+
+        try {
+            // 2. Build
+            List<CatalogEntry> entries = narrow.buildCatalogEntries(Map.of()).orElseThrow();
+
+            // 3. The last two schemas wait 600 ms for a pool thread, but are not failed for the time they were queued
+            assertThat(entries).hasSize(6).allMatch(CatalogEntry::isIngested);
+        } finally {
+            narrow.shutdown();
+        }
+    }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testBuildCatalogEntries_HedgedRequestRescuesStraggler() throws Exception {
+        // 1. The first request for the schema stalls, the hedged one answers immediately
+        String schema = loadFixture("create-demandCode.json");
+        String manifest = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\" } } } }";
+        AtomicInteger schemaRequests = new AtomicInteger();
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/a.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.times(2), requestTo("http://test-url.com/docs/b.json"))
+                .andRespond(request -> schemaRequests.incrementAndGet() == 1
+                        ? delayed(Duration.ofMillis(1500), withSuccess(schema, MediaType.APPLICATION_JSON)).createResponse(request)
+                        : withSuccess(schema, MediaType.APPLICATION_JSON).createResponse(request));
+
+        ActionCodeService hedging = pipelineService(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofMillis(100));
+        try {
+            // 2. Build
+            long started = System.nanoTime();
+            List<CatalogEntry> entries = hedging.buildCatalogEntries(Map.of()).orElseThrow();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            // 3. b was ingested from the hedged request without waiting for the stalled one
+            assertThat(entries).allMatch(CatalogEntry::isIngested);
+            assertThat(elapsed).isLessThan(Duration.ofMillis(1200));
+            assertThat(schemaRequests).hasValue(2);
+        } finally {
+            hedging.shutdown();
+        }
+    }
+
+    @Test
+    @DirtiesContext // The unordered server rebinds the shared RestTemplate
+    void testBuildCatalogEntries_ErrorInAttemptFailsEntryWithoutWaiting() throws Exception {
+        // 1. b's response throws an Error rather than an exception
+        String schema = loadFixture("create-demandCode.json");
+        String manifest = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                "  \"create-a\": \"docs/a.json\", \"create-b\": \"docs/b.json\" } } } }";
+        MockRestServiceServer unorderedServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/a.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        unorderedServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/b.json"))
+                .andRespond(request -> {
+                    throw new StackOverflowError("simulated");
+                });
+
+        ActionCodeService service = pipelineService(Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ZERO);
+        try {
+            // 2. Build
+            long started = System.nanoTime();
+            List<CatalogEntry> entries = service.buildCatalogEntries(Map.of()).orElseThrow();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            // 3. b is failed as soon as its attempt throws, not at the per-schema deadline
+            assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+            assertThat(entries.get(0).isIngested()).isTrue();
+            assertThat(entries.get(1).isIngested()).isFalse();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testBuildCatalogEntries_RecordsPipelineMetrics() throws Exception {
+        // 1. A serial service reporting to its own registry
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ActionCodeService metered = new ActionCodeService(objectMapper, documentFetcher, "http://test-url.com/", "apiList.json",
+                false, 1, 2, false, true, Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ZERO);
+        metered.setMetrics(new CatalogMetrics(meterRegistry));
+
+        // 2. One usable schema, one without paths and one the registry cannot serve
+        String manifest = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                " \"create-a\": \"docs/a.json\", \"create-b\": \"docs/empty.json\", \"create-c\": \"docs/missing.json\" } } } }";
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/a.json"))
+                .andRespond(withSuccess(loadFixture("create-demandCode.json"), MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/empty.json"))
+                .andRespond(withSuccess("{ \"openapi\": \"3.0.1\", \"paths\": {} }", MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/missing.json"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // 3. Build
+        metered.buildCatalogEntries(Map.of()).orElseThrow();
+
+        // 4. Every stage is timed and each unusable schema is counted under its reason
+        assertThat(meterRegistry.get(CatalogMetrics.MANIFEST_FETCH).tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CatalogMetrics.SCHEMA_FETCH).tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(CatalogMetrics.SCHEMA_FETCH).tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CatalogMetrics.SCHEMA_PARSE).tag("parser", "lightweight").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(CatalogMetrics.SCHEMA_FLATTEN).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CatalogMetrics.SCHEMA_SKIPPED).tag("reason", "no_paths").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CatalogMetrics.SCHEMA_FAILED).tag("reason", "fetch_error").counter().count()).isEqualTo(1);
+        this.mockServer.verify();
+    }
+
+    @Test
+    void testBuildCatalogEntries_RecordsPerActionTrace() throws Exception {
+        // 1. A serial service recording into its own diagnostics buffer
+        CatalogBuildDiagnostics diagnostics = new CatalogBuildDiagnostics(2);
+        ActionCodeService traced = new ActionCodeService(objectMapper, documentFetcher, "http://test-url.com/", "apiList.json",
+                false, 1, 2, false, true, Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ZERO);
+        traced.setDiagnostics(diagnostics);
+
+        // 2. One usable schema, one without paths and one the registry cannot serve
+        String schema = loadFixture("create-demandCode.json");
+        String manifest = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+                " \"create-a\": \"docs/a.json\", \"create-b\": \"docs/empty.json\", \"create-c\": \"docs/missing.json\" } } } }";
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/apiList.json"))
+                .andRespond(withSuccess(manifest, MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/a.json"))
+                .andRespond(withSuccess(schema, MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/empty.json"))
+                .andRespond(withSuccess("{ \"openapi\": \"3.0.1\", \"paths\": {} }", MediaType.APPLICATION_JSON));
+        this.mockServer.expect(ExpectedCount.once(), requestTo("http://test-url.com/docs/missing.json"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // 3. Build
+        traced.buildCatalogEntries(Map.of()).orElseThrow();
+
+        // 4. One trace per manifest entry, most expensive first, with outcome, reason and sizes
+        List<CatalogBuildTrace> builds = diagnostics.recentBuilds();
+        assertThat(builds).hasSize(1);
+        CatalogBuildTrace build = builds.get(0);
+        assertThat(build.type()).isEqualTo("full");
+        assertThat(build.outcome()).isEqualTo("success");
+        assertThat(List.of(build.ingested(), build.skipped(), build.failed())).containsExactly(1, 1, 1);
+        assertThat(build.actions()).extracting(ActionTrace::costMicros).isSortedAccordingTo(Comparator.reverseOrder());
+
+        Map<String, ActionTrace> byAction = new LinkedHashMap<>();
+        build.actions().forEach(action -> byAction.put(action.actionCode(), action));
+        ActionTrace ingested = byAction.get("create-a");
+        assertThat(ingested.outcome()).isEqualTo("ingested");
+        assertThat(ingested.fetchBytes()).isEqualTo(schema.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(ingested.parser()).isEqualTo("lightweight");
+        assertThat(ingested.requestColumns()).isPositive();
+        assertThat(ingested.costMicros()).isEqualTo(ingested.fetchMicros() + ingested.parseMicros() + ingested.flattenMicros());
+        assertThat(byAction.get("create-b").outcome()).isEqualTo("skipped");
+        assertThat(byAction.get("create-b").reason()).isEqualTo("no_paths");
+        assertThat(byAction.get("create-c").outcome()).isEqualTo("failed");
+        assertThat(byAction.get("create-c").reason()).isEqualTo("fetch_error");
+        this.mockServer.verify();
+    }
+
+    // A parallel service with the given deadlines and hedge delay, sharing the test's fetcher
+    private ActionCodeService pipelineService(Duration schemaTimeout, Duration buildTimeout, Duration hedgeDelay) {
+        return new ActionCodeService(objectMapper, documentFetcher, "http://test-url.com/", "apiList.json",
+                true, 4, 2, false, true, schemaTimeout, buildTimeout, hedgeDelay);
+    }
+
+    private static ResponseCreator delayed(Duration delay, ResponseCreator creator) {
+        return request -> {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return creator.createResponse(request);
+        };
+    }
+
+    private static String loadFixture(String name) throws Exception {
+        try (InputStream inputStream = new ClassPathResource(name).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemSchemaSourceTest {
+
+    @TempDir
+    Path directory;
+
+    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    private FileSystemSchemaSource source;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (source != null) {
+            source.shutdown();
+        }
+    }
+
+    @Test
+    void fetch_shouldReportUnchangedFilesAsNotModified() throws Exception {
+        // Arrange
+        source = new FileSystemSchemaSource(directory.toUri().toString(), false, Duration.ofMillis(50), events::add);
+        Path file = Files.writeString(directory.resolve("schema.json"), "{\"v\":1}");
+
+        // Act
+        RegistryDocument first = source.fetch(file.toUri());
+        RegistryDocument second = source.fetch(file.toUri());
+        Files.writeString(file, "{\"v\":22}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5))); // Coarse clocks may not tick
+        RegistryDocument third = source.fetch(file.toUri());
+
+        // Assert
+        assertThat(first.body()).isEqualTo("{\"v\":1}");
+        assertThat(first.notModified()).isFalse();
+        assertThat(second.notModified()).isTrue();
+        assertThat(second.contentHash()).isEqualTo(first.contentHash());
+        assertThat(third.notModified()).isFalse();
+        assertThat(third.body()).isEqualTo("{\"v\":22}");
+    }
+
+    @Test
+    void fetch_shouldFailForMissingFiles() {
+        source = new FileSystemSchemaSource(directory.toUri().toString(), false, Duration.ofMillis(50), events::add);
+
+        assertThatThrownBy(() -> source.fetch(directory.resolve("missing.json").toUri()))
+                .isInstanceOf(ResourceAccessException.class);
+    }
+
+    @Test
+    void actionCodeService_shouldBuildCatalogFromDirectory() throws Exception {
+        // Arrange: the same layout the registry serves, relative to the base directory
+        Files.createDirectories(directory.resolve("docs"));
+        Files.writeString(directory.resolve("apiList.json"), resource("apiList.json"));
+        Files.writeString(directory.resolve("docs/create-demandCode.json"), resource("create-demandCode.json"));
+        source = new FileSystemSchemaSource(directory.toUri().toString(), false, Duration.ofMillis(50), events::add);
+        ActionCodeService service = new ActionCodeService(new ObjectMapper(), source, directory.toUri().toString(), "apiList.json",
+                false, 1, 2, false, true, Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ZERO);
+
+        // Act
+        List<ActionCodeInfo> actions = service.generateActionCodeList();
+
+        // Assert
+        assertThat(actions).extracting(ActionCodeInfo::getActionCode).containsExactly("create-demandCode");
+        assertThat(actions.get(0).getType()).isEqualTo("PostAndVerify");
+        assertThat(service.resolveDocumentUri("docs/create-demandCode.json"))
+                .isEqualTo(directory.resolve("docs/create-demandCode.json").toUri());
+    }
+
+    @Test
+    void watcher_shouldPublishChangedFiles() throws Exception {
+        // Arrange
+        Path docs = Files.createDirectories(directory.resolve("docs"));
+        Path file = Files.writeString(docs.resolve("schema.json"), "{\"v\":1}");
+        source = new FileSystemSchemaSource(directory.toUri().toString(), true, Duration.ofMillis(50), events::add);
+        source.startWatching();
+        source.fetch(file.toUri());
+
+        // Act
+        Files.writeString(file, "{\"v\":2}");
+
+        // Assert
+        Object event = events.poll(10, TimeUnit.SECONDS);
+        assertThat(event).isInstanceOf(SchemaSourceChangedEvent.class);
+        assertThat(((SchemaSourceChangedEvent) event).changedUris()).containsExactly(file.toUri());
+        assertThat(source.fetch(file.toUri()).body()).isEqualTo("{\"v\":2}"); // Re-read despite a possibly equal validator
+    }
+
+    private static String resource(String name) throws Exception {
+        try (InputStream inputStream = new ClassPathResource(name).getInputStream()) {
+            return new String(inputStream.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.actioncode.dto.ActionCodeInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Equivalence of the lightweight reader with the full OpenAPIV3Parser: for every document the
+ * derived actions must be identical whether the fast path or the full parser produced the model.
+ */
+class LightweightOpenApiReaderTest {
+
+    private static final String MANIFEST = "{ \"components\": { \"Collection\": { \"apiSchemas\": {" +
+            " \"the-action\": \"docs/the-action.json\" } } } }";
+    private static final String SERVICE_SPEC_MANIFEST = "{ \"components\": { \"Collection\": { \"serviceSpecs\": {" +
+            " \"the-service\": \"specs/the-service.json\" } } } }";
+
+    // Shared components, a recursive component, a typeless object, query/path parameters and a 201 response
+    private static final String REFERENCING_DOCUMENT = "{\n" +
+            "  \"openapi\": \"3.0.1\",\n" +
+            "  \"info\": { \"title\": \"Refs\", \"version\": \"1.0.0\" },\n" +
+            "  \"paths\": { \"/orders/{id}\": { \"post\": {\n" +
+            "    \"tags\": [\"Orders\"],\n" +
+            "    \"parameters\": [\n" +
+            "      { \"name\": \"id\", \"in\": \"path\", \"required\": true, \"description\": \"Order id\", \"schema\": { \"type\": \"string\" } },\n" +
+            "      { \"name\": \"dryRun\", \"in\": \"query\", \"schema\": { \"type\": \"boolean\" } } ],\n" +
+            "    \"requestBody\": { \"content\": { \"application/json\": { \"schema\": {\n" +
+            "      \"type\": \"object\", \"properties\": { \"request\": { \"type\": \"array\", \"items\": { \"$ref\": \"#/components/schemas/Order\" } } } } } } },\n" +
+            "    \"responses\": { \"201\": { \"description\": \"Created\", \"content\": { \"application/json\": { \"schema\": { \"$ref\": \"#/components/schemas/Node\" } } } },\n" +
+            "                     \"400\": { \"$ref\": \"#/components/responses/Problem\" } } } } },\n" +
+            "  \"components\": { \"schemas\": {\n" +
+            "    \"Node\": { \"required\": [\"value\"], \"properties\": {\n" +
+            "      \"value\": { \"type\": \"string\" },\n" +
+            "      \"children\": { \"type\": \"array\", \"items\": { \"$ref\": \"#/components/schemas/Node\" } } } },\n" +
+            "    \"Address\": { \"type\": \"object\", \"required\": [\"city\"], \"properties\": {\n" +
+            "      \"city\": { \"type\": \"string\" }, \"zip\": { \"type\": \"string\", \"example\": \"12345\" } } },\n" +
+            "    \"Order\": { \"type\": \"object\", \"required\": [\"id\"], \"properties\": {\n" +
+            "      \"id\": { \"type\": \"string\" },\n" +
+            "      \"billing\": { \"$ref\": \"#/components/schemas/Address\" },\n" +
+            "      \"shipping\": { \"$ref\": \"#/components/schemas/Address\" } } }\n" +
+            "  } }\n" +
+            "}";
+
+    // allOf needs the full parser's composed schema model
+    private static final String COMPOSED_DOCUMENT = "{\n" +
+            "  \"openapi\": \"3.0.0\",\n" +
+            "  \"info\": { \"title\": \"Composed\", \"version\": \"1.0.0\" },\n" +
+            "  \"paths\": { \"/things\": { \"get\": {\n" +
+            "    \"responses\": { \"200\": { \"description\": \"OK\", \"content\": { \"application/json\": { \"schema\": {\n" +
+            "      \"type\": \"object\", \"properties\": { \"name\": { \"type\": \"string\" },\n" +
+            "        \"base\": { \"allOf\": [ { \"$ref\": \"#/components/schemas/Base\" } ] } } } } } } } } } },\n" +
+            "  \"components\": { \"schemas\": { \"Base\": { \"type\": \"object\", \"properties\": { \"id\": { \"type\": \"string\" } } } } }\n" +
+            "}";
+
+    // Referenced parameters are resolved by the full parser only
+    private static final String REFERENCED_PARAMETER_DOCUMENT = "{\n" +
+            "  \"openapi\": \"3.0.0\",\n" +
+            "  \"info\": { \"title\": \"Params\", \"version\": \"1.0.0\" },\n" +
+            "  \"paths\": { \"/things\": { \"get\": {\n" +
+            "    \"parameters\": [ { \"$ref\": \"#/components/parameters/Limit\" } ],\n" +
+            "    \"responses\": { \"default\": { \"description\": \"OK\" } } } } },\n" +
+            "  \"components\": { \"parameters\": { \"Limit\": { \"name\": \"limit\", \"in\": \"query\", \"required\": true } } }\n" +
+            "}";
+
+    private static final String YAML_DOCUMENT = "openapi: 3.0.0\n" +
+            "info: { title: Yaml, version: 1.0.0 }\n" +
+            "paths:\n" +
+            "  /things:\n" +
+            "    get:\n" +
+            "      tags: [Things]\n" +
+            "      responses:\n" +
+            "        '200':\n" +
+            "          description: OK\n" +
+            "          content:\n" +
+            "            application/json:\n" +
+            "              schema: { type: object, properties: { name: { type: string } } }\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LightweightOpenApiReader reader = new LightweightOpenApiReader(objectMapper);
+
+    static Stream<String> documents() throws Exception {
+        return Stream.of(resource("create-demandCode.json"), resource("complex-schema.json"), REFERENCING_DOCUMENT,
+                COMPOSED_DOCUMENT, REFERENCED_PARAMETER_DOCUMENT, YAML_DOCUMENT);
+    }
+
+    @ParameterizedTest
+    @MethodSource("documents")
+    void derivedActions_shouldMatchFullParser(String document) {
+        // Act
+        List<ActionCodeInfo> lightweight = derive(document, true);
+        List<ActionCodeInfo> full = derive(document, false);
+
+        // Assert
+        assertThat(full).hasSize(1);
+        assertThat(lightweight).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(full);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"create-demandCode.json", "complex-schema.json"})
+    void read_shouldHandleRegistryFixturesOnTheFastPath(String fixture) throws Exception {
+        assertThat(reader.read(resource(fixture))).isNotNull();
+    }
+
+    @Test
+    void read_shouldHandleSharedAndRecursiveReferencesOnTheFastPath() {
+        assertThat(reader.read(REFERENCING_DOCUMENT)).isNotNull();
+    }
+
+    @Test
+    void serviceSpecOperations_shouldMatchFullParser() throws Exception {
+        // Act
+        String spec = resource("order-service.json");
+        List<ActionCodeInfo> lightweight = derive(spec, true, SERVICE_SPEC_MANIFEST);
+        List<ActionCodeInfo> full = derive(spec, false, SERVICE_SPEC_MANIFEST);
+
+        // Assert
+        assertThat(reader.read(spec)).isNotNull();
+        assertThat(full).hasSize(4);
+        assertThat(lightweight).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(full);
+    }
+
+    @Test
+    void read_shouldDeferUnsupportedConstructsToTheFullParser() {
+        assertThat(reader.read(COMPOSED_DOCUMENT)).isNull();
+        assertThat(reader.read(REFERENCED_PARAMETER_DOCUMENT)).isNull();
+        assertThat(reader.read(YAML_DOCUMENT)).isNull();
+        assertThat(reader.read(REFERENCING_DOCUMENT.replace("#/components/schemas/Address", "common.json#/Address"))).isNull();
+        assertThat(reader.read(REFERENCING_DOCUMENT.replace("\"3.0.1\"", "\"3.1.0\""))).isNull();
+    }
+
+    // Runs the document through ActionCodeService with the fast path on or off
+    private List<ActionCodeInfo> derive(String document, boolean lightweight) {
+        return derive(document, lightweight, MANIFEST);
+    }
+
+    private List<ActionCodeInfo> derive(String document, boolean lightweight, String manifest) {
+        RegistryDocumentFetcher fetcher = mock(RegistryDocumentFetcher.class);
+        when(fetcher.fetch(any(URI.class))).thenAnswer(invocation -> {
+            URI uri = invocation.getArgument(0);
+            String body = uri.getPath().endsWith("apiList.json") ? manifest : document;
+            return new RegistryDocument(uri, body, null, null, ContentHashes.sha256(body), false);
+        });
+        ActionCodeService service = new ActionCodeService(objectMapper, fetcher, "http://test-url.com/", "apiList.json",
+                false, 1, 2, false, lightweight, Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ZERO);
+        return service.generateActionCodeList();
+    }
+
+    private static String resource(String name) throws Exception {
+        try (InputStream inputStream = new ClassPathResource(name).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistryCircuitBreakerTest {
+
+    private final Instant start = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void opensAfterConsecutiveFailuresAndFailsFast() {
+        RegistryCircuitBreaker breaker = new RegistryCircuitBreaker(3, Duration.ofSeconds(30));
+
+        breaker.onFailure(start);
+        breaker.onFailure(start);
+        breaker.onSuccess(); // Resets the consecutive count
+        breaker.onFailure(start);
+        breaker.onFailure(start);
+        assertThat(breaker.tryAcquire(start)).isTrue();
+
+        breaker.onFailure(start);
+        assertThat(breaker.getState()).isEqualTo(RegistryCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(start.plusSeconds(29))).isFalse();
+    }
+
+    @Test
+    void admitsOneTrialRequestAfterOpenDuration() {
+        RegistryCircuitBreaker breaker = new RegistryCircuitBreaker(1, Duration.ofSeconds(30));
+        breaker.onFailure(start);
+
+        // First caller after the open duration gets the trial, others keep failing fast
+        assertThat(breaker.tryAcquire(start.plusSeconds(30))).isTrue();
+        assertThat(breaker.tryAcquire(start.plusSeconds(30))).isFalse();
+
+        // A failed trial reopens the circuit for another open duration
+        breaker.onFailure(start.plusSeconds(31));
+        assertThat(breaker.tryAcquire(start.plusSeconds(60))).isFalse();
+        assertThat(breaker.tryAcquire(start.plusSeconds(61))).isTrue();
+
+        // A successful trial closes it
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(RegistryCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire(start.plusSeconds(61))).isTrue();
+    }
+}
@@ -0,0 +1,92 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RegistryDocumentFetcherTest {
+
+    private static final URI SCHEMA = URI.create("http://test-url.com/docs/create-demandCode.json");
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final RegistryDocumentFetcher fetcher = new RegistryDocumentFetcher(restTemplate, 5, Duration.ofSeconds(30));
+
+    @Test
+    void fetch_shouldCoalesceConcurrentRequestsForTheSameDocument() throws Exception {
+        // Arrange: the registry answers only once every caller has arrived
+        CountDownLatch requestSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.exchange(eq(SCHEMA), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class))).thenAnswer(invocation -> {
+            requestSent.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return ResponseEntity.ok("{}");
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<RegistryDocument>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> fetcher.fetch(SCHEMA)));
+            }
+            assertThat(requestSent.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100); // Let the other callers join the in-flight request
+            release.countDown();
+
+            // Assert
+            for (Future<RegistryDocument> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).body()).isEqualTo("{}");
+            }
+            verify(restTemplate, times(1)).exchange(eq(SCHEMA), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void fetch_shouldSendNewRequestOnceThePreviousOneCompleted() {
+        // Arrange
+        when(restTemplate.exchange(eq(SCHEMA), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(ResponseEntity.ok("{}"));
+
+        // Act & Assert: a failure is not remembered
+        assertThatThrownBy(() -> fetcher.fetch(SCHEMA)).isInstanceOf(ResourceAccessException.class);
+        assertThat(fetcher.fetch(SCHEMA).body()).isEqualTo("{}");
+    }
+
+    @Test
+    void fetch_shouldSettleHalfOpenTrialThatFailsWithUnexpectedException() {
+        // Arrange: the circuit opens on the first failure and admits a trial right away
+        RegistryDocumentFetcher breakingFetcher = new RegistryDocumentFetcher(restTemplate, 1, Duration.ZERO);
+        when(restTemplate.exchange(eq(SCHEMA), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new IllegalStateException("No converter for the response")) // The trial request
+                .thenReturn(ResponseEntity.ok("{}"));
+        assertThatThrownBy(() -> breakingFetcher.fetch(SCHEMA)).isInstanceOf(ResourceAccessException.class);
+
+        // Act & Assert: the failed trial reopens the circuit instead of leaving it half-open
+        assertThatThrownBy(() -> breakingFetcher.fetch(SCHEMA)).isInstanceOf(IllegalStateException.class);
+        assertThat(breakingFetcher.fetch(SCHEMA).body()).isEqualTo("{}");
+        verify(restTemplate, times(3)).exchange(eq(SCHEMA), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+    }
+}
@@ -0,0 +1,122 @@
+package com.infosys.fbp.platform.actioncode.service;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaFlattenerTest {
+
+    // Node references itself; Order references Address twice and Customer, which references Address again
+    private static final String DOCUMENT = "{\n" +
+            "  \"openapi\": \"3.0.0\",\n" +
+            "  \"info\": { \"title\": \"Flattener\", \"version\": \"1.0.0\" },\n" +
+            "  \"paths\": {},\n" +
+            "  \"components\": { \"schemas\": {\n" +
+            "    \"Node\": { \"type\": \"object\", \"required\": [\"value\"], \"properties\": {\n" +
+            "      \"value\": { \"type\": \"string\" },\n" +
+            "      \"children\": { \"type\": \"array\", \"items\": { \"$ref\": \"#/components/schemas/Node\" } } } },\n" +
+            "    \"Address\": { \"type\": \"object\", \"required\": [\"city\"], \"properties\": {\n" +
+            "      \"city\": { \"type\": \"string\" }, \"zip\": { \"type\": \"string\" } } },\n" +
+            "    \"Customer\": { \"type\": \"object\", \"properties\": {\n" +
+            "      \"name\": { \"type\": \"string\" }, \"address\": { \"$ref\": \"#/components/schemas/Address\" } } },\n" +
+            "    \"Order\": { \"type\": \"object\", \"required\": [\"id\"], \"properties\": {\n" +
+            "      \"id\": { \"type\": \"string\" },\n" +
+            "      \"billing\": { \"$ref\": \"#/components/schemas/Address\" },\n" +
+            "      \"shipping\": { \"$ref\": \"#/components/schemas/Address\" },\n" +
+            "      \"customer\": { \"$ref\": \"#/components/schemas/Customer\" } } }\n" +
+            "  } }\n" +
+            "}";
+
+    @Test
+    void flatten_shouldReusePrefixedFragmentsForSharedComponents() {
+        // Arrange
+        OpenAPI openAPI = parse();
+        SchemaFlattener flattener = new SchemaFlattener(openAPI, 2);
+
+        // Act
+        List<SchemaFlattener.FlatColumn> columns = flattener.flatten(component(openAPI, "Order"));
+
+        // Assert
+        assertThat(columns).containsExactly(
+                new SchemaFlattener.FlatColumn("", "id", true),
+                new SchemaFlattener.FlatColumn(":billing", "city", true),
+                new SchemaFlattener.FlatColumn(":billing", "zip", false),
+                new SchemaFlattener.FlatColumn(":shipping", "city", true),
+                new SchemaFlattener.FlatColumn(":shipping", "zip", false),
+                new SchemaFlattener.FlatColumn(":customer", "name", false),
+                new SchemaFlattener.FlatColumn(":customer:address", "city", true),
+                new SchemaFlattener.FlatColumn(":customer:address", "zip", false));
+    }
+
+    @Test
+    void flatten_shouldCutRecursiveReferencesAtConfiguredDepth() {
+        // Arrange
+        OpenAPI openAPI = parse();
+
+        // Act
+        List<SchemaFlattener.FlatColumn> depthOne = new SchemaFlattener(openAPI, 1).flatten(component(openAPI, "Node"));
+        List<SchemaFlattener.FlatColumn> depthThree = new SchemaFlattener(openAPI, 3).flatten(component(openAPI, "Node"));
+
+        // Assert: the root is not reached through a $ref, so the first expansion happens at ':children'
+        assertThat(depthOne).containsExactly(
+                new SchemaFlattener.FlatColumn("", "value", true),
+                new SchemaFlattener.FlatColumn(":children", "value", true));
+        assertThat(depthThree).extracting(SchemaFlattener.FlatColumn::parentPath)
+                .containsExactly("", ":children", ":children:children", ":children:children:children");
+    }
+
+    @Test
+    void flatten_shouldBoundMutuallyRecursiveComponents() {
+        // Arrange: six components that each reference all six
+        OpenAPI openAPI = parse(mutuallyRecursiveDocument(6));
+
+        // Act
+        List<SchemaFlattener.FlatColumn> depthTwo = new SchemaFlattener(openAPI, 2).flatten(component(openAPI, "C0"));
+        List<SchemaFlattener.FlatColumn> depthThree = new SchemaFlattener(openAPI, 3).flatten(component(openAPI, "C0"));
+
+        // Assert: each level of the cycle multiplies by the fan-out, not by the paths through the cycle
+        assertThat(depthTwo).hasSize(1 + 6 * (1 + 6));
+        assertThat(depthThree).hasSize(1 + 6 * (1 + 6 * (1 + 6)));
+        assertThat(depthTwo).contains(new SchemaFlattener.FlatColumn(":c4:c2", "value", true));
+        assertThat(depthTwo).extracting(SchemaFlattener.FlatColumn::parentPath).noneMatch(path -> path.startsWith(":c4:c2:"));
+    }
+
+    private OpenAPI parse() {
+        return parse(DOCUMENT);
+    }
+
+    private OpenAPI parse(String document) {
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true);
+        return new OpenAPIV3Parser().readContents(document, null, parseOptions).getOpenAPI();
+    }
+
+    // Components C0 to C(n-1), each with a value and a property referencing every component
+    private static String mutuallyRecursiveDocument(int n) {
+        StringBuilder schemas = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            StringBuilder properties = new StringBuilder("\"value\": { \"type\": \"string\" }");
+            for (int j = 0; j < n; j++) {
+                properties.append(", \"c").append(j).append("\": { \"$ref\": \"#/components/schemas/C").append(j).append("\" }");
+            }
+            schemas.append(i == 0 ? "" : ",\n").append("    \"C").append(i)
+                    .append("\": { \"type\": \"object\", \"required\": [\"value\"], \"properties\": { ").append(properties).append(" } }");
+        }
+        return "{\n" +
+                "  \"openapi\": \"3.0.0\",\n" +
+                "  \"info\": { \"title\": \"Cycle\", \"version\": \"1.0.0\" },\n" +
+                "  \"paths\": {},\n" +
+                "  \"components\": { \"schemas\": {\n" + schemas + "\n  } }\n" +
+                "}";
+    }
+
+    private Schema<?> component(OpenAPI openAPI, String name) {
+        return openAPI.getComponents().getSchemas().get(name);
+    }
+}
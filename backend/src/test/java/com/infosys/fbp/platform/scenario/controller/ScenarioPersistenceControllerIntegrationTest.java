@@ -3,6 +3,7 @@ package com.infosys.fbp.platform.scenario.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchDto;
 import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
 import com.infosys.fbp.platform.scenario.service.ScenarioPersistenceService;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +23,10 @@ import static org.hamcrest.Matchers.*;
 import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteRows;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.setCell;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -230,4 +234,72 @@ class ScenarioPersistenceControllerIntegrationTest {
                 .andExpect(jsonPath("$.steps[0].beforeDescription", is("Integration test context before step")))
                 .andExpect(jsonPath("$.steps[0].afterDescription", is("Integration test expected outcome")));
     }
+
+    @Test
+    void patchScenario_shouldApplyOperationsAndReturnNewVersion() throws Exception {
+        // Arrange
+        String testId = "patch-integ-test-id";
+        persistenceService.saveScenario(createTestScenario(testId, "Patch Integration Test Scenario"));
+        ScenarioPatchDto patchDto = new ScenarioPatchDto(1L, List.of(setCell(0, "request", 0, "field1", "patched")));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/scenarios/patch/{scenarioId}", testId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scenarioId", is(testId)))
+                .andExpect(jsonPath("$.version", is(2)));
+
+        mockMvc.perform(get("/api/scenarios/load/{scenarioId}", testId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(2)))
+                .andExpect(jsonPath("$.steps[0].stepRequestData[0].field1", is("patched")))
+                .andExpect(jsonPath("$.steps[0].stepRequestData[0].field2", is("value2")));
+    }
+
+    @Test
+    void patchScenario_shouldReturnConflict_whenBaseVersionIsStale() throws Exception {
+        // Arrange
+        String testId = "patch-conflict-test-id";
+        persistenceService.saveScenario(createTestScenario(testId, "First"));
+        persistenceService.saveScenario(createTestScenario(testId, "Second"));
+        ScenarioPatchDto patchDto = new ScenarioPatchDto(1L, List.of(setCell(0, "request", 0, "field1", "patched")));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/scenarios/patch/{scenarioId}", testId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion", is(2)))
+                .andExpect(jsonPath("$.error", containsString(testId)));
+    }
+
+    @Test
+    void patchScenario_shouldReturnBadRequest_forInvalidPatch() throws Exception {
+        // Arrange
+        String testId = "patch-invalid-test-id";
+        persistenceService.saveScenario(createTestScenario(testId, "Invalid Patch Scenario"));
+
+        // Act & Assert: Missing base version
+        mockMvc.perform(patch("/api/scenarios/patch/{scenarioId}", testId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ScenarioPatchDto(null, List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("baseVersion is required")));
+
+        // Act & Assert: Rows out of range
+        mockMvc.perform(patch("/api/scenarios/patch/{scenarioId}", testId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ScenarioPatchDto(1L, List.of(deleteRows(0, "request", 3, 1))))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", startsWith("Operation 0 (deleteRows)")));
+    }
+
+    @Test
+    void patchScenario_shouldReturnNotFound_whenIdDoesNotExist() throws Exception {
+        mockMvc.perform(patch("/api/scenarios/patch/{scenarioId}", "non-existent-patch-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ScenarioPatchDto(1L, List.of()))))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,189 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.moveStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.setCell;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarScenarioTest {
+
+    @Test
+    void toDto_rebuildsScenarioExactly() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("body.id", "1");
+        first.put("body.name", null);
+        first.put("body.amount", "10");
+        Map<String, String> sparse = new LinkedHashMap<>();
+        sparse.put("body.id", "2");
+        sparse.put("body.amount", "");
+        Map<String, String> extra = new LinkedHashMap<>();
+        extra.put("body.name", "x");
+        extra.put("body.currency", "EUR");
+        ScenarioDto scenario = new ScenarioDto("sc", "Scenario", List.of(
+                new ScenarioStepDto("s1", "ACT", "before", null,
+                        List.of(), List.of(first, sparse, new LinkedHashMap<>(), extra), null),
+                new ScenarioStepDto("s2", "ACT", null, null, null, null, List.of(Map.of("status", "OK")))));
+
+        ScenarioDto rebuilt = ColumnarScenario.encode(scenario).toDto();
+
+        assertThat(rebuilt).isEqualTo(scenario);
+        List<Map<String, String>> rows = rebuilt.getSteps().get(0).getStepRequestData();
+        assertThat(rows.get(0).keySet()).containsExactly("body.id", "body.name", "body.amount");
+        assertThat(rows.get(3).keySet()).containsExactly("body.name", "body.currency");
+        assertThat(rebuilt.getSteps().get(1).getStepParamsData()).isNull();
+        assertThat(ColumnarScenario.encode(new ScenarioDto("empty", null, null)).toDto()).isEqualTo(new ScenarioDto("empty", null, null));
+    }
+
+    @Test
+    void gridsThatColumnsCannotRebuild_areKeptAsRows() {
+        Map<String, String> ab = new LinkedHashMap<>();
+        ab.put("a", "1");
+        ab.put("b", "2");
+        Map<String, String> ba = new LinkedHashMap<>();
+        ba.put("b", "3");
+        ba.put("a", "4");
+        List<Map<String, String>> withNullRow = new ArrayList<>(Arrays.asList(Map.of("a", "1"), null));
+        ScenarioDto scenario = new ScenarioDto("sc", "Scenario", List.of(
+                new ScenarioStepDto("s1", "ACT", null, null, null, List.of(ab, ba), withNullRow)));
+
+        ColumnarScenario encoded = ColumnarScenario.encode(scenario);
+        ScenarioDto rebuilt = encoded.toDto();
+
+        assertThat(encoded.steps()[0].request().columns()).isNull();
+        assertThat(rebuilt).isEqualTo(scenario);
+        assertThat(rebuilt.getSteps().get(0).getStepRequestData().get(1).keySet()).containsExactly("b", "a");
+        ab.put("a", "changed"); // The store keeps its own copy
+        assertThat(encoded.toDto().getSteps().get(0).getStepRequestData().get(0)).containsEntry("a", "1");
+    }
+
+    @Test
+    void sparseRows_shareOneLayoutMergedFromTheirOrders() {
+        // Rows skip different optional columns, and no single row lists them all
+        List<Map<String, String>> rows = List.of(
+                row("id", "1", "amount", "10"),
+                row("id", "2", "name", "x", "amount", "20"),
+                row("id", "3", "amount", "30", "currency", "EUR"),
+                row("name", "y", "currency", "USD"));
+        ScenarioDto scenario = new ScenarioDto("sc", "Scenario", List.of(
+                new ScenarioStepDto("s1", "ACT", null, null, null, rows, null)));
+
+        ColumnarScenario encoded = ColumnarScenario.encode(scenario);
+
+        assertThat(encoded.steps()[0].request().columnNames()).containsExactly("id", "name", "amount", "currency");
+        assertThat(encoded.toDto()).isEqualTo(scenario);
+        assertThat(encoded.toDto().getSteps().get(0).getStepRequestData().get(2).keySet())
+                .containsExactly("id", "amount", "currency");
+    }
+
+    @Test
+    void rowsOmittingColumns_fallBackOnlyWhenOrdersConflict() {
+        // Grids as an editor produces them: each row lists the action's columns in order, skipping empty cells
+        List<String> actionColumns = List.of("body.id", "body.name", "body.amount", "body.currency", "body.note");
+        Random random = new Random(42);
+        int fallbacks = 0;
+        for (int grid = 0; grid < 200; grid++) {
+            List<Map<String, String>> rows = new ArrayList<>();
+            for (int r = 0; r < 10; r++) {
+                Map<String, String> cells = new LinkedHashMap<>();
+                actionColumns.stream().filter(column -> random.nextInt(3) > 0).forEach(column -> cells.put(column, "v"));
+                rows.add(cells);
+            }
+            if (grid % 20 == 0) {
+                rows.add(row("body.name", "v", "body.id", "v")); // One row in another order
+            }
+            ColumnarScenario encoded = ColumnarScenario.encode(new ScenarioDto("sc", null, List.of(
+                    new ScenarioStepDto("s", "ACT", null, null, null, rows, null))));
+            if (encoded.steps()[0].request().columns() == null) {
+                fallbacks++;
+            }
+        }
+
+        assertThat(fallbacks).isEqualTo(10); // Exactly the grids with a conflicting row
+    }
+
+    @Test
+    void toDto_returnsFreshObjects() {
+        ScenarioDto scenario = wideScenario("sc", 2, 3);
+        ColumnarScenario encoded = ColumnarScenario.encode(scenario);
+
+        encoded.toDto().getSteps().get(0).getStepRequestData().get(0).put("body.field0", "changed");
+
+        assertThat(encoded.toDto()).isEqualTo(scenario);
+    }
+
+    @Test
+    void columnNamesAndRepeatedValues_areShared() {
+        ColumnarScenario first = ColumnarScenario.encode(wideScenario("a", 2, 3));
+        ColumnarScenario second = ColumnarScenario.encode(wideScenario("b", 1, 5));
+
+        // Grids of the same action share one column dictionary, across steps and scenarios
+        assertThat(first.steps()[1].request().columnNames()).isSameAs(first.steps()[0].request().columnNames());
+        assertThat(second.steps()[0].request().columnNames()).isSameAs(first.steps()[0].request().columnNames());
+        // Equal cell values within a scenario are one string
+        String[][] columns = first.steps()[0].request().columns();
+        assertThat(columns[1][0]).isSameAs(first.steps()[1].request().columns()[1][2]);
+    }
+
+    @Test
+    void weight_isSeveralTimesSmallerThanRowMaps() {
+        ScenarioDto scenario = wideScenario("wide", 50, 40);
+
+        long rowMapBytes = ScenarioWeigher.weigh(scenario);
+        long columnarBytes = ColumnarScenario.encode(scenario).weight();
+
+        assertThat(columnarBytes * 3).isLessThan(rowMapBytes);
+    }
+
+    @Test
+    void patched_sharesStepsItDoesNotEdit() {
+        ScenarioDto scenario = wideScenario("sc", 3, 3);
+        ColumnarScenario encoded = ColumnarScenario.encode(scenario);
+
+        ColumnarScenario patched = encoded.patched(List.of(setCell(1, "request", 2, "body.field0", "edited"), moveStep(0, 2)), 7);
+
+        assertThat(patched.version()).isEqualTo(7L);
+        assertThat(patched.steps()[0]).isNotSameAs(encoded.steps()[1]);
+        assertThat(patched.steps()[1]).isSameAs(encoded.steps()[2]);
+        assertThat(patched.steps()[2]).isSameAs(encoded.steps()[0]);
+        assertThat(patched.steps()[0].request().columnNames()).isSameAs(encoded.steps()[1].request().columnNames());
+        assertThat(patched.toDto().getSteps().get(0).getStepRequestData().get(2)).containsEntry("body.field0", "edited");
+        assertThat(patched.weight()).isEqualTo(ColumnarScenario.encode(patched.toDto()).weight());
+        assertThat(encoded.toDto()).isEqualTo(scenario); // Unchanged
+    }
+
+    // Steps of one action with a 30-column request grid whose values repeat a lot, as generated test data does
+    private static Map<String, String> row(String... namesAndValues) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            row.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    private static ScenarioDto wideScenario(String id, int steps, int rows) {
+        List<ScenarioStepDto> stepList = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            List<Map<String, String>> grid = new ArrayList<>();
+            for (int row = 0; row < rows; row++) {
+                Map<String, String> cells = new LinkedHashMap<>();
+                cells.put("body.field0", "row-" + row);
+                for (int column = 1; column < 30; column++) {
+                    cells.put("body.field" + column, column % 3 == 0 ? "true" : "value-" + column);
+                }
+                grid.add(cells);
+            }
+            stepList.add(new ScenarioStepDto("step-" + step, "CREATE_ORDER", null, null, null, grid, null));
+        }
+        return new ScenarioDto(id, "Scenario " + id, stepList);
+    }
+}
@@ -0,0 +1,232 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteStep;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryScenarioStoreTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void withinBudget_keepsEverythingOnTheHeap() {
+        InMemoryScenarioStore store = store(DataSize.ofMegabytes(16));
+        store.save(scenario("a", 5, 10));
+        store.save(scenario("b", 5, 10));
+
+        assertThat(store.residentWeight()).isEqualTo(weight(scenario("a", 5, 10)) * 2);
+        assertThat(spilledFiles()).isZero();
+    }
+
+    @Test
+    void overBudget_spillsLeastRecentlyUsedAndFaultsThemBackIn() throws IOException {
+        long weight = weight(scenario("s0", 5, 20));
+        InMemoryScenarioStore store = store(DataSize.ofBytes(weight * 3));
+        for (int i = 0; i < 10; i++) {
+            store.save(scenario("s" + i, 5, 20));
+        }
+
+        assertThat(store.residentWeight()).isLessThanOrEqualTo(weight * 3);
+        assertThat(spilledFiles()).isEqualTo(7);
+        assertThat(store.count()).isEqualTo(10);
+        assertThat(store.stepCount()).isEqualTo(50);
+
+        // The oldest scenario comes back intact, and another one is spilled in its place
+        assertThat(store.load("s0")).contains(scenario("s0", 5, 20));
+        assertThat(store.residentWeight()).isLessThanOrEqualTo(weight * 3);
+        assertThat(spilledFiles()).isEqualTo(7);
+        assertThat(store.loadAll()).hasSize(10).contains(scenario("s4", 5, 20));
+        assertThat(store.load("missing")).isEmpty();
+    }
+
+    @Test
+    void load_refreshesRecency() {
+        long weight = weight(scenario("a", 2, 2));
+        InMemoryScenarioStore store = store(DataSize.ofBytes(weight * 2));
+        store.save(scenario("a", 2, 2));
+        store.save(scenario("b", 2, 2));
+        store.load("a");
+
+        store.save(scenario("c", 2, 2)); // Spills b, the least recently used
+
+        assertThat(spilledFiles()).isEqualTo(1);
+        assertThat(store.residentWeight()).isEqualTo(weight * 2);
+        store.load("a");
+        store.load("c");
+        assertThat(spilledFiles()).isEqualTo(1); // a and c were still on the heap
+    }
+
+    @Test
+    void version_leavesRecencyAlone() throws IOException {
+        long weight = weight(scenario("a", 2, 2));
+        InMemoryScenarioStore store = store(DataSize.ofBytes(weight * 2));
+        store.save(scenario("a", 2, 2));
+        store.save(scenario("b", 2, 2));
+        assertThat(store.version("a")).isPresent();
+
+        store.save(scenario("c", 2, 2)); // Still spills a, the least recently loaded or saved
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            String spilledA = UUID.nameUUIDFromBytes("a".getBytes(StandardCharsets.UTF_8)).toString();
+            assertThat(files).singleElement().satisfies(file -> assertThat(file.getFileName().toString()).startsWith(spilledA));
+        }
+    }
+
+    @Test
+    void save_replacesSpilledScenario() {
+        long weight = weight(scenario("a", 2, 2));
+        InMemoryScenarioStore store = store(DataSize.ofBytes(weight));
+        store.save(scenario("a", 2, 2));
+        store.save(scenario("b", 2, 2)); // Spills a
+
+        store.save(scenario("a", 3, 1));
+
+        assertThat(store.load("a")).contains(scenario("a", 3, 1));
+        assertThat(store.count()).isEqualTo(2);
+        assertThat(store.stepCount()).isEqualTo(5);
+    }
+
+    @Test
+    void patch_faultsInSpilledScenario() {
+        long weight = weight(scenario("a", 2, 2));
+        InMemoryScenarioStore store = store(DataSize.ofBytes(weight));
+        ScenarioDto saved = scenario("a", 2, 2);
+        saved.setVersion(4L);
+        store.save(saved);
+        store.save(scenario("b", 2, 2)); // Spills a
+        assertThat(store.version("a")).hasValue(4);
+
+        store.patch("a", List.of(deleteStep(0)), 5);
+
+        assertThat(store.version("a")).hasValue(5);
+        assertThat(store.load("a").orElseThrow().getSteps()).containsExactly(scenario("a", 2, 2).getSteps().get(1));
+        assertThat(store.stepCount()).isEqualTo(3);
+    }
+
+    @Test
+    void clear_deletesSpilledScenarios() {
+        InMemoryScenarioStore store = store(DataSize.ofBytes(1));
+        store.save(scenario("a", 1, 1));
+        store.save(scenario("b", 1, 1));
+        store.save(scenario("c", 1, 1));
+
+        store.clear();
+
+        assertThat(store.count()).isZero();
+        assertThat(store.residentWeight()).isZero();
+        assertThat(spilledFiles()).isZero();
+    }
+
+    @Test
+    void startup_deletesFilesSpilledByPreviousRun() {
+        InMemoryScenarioStore previous = store(DataSize.ofBytes(1));
+        previous.save(scenario("a", 1, 1));
+        previous.save(scenario("b", 1, 1));
+
+        InMemoryScenarioStore store = store(DataSize.ofBytes(1));
+
+        assertThat(spilledFiles()).isZero();
+        assertThat(store.count()).isZero();
+    }
+
+    @Test
+    void spillWrite_doesNotBlockOtherScenarios() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ObjectMapper slowDisk = new ObjectMapper() {
+            @Override
+            public void writeValue(OutputStream out, Object value) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeValue(out, value);
+            }
+        };
+        InMemoryScenarioStore store = new InMemoryScenarioStore(slowDisk, DataSize.ofBytes(1), spillDirectory.toString());
+        store.save(scenario("a", 1, 1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> spilling = executor.submit(() -> store.save(scenario("b", 1, 1))); // Spills a
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Neither the scenario being written nor any other waits for the disk
+            assertThat(CompletableFuture.supplyAsync(() -> store.load("a")).get(5, TimeUnit.SECONDS))
+                    .contains(scenario("a", 1, 1));
+            assertThat(CompletableFuture.supplyAsync(store::count).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+
+            release.countDown();
+            spilling.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(spilledFiles()).isEqualTo(1);
+        assertThat(store.load("a")).contains(scenario("a", 1, 1));
+        assertThat(store.stepCount()).isEqualTo(2);
+    }
+
+    @Test
+    void weigh_growsWithGridContent() {
+        assertThat(weight(scenario("a", 2, 20))).isGreaterThan(weight(scenario("a", 2, 10)));
+        assertThat(weight(new ScenarioDto("a", null, null))).isPositive();
+    }
+
+    private InMemoryScenarioStore store(DataSize maxSize) {
+        return new InMemoryScenarioStore(new ObjectMapper(), maxSize, spillDirectory.toString());
+    }
+
+    private static long weight(ScenarioDto scenario) {
+        return ColumnarScenario.encode(scenario).weight();
+    }
+
+    private long spilledFiles() {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static ScenarioDto scenario(String id, int steps, int rows) {
+        List<ScenarioStepDto> stepList = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            List<Map<String, String>> grid = new ArrayList<>();
+            for (int row = 0; row < rows; row++) {
+                Map<String, String> cells = new LinkedHashMap<>();
+                cells.put("name", "value-" + step + "-" + row);
+                cells.put("amount", String.valueOf(row));
+                grid.add(cells);
+            }
+            stepList.add(new ScenarioStepDto("step-" + step, "ACTION", null, null, null, grid, List.of()));
+        }
+        return new ScenarioDto(id, "Scenario " + id, stepList);
+    }
+}
@@ -0,0 +1,169 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.setCell;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcScenarioStoreTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcScenarioStore store;
+
+    @BeforeEach
+    void setUp() {
+        // A fresh in-memory database per test, kept open between connections
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        store = new JdbcScenarioStore(dataSource);
+    }
+
+    @Test
+    void save_thenLoad_roundTripsScenarioExactly() {
+        Map<String, String> request = new LinkedHashMap<>();
+        request.put("zeta", "1");
+        request.put("alpha", null);
+        request.put("mid", "");
+        ScenarioStepDto full = new ScenarioStepDto("s1", "ACT1", "before", "after",
+                List.of(Map.of("p", "v")), List.of(request, new LinkedHashMap<>()), new ArrayList<>());
+        ScenarioStepDto bare = new ScenarioStepDto("s2", "ACT2", null, null, null, null, null);
+        ScenarioDto scenario = new ScenarioDto("sc-1", "Round trip", List.of(full, bare));
+
+        store.save(scenario);
+
+        ScenarioDto loaded = store.load("sc-1").orElseThrow();
+        assertThat(loaded).isEqualTo(scenario);
+        // Column order within a row is kept as saved
+        assertThat(loaded.getSteps().get(0).getStepRequestData().get(0).keySet()).containsExactly("zeta", "alpha", "mid");
+        assertThat(loaded.getSteps().get(1).getStepParamsData()).isNull();
+    }
+
+    @Test
+    void save_keepsScenariosWithoutSteps() {
+        store.save(new ScenarioDto("empty", "No steps", List.of()));
+        store.save(new ScenarioDto("null", null, null));
+
+        assertThat(store.load("empty")).contains(new ScenarioDto("empty", "No steps", List.of()));
+        assertThat(store.load("null")).contains(new ScenarioDto("null", null, null));
+        assertThat(store.load("missing")).isEmpty();
+    }
+
+    @Test
+    void save_replacesExistingScenario() {
+        store.save(scenario("sc-1", "First", 3, 4));
+        ScenarioDto replacement = scenario("sc-1", "Second", 1, 2);
+
+        store.save(replacement);
+
+        assertThat(store.load("sc-1")).contains(replacement);
+        assertThat(store.count()).isEqualTo(1);
+        assertThat(store.stepCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadAll_countAndClear_coverAllScenarios() {
+        ScenarioDto first = scenario("a", "A", 2, 3);
+        ScenarioDto second = scenario("b", "B", 3, 1);
+        store.save(first);
+        store.save(second);
+
+        assertThat(store.loadAll()).containsExactlyInAnyOrder(first, second);
+        assertThat(store.count()).isEqualTo(2);
+        assertThat(store.stepCount()).isEqualTo(5);
+
+        store.clear();
+
+        assertThat(store.loadAll()).isEmpty();
+        assertThat(store.count()).isZero();
+        assertThat(store.stepCount()).isZero();
+    }
+
+    @Test
+    void save_largeScenario_roundTrips() {
+        // 50 steps with 100 rows of 5 columns in each of the request and response grids: 50,000 cells
+        ScenarioDto scenario = scenario("large", "Large", 50, 100);
+
+        store.save(scenario);
+        store.save(scenario); // Replacing deletes the previous cells first
+
+        assertThat(store.load("large")).contains(scenario);
+    }
+
+    @Test
+    void versions_areStoredAndPatchesApplied() {
+        ScenarioDto saved = scenario("v", "Versioned", 2, 2);
+        saved.setVersion(3L);
+        store.save(saved);
+        store.save(scenario("unversioned", "Unversioned", 1, 1));
+
+        store.patch("v", List.of(setCell(1, "response", 1, "status", "DONE")), 4);
+
+        ScenarioDto patched = store.load("v").orElseThrow();
+        assertThat(patched.getVersion()).isEqualTo(4L);
+        assertThat(patched.getSteps().get(1).getStepResponseData().get(1)).containsEntry("status", "DONE");
+        assertThat(store.version("v")).hasValue(4);
+        assertThat(store.version("unversioned")).hasValue(0);
+        assertThat(store.version("missing")).isEmpty();
+    }
+
+    @Test
+    void counts_trackWritesWithoutQueryingAndMatchTheTables() {
+        store.save(scenario("a", "A", 3, 1));
+        store.save(scenario("b", "B", 2, 1));
+        store.save(new ScenarioDto("empty", "Empty", null));
+        store.save(scenario("b", "B", 4, 1)); // Replaces 2 steps with 4
+        store.patch("a", List.of(deleteStep(0)), 1);
+
+        assertThat(store.count()).isEqualTo(3);
+        assertThat(store.stepCount()).isEqualTo(6);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scenario_step", Long.class)).isEqualTo(6);
+
+        // Another store on the same database starts from what is stored
+        JdbcScenarioStore reopened = new JdbcScenarioStore(dataSource);
+        assertThat(reopened.count()).isEqualTo(3);
+        assertThat(reopened.stepCount()).isEqualTo(6);
+    }
+
+    @Test
+    void schemaCreation_isIdempotent() {
+        store.save(scenario("kept", "Kept", 1, 1));
+
+        JdbcScenarioStore reopened = new JdbcScenarioStore(dataSource);
+
+        assertThat(reopened.load("kept")).contains(scenario("kept", "Kept", 1, 1));
+    }
+
+    private static ScenarioDto scenario(String id, String name, int steps, int rows) {
+        List<ScenarioStepDto> stepList = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            stepList.add(new ScenarioStepDto("step-" + step, "ACTION_" + step, "before " + step, "after " + step,
+                    List.of(Map.of("param", String.valueOf(step))), rows(step, rows), rows(step + 1000, rows)));
+        }
+        return new ScenarioDto(id, name, stepList);
+    }
+
+    private static List<Map<String, String>> rows(int seed, int count) {
+        List<Map<String, String>> rows = new ArrayList<>(count);
+        for (int row = 0; row < count; row++) {
+            Map<String, String> cells = new LinkedHashMap<>();
+            for (String column : Arrays.asList("id", "name", "amount", "currency", "status")) {
+                cells.put(column, column + "-" + seed + "-" + row);
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,270 @@
+package com.infosys.fbp.platform.scenario.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteRows;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.insertRows;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.insertStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.setCell;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournaledScenarioStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<JournaledScenarioStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(JournaledScenarioStore::shutdown);
+    }
+
+    @Test
+    void savedScenarios_surviveRestart() {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        ScenarioDto first = scenario("a", 2);
+        ScenarioDto second = scenario("b", 1);
+        store.save(first);
+        store.save(second);
+        store.save(scenario("a", 3)); // Replaces the first version
+        store.shutdown();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+
+        assertThat(restarted.load("a")).contains(scenario("a", 3));
+        assertThat(restarted.load("b")).contains(second);
+        assertThat(restarted.count()).isEqualTo(2);
+        assertThat(restarted.stepCount()).isEqualTo(4);
+    }
+
+    @Test
+    void clear_isJournaled() {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        store.save(scenario("a", 1));
+        store.clear();
+        store.save(scenario("b", 1));
+        store.shutdown();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+
+        assertThat(restarted.loadAll()).containsExactly(scenario("b", 1));
+    }
+
+    @Test
+    void tornTail_isDiscardedAndOverwritten() throws IOException {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        store.save(scenario("a", 1));
+        store.save(scenario("b", 1));
+        store.shutdown();
+        // Corrupt the payload of the second record, as a crash halfway through its append would
+        Path journal = directory.resolve("scenarios-0.journal");
+        int secondRecordPayload = firstRecordLength(journal) + ScenarioJournal.HEADER_BYTES + 10;
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.seek(secondRecordPayload);
+            file.write('#');
+        }
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        assertThat(restarted.loadAll()).containsExactly(scenario("a", 1));
+        restarted.save(scenario("c", 2));
+        restarted.shutdown();
+
+        JournaledScenarioStore again = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        assertThat(again.loadAll()).containsExactlyInAnyOrder(scenario("a", 1), scenario("c", 2));
+    }
+
+    @Test
+    void compaction_snapshotsAndDeletesOldJournals() throws IOException {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(16), DataSize.ofKilobytes(4));
+        for (int i = 0; i < 40; i++) {
+            store.save(scenario("s" + (i % 10), 1 + i % 3));
+        }
+        store.shutdown(); // Waits for the pending snapshot
+
+        assertThat(directory.resolve(JournaledScenarioStore.SNAPSHOT_FILE)).exists();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".journal"))).hasSize(1);
+        }
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(16), DataSize.ofKilobytes(4));
+        assertThat(restarted.count()).isEqualTo(10);
+        for (int i = 30; i < 40; i++) {
+            assertThat(restarted.load("s" + (i % 10))).contains(scenario("s" + (i % 10), 1 + i % 3));
+        }
+    }
+
+    @Test
+    void patches_areJournaledAndReplayed() {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        ScenarioDto saved = scenario("a", 3);
+        saved.setVersion(1L);
+        store.save(saved);
+        store.patch("a", List.of(setCell(2, "request", 0, "field", "edited")), 2);
+        store.patch("a", List.of(deleteStep(0)), 3);
+        assertThatThrownBy(() -> store.patch("a", List.of(deleteStep(5)), 4)).isInstanceOf(IllegalArgumentException.class);
+        ScenarioDto patched = store.load("a").orElseThrow();
+        store.shutdown();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+
+        assertThat(restarted.load("a")).contains(patched);
+        assertThat(restarted.version("a")).hasValue(3);
+        assertThat(patched.getSteps()).hasSize(2);
+        assertThat(patched.getSteps().get(1).getStepRequestData().get(0)).containsEntry("field", "edited");
+    }
+
+    @Test
+    void patchEditingAnInsertedStep_replaysAsApplied() {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        store.save(scenario("a", 1));
+        // Editable grids, as Jackson deserializes them from a request
+        List<Map<String, String>> rows = new ArrayList<>(List.of(new LinkedHashMap<>(Map.of("a", "1"))));
+        ScenarioStepDto inserted = new ScenarioStepDto("new", "ACTION_NEW", null, null, null, rows, null);
+        store.patch("a", List.of(
+                insertStep(null, inserted),
+                insertRows(1, "request", null, List.of(Map.of("a", "2"), Map.of("a", "3"))),
+                setCell(1, "request", 0, "a", "changed"),
+                deleteRows(1, "request", 2, 1)), 2);
+        ScenarioDto patched = store.load("a").orElseThrow();
+        assertThat(store.stepCount()).isEqualTo(2);
+        store.shutdown();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+
+        assertThat(patched.getSteps().get(1).getStepRequestData()).containsExactly(Map.of("a", "changed"), Map.of("a", "2"));
+        assertThat(rows).containsExactly(Map.of("a", "1")); // The operation itself is left as it was
+        assertThat(restarted.load("a")).contains(patched);
+        assertThat(restarted.stepCount()).isEqualTo(2);
+    }
+
+    @Test
+    void patchJournaledAfterClear_isSkippedOnReplay() throws IOException {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+        store.save(scenario("a", 2));
+        store.clear();
+        store.shutdown();
+        // A patch that raced the clear, as earlier versions could journal it
+        byte[] json = new ObjectMapper().writeValueAsBytes(new JournaledScenarioStore.PatchRecord("a", 2, List.of(deleteStep(0))));
+        byte[] payload = new byte[json.length + 1];
+        payload[0] = 3; // A patch record
+        System.arraycopy(json, 0, payload, 1, json.length);
+        ScenarioJournal journal = ScenarioJournal.open(directory.resolve("scenarios-0.journal"), 0, 64 * 1024, record -> {});
+        journal.sync(journal.append(payload));
+        journal.close();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(64), DataSize.ofKilobytes(32));
+
+        assertThat(restarted.count()).isZero();
+        restarted.save(scenario("b", 1));
+        assertThat(restarted.load("b")).contains(scenario("b", 1));
+    }
+
+    @Test
+    void failedSync_leavesChangeUnappliedAndRefusesFurtherWrites() {
+        AtomicBoolean diskFailing = new AtomicBoolean();
+        JournaledScenarioStore store = new JournaledScenarioStore(new ObjectMapper(), directory.toString(),
+                DataSize.ofKilobytes(64), DataSize.ofKilobytes(32)) {
+            @Override
+            void sync(ScenarioJournal target, int end) {
+                if (diskFailing.get()) {
+                    throw new UncheckedIOException(new IOException("Input/output error"));
+                }
+                super.sync(target, end);
+            }
+        };
+        opened.add(store);
+        store.save(scenario("a", 1));
+        diskFailing.set(true);
+
+        assertThatThrownBy(() -> store.save(scenario("b", 2))).isInstanceOf(UncheckedIOException.class);
+
+        assertThat(store.load("b")).isEmpty();
+        assertThat(store.count()).isEqualTo(1);
+        assertThat(store.stepCount()).isEqualTo(1);
+        diskFailing.set(false);
+        assertThatThrownBy(() -> store.save(scenario("c", 1))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(store::clear).isInstanceOf(IllegalStateException.class);
+        assertThat(store.load("a")).contains(scenario("a", 1));
+    }
+
+    @Test
+    void recordLargerThanJournal_isWrittenToLargerJournal() {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(4), DataSize.ofKilobytes(2));
+        ScenarioDto large = scenario("large", 50);
+        store.save(large);
+        store.shutdown();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(4), DataSize.ofKilobytes(2));
+
+        assertThat(restarted.load("large")).contains(large);
+    }
+
+    @Test
+    void concurrentSaves_areAllDurable() throws Exception {
+        JournaledScenarioStore store = open(DataSize.ofKilobytes(256), DataSize.ofKilobytes(64));
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String id = "c" + i;
+                saves.add(writers.submit(() -> store.save(scenario(id, 2))));
+            }
+            for (Future<?> save : saves) {
+                save.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+        store.shutdown();
+
+        JournaledScenarioStore restarted = open(DataSize.ofKilobytes(256), DataSize.ofKilobytes(64));
+
+        assertThat(restarted.count()).isEqualTo(200);
+        assertThat(restarted.stepCount()).isEqualTo(400);
+    }
+
+    private JournaledScenarioStore open(DataSize journalSize, DataSize compactionThreshold) {
+        JournaledScenarioStore store = new JournaledScenarioStore(new ObjectMapper(), directory.toString(), journalSize, compactionThreshold);
+        opened.add(store);
+        return store;
+    }
+
+    private static int firstRecordLength(Path journal) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "r")) {
+            return file.readInt();
+        }
+    }
+
+    private static ScenarioDto scenario(String id, int steps) {
+        List<ScenarioStepDto> stepList = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            stepList.add(new ScenarioStepDto("step-" + step, "ACTION_" + step, "before", "after",
+                    List.of(Map.of("param", id + step)), List.of(Map.of("field", "value-" + step)), List.of()));
+        }
+        return new ScenarioDto(id, "Scenario " + id, stepList);
+    }
+}
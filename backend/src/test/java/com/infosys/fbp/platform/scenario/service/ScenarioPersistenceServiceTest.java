@@ -1,23 +1,35 @@
 package com.infosys.fbp.platform.scenario.service;
 
 import com.infosys.fbp.platform.scenario.dto.ScenarioDto;
+import com.infosys.fbp.platform.scenario.dto.ScenarioPatchDto;
 import com.infosys.fbp.platform.scenario.dto.ScenarioStepDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteRows;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.deleteStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.insertRows;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.insertStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.moveStep;
+import static com.infosys.fbp.platform.scenario.dto.ScenarioPatchOperationDto.setCell;
 import static org.junit.jupiter.api.Assertions.*;
 
 class ScenarioPersistenceServiceTest {
 
     private ScenarioPersistenceService service;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        service = new ScenarioPersistenceService();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ScenarioPersistenceService(new InMemoryScenarioStore(), meterRegistry);
     }
 
     // Updated test to reflect new save behavior (using provided ID and returning DTO)
@@ -184,4 +196,142 @@ class ScenarioPersistenceServiceTest {
         assertEquals("Context before step execution", loadedStep.getBeforeDescription());
         assertEquals("Expected outcome after step execution", loadedStep.getAfterDescription());
     }
+
+    @Test
+    void operations_shouldBeTimedAndStoreSizeReported() {
+        // Arrange
+        service.saveScenario(createTestScenario("metrics-1", "Metrics 1"));
+        service.saveScenario(createTestScenario("metrics-2", "Metrics 2"));
+
+        // Act
+        service.loadScenario("metrics-1");
+        service.loadScenario("missing");
+        service.getAllScenarios();
+
+        // Assert
+        assertEquals(2, timerCount("save", "n/a"));
+        assertEquals(1, timerCount("load", "found"));
+        assertEquals(1, timerCount("load", "not_found"));
+        assertEquals(1, timerCount("getAll", "n/a"));
+        assertEquals(2.0, meterRegistry.get(ScenarioPersistenceService.SCENARIOS_GAUGE).gauge().value());
+        assertEquals(2.0, meterRegistry.get(ScenarioPersistenceService.STEPS_GAUGE).gauge().value());
+    }
+
+    @Test
+    void saveScenario_shouldAssignIncreasingVersions() {
+        // Act
+        ScenarioDto first = service.saveScenario(createTestScenario("versioned", "V1"));
+        ScenarioDto second = service.saveScenario(createTestScenario("versioned", "V2"));
+
+        // Assert
+        assertEquals(1L, first.getVersion());
+        assertEquals(2L, second.getVersion());
+        assertEquals(2L, service.loadScenario("versioned").orElseThrow().getVersion());
+    }
+
+    @Test
+    void patchScenario_shouldApplyStepAndGridOperationsAsNextVersion() {
+        // Arrange
+        service.saveScenario(createTestScenario("patched", "Patched"));
+        ScenarioStepDto added = new ScenarioStepDto("step2", "actionB", null, null, null, null, null);
+
+        // Act
+        Optional<Long> inserted = service.patchScenario("patched", new ScenarioPatchDto(1L, List.of(
+                insertStep(null, added),
+                setCell(0, "request", 0, "field1", "changed"),
+                insertRows(1, "request", null, List.of(Map.of("a", "1"), Map.of("a", "2"), Map.of("a", "3"))),
+                deleteRows(1, "request", 0, 1))));
+        Optional<Long> moved = service.patchScenario("patched", new ScenarioPatchDto(2L, List.of(moveStep(1, 0))));
+
+        // Assert
+        assertEquals(Optional.of(2L), inserted);
+        assertEquals(Optional.of(3L), moved);
+        ScenarioDto loaded = service.loadScenario("patched").orElseThrow();
+        assertEquals(3L, loaded.getVersion());
+        assertEquals(2, loaded.getSteps().size());
+        assertEquals("step2", loaded.getSteps().get(0).getId());
+        assertNull(loaded.getSteps().get(0).getStepParamsData());
+        assertEquals(List.of(Map.of("a", "2"), Map.of("a", "3")), loaded.getSteps().get(0).getStepRequestData());
+        assertEquals("changed", loaded.getSteps().get(1).getStepRequestData().get(0).get("field1"));
+        assertEquals("value2", loaded.getSteps().get(1).getStepRequestData().get(0).get("field2"));
+        assertEquals(2, timerCount("patch", "n/a"));
+    }
+
+    @Test
+    void patchScenario_shouldDeleteSteps() {
+        // Arrange
+        service.saveScenario(createTestScenario("deleted", "Deleted"));
+
+        // Act
+        service.patchScenario("deleted", new ScenarioPatchDto(1L, List.of(deleteStep(0))));
+
+        // Assert
+        assertEquals(List.of(), service.loadScenario("deleted").orElseThrow().getSteps());
+    }
+
+    @Test
+    void patchScenario_shouldKeepCellsAndColumnOrderOfEditedRow() {
+        // Arrange
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("z", "1");
+        row.put("a", "2");
+        service.saveScenario(new ScenarioDto("order", "Order", List.of(
+                new ScenarioStepDto("s", "act", null, null, null, List.of(row), null))));
+
+        // Act
+        service.patchScenario("order", new ScenarioPatchDto(1L, List.of(setCell(0, "request", 0, "z", "9"), setCell(0, "request", 0, "m", null))));
+
+        // Assert
+        Map<String, String> patched = service.loadScenario("order").orElseThrow().getSteps().get(0).getStepRequestData().get(0);
+        assertEquals(List.of("z", "a", "m"), new ArrayList<>(patched.keySet()));
+        assertEquals("9", patched.get("z"));
+        assertNull(patched.get("m"));
+    }
+
+    @Test
+    void patchScenario_shouldApplyNothing_whenAnOperationDoesNotApply() {
+        // Arrange
+        ScenarioDto original = service.saveScenario(createTestScenario("atomic", "Atomic"));
+
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                service.patchScenario("atomic", new ScenarioPatchDto(1L, List.of(
+                        setCell(0, "request", 0, "field1", "changed"),
+                        deleteRows(0, "request", 0, 5)))));
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("Operation 1 (deleteRows): "), exception.getMessage());
+        assertEquals(original, service.loadScenario("atomic").orElseThrow());
+    }
+
+    @Test
+    void patchScenario_shouldRejectStaleBaseVersion() {
+        // Arrange
+        service.saveScenario(createTestScenario("stale", "Stale"));
+        service.saveScenario(createTestScenario("stale", "Stale again"));
+
+        // Act
+        ScenarioVersionConflictException exception = assertThrows(ScenarioVersionConflictException.class, () ->
+                service.patchScenario("stale", new ScenarioPatchDto(1L, List.of(deleteStep(0)))));
+
+        // Assert
+        assertEquals(2L, exception.getCurrentVersion());
+        assertEquals(1, service.loadScenario("stale").orElseThrow().getSteps().size());
+    }
+
+    @Test
+    void patchScenario_shouldReturnEmpty_whenScenarioDoesNotExist() {
+        assertEquals(Optional.empty(), service.patchScenario("missing", new ScenarioPatchDto(1L, List.of(deleteStep(0)))));
+    }
+
+    @Test
+    void patchScenario_shouldRequireBaseVersion() {
+        service.saveScenario(createTestScenario("unversioned", "Unversioned"));
+        assertThrows(IllegalArgumentException.class, () -> service.patchScenario("unversioned", new ScenarioPatchDto(null, List.of())));
+    }
+
+    private long timerCount(String operation, String result) {
+        return meterRegistry.get(ScenarioPersistenceService.OPERATION_TIMER)
+                .tag("operation", operation).tag("result", result).timer().count();
+    }
 }
@@ -1,4 +1,4 @@
-import { Action, ScenarioDto } from '@/store/scenarioStore'; // Import ScenarioDto
+import { Action, ScenarioDto, ScenarioPatch } from '@/store/scenarioStore'; // Import ScenarioDto
 
 const API_BASE_URL = 'http://localhost:5001'; // Python Backend server address (Keep for reference or remove if unused)
 const JAVA_API_BASE_URL = 'http://localhost:8080'; // Java Backend server address
@@ -93,3 +93,30 @@ export const loadScenarioTemporary = async (scenarioId: string): Promise<Scenari
         throw error; // Re-throw to allow calling component to handle it
     }
 };
+
+/**
+ * Applies step and cell edits to a scenario on the Java backend without re-sending the whole scenario.
+ * @param scenarioId - The ID of the scenario to patch.
+ * @param patch - The version the edits were made against and the operations, in order.
+ * @returns The new version of the scenario. Rejected with a 409 error if the scenario changed since the base version.
+ */
+export const patchScenarioTemporary = async (scenarioId: string, patch: ScenarioPatch): Promise<number> => {
+    try {
+        const response = await fetch(`${JAVA_API_BASE_URL}/api/scenarios/patch/${scenarioId}`, {
+            method: 'PATCH',
+            headers: {
+                'Content-Type': 'application/json',
+            },
+            body: JSON.stringify(patch),
+        });
+        if (!response.ok) {
+            const errorData = await response.json().catch(() => ({ error: 'Failed to parse error response' }));
+            throw new Error(`HTTP error! status: ${response.status}, message: ${errorData.error || 'Unknown error'}`);
+        }
+        const data: { scenarioId: string; version: number } = await response.json();
+        return data.version;
+    } catch (error) {
+        console.error(`Error patching scenario ${scenarioId}:`, error);
+        throw error; // Re-throw to allow calling component to handle it
+    }
+};
@@ -73,6 +73,27 @@ export interface ScenarioDto {
   scenarioId?: string; // Optional for new scenarios being saved
   scenarioName: string;
   steps: ScenarioStep[]; // Corresponds to flowSteps in the store state
+  version?: number; // Assigned by the backend on every save or patch
+}
+
+// One edit of a scenario patch; which fields apply depends on the op
+export interface ScenarioPatchOperation {
+  op: 'insertStep' | 'moveStep' | 'deleteStep' | 'setCell' | 'insertRows' | 'deleteRows';
+  stepIndex?: number;
+  toIndex?: number; // moveStep
+  step?: ScenarioStep; // insertStep
+  grid?: 'params' | 'request' | 'response'; // Grid operations
+  rowIndex?: number;
+  count?: number; // deleteRows
+  column?: string; // setCell
+  value?: string | null; // setCell
+  rows?: StepRowData[]; // insertRows
+}
+
+// Operations made against the scenario version the client last loaded or saved
+export interface ScenarioPatch {
+  baseVersion: number;
+  operations: ScenarioPatchOperation[];
 }
 
 interface ScenarioActions {